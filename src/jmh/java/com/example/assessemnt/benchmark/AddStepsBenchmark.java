@@ -0,0 +1,90 @@
+package com.example.assessemnt.benchmark;
+
+import com.example.assessemnt.config.CounterProperties;
+import com.example.assessemnt.service.CounterMode;
+import com.example.assessemnt.service.TeamStepService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AddStepsBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Teams {
+
+        @Param({"1000"})
+        int teamCount;
+
+        @Param({"uniform", "zipfian"})
+        String distribution;
+
+        @Param({"ATOMIC", "STRIPED"})
+        CounterMode counterMode;
+
+        TeamStepService service;
+        String[] teamIds;
+
+        @Setup
+        public void setUp() {
+            service = new TeamStepService(new TeamStepService.Options().counters(new CounterProperties(counterMode)));
+            teamIds = new String[teamCount];
+            for (int i = 0; i < teamCount; i++) {
+                teamIds[i] = "team-" + i;
+                service.createTeam(teamIds[i]);
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+
+        int[] samples;
+        int next;
+
+        @Setup
+        public void setUp(Teams teams) {
+            long seed = Thread.currentThread().threadId();
+            samples = "zipfian".equals(teams.distribution)
+                    ? TeamSampler.zipfian(teams.teamCount, 0.99, seed)
+                    : TeamSampler.uniform(teams.teamCount, seed);
+        }
+
+        String nextTeam(Teams teams) {
+            return teams.teamIds[samples[next++ & TeamSampler.mask()]];
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void addSteps_1Thread(Teams teams, Cursor cursor) {
+        teams.service.addSteps(cursor.nextTeam(teams), 10L);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void addSteps_4Threads(Teams teams, Cursor cursor) {
+        teams.service.addSteps(cursor.nextTeam(teams), 10L);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public void addSteps_MaxThreads(Teams teams, Cursor cursor) {
+        teams.service.addSteps(cursor.nextTeam(teams), 10L);
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.assessemnt.benchmark;
+
+import com.example.assessemnt.config.LeaderboardProperties;
+import com.example.assessemnt.dto.LeaderboardEntry;
+import com.example.assessemnt.dto.TeamRankResponse;
+import com.example.assessemnt.service.LeaderboardRanking;
+import com.example.assessemnt.service.TeamStepService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class LeaderboardBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    int teamCount;
+
+    @Param({"exact", "approximate"})
+    String ranking;
+
+    TeamStepService service;
+    String middleTeam;
+    String[] teamIds;
+    SplittableRandom random;
+
+    @Setup
+    public void setUp() {
+        service = new TeamStepService(new TeamStepService.Options()
+                .leaderboard(new LeaderboardProperties(Duration.ZERO, Duration.ofSeconds(1), 20,
+                        LeaderboardRanking.valueOf(ranking.toUpperCase()), 1000, 0.01)));
+        teamIds = new String[teamCount];
+        random = new SplittableRandom(42);
+        for (int i = 0; i < teamCount; i++) {
+            String teamId = "team-" + i;
+            teamIds[i] = teamId;
+            service.createTeam(teamId);
+            service.addSteps(teamId, (long) random.nextInt(1_000_000));
+        }
+        middleTeam = "team-" + teamCount / 2;
+    }
+
+    @Benchmark
+    public List<LeaderboardEntry> getLeaderboard() {
+        return service.getLeaderboard();
+    }
+
+    @Benchmark
+    public List<LeaderboardEntry> getTopTeams() {
+        return service.getTopTeams(20);
+    }
+
+    @Benchmark
+    public TeamRankResponse getTeamRank() {
+        return service.getTeamRank(middleTeam);
+    }
+
+    @Benchmark
+    public void addSteps() {
+        service.addSteps(teamIds[random.nextInt(teamCount)], (long) random.nextInt(1, 1_000));
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.assessemnt.benchmark;
+
+import com.example.assessemnt.dto.LeaderboardEntry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LeaderboardSerializationBenchmark {
+
+    @Param({"20", "1000", "100000"})
+    int entryCount;
+
+    JsonMapper jsonMapper;
+    List<LeaderboardEntry> leaderboard;
+
+    @Setup
+    public void setUp() {
+        jsonMapper = JsonMapper.builder().build();
+        leaderboard = new ArrayList<>(entryCount);
+        for (int i = 0; i < entryCount; i++) {
+            leaderboard.add(new LeaderboardEntry("team-" + i, (long) (entryCount - i) * 1000));
+        }
+    }
+
+    @Benchmark
+    public byte[] serialiseLeaderboard() {
+        return jsonMapper.writeValueAsBytes(leaderboard);
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.assessemnt.benchmark;
+
+import com.example.assessemnt.config.LeaderboardProperties;
+import com.example.assessemnt.controller.LeaderboardStreamPublisher;
+import com.example.assessemnt.controller.TeamStepController;
+import com.example.assessemnt.exception.GlobalExceptionHandler;
+import com.example.assessemnt.exception.TeamNotFoundException;
+import com.example.assessemnt.service.LeaderboardRanking;
+import com.example.assessemnt.service.LeaderboardSnapshotCache;
+import com.example.assessemnt.service.StepIngestQueue;
+import com.example.assessemnt.service.TeamStepService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Throughput of requests for a team that does not exist: the service lookup alone, and the whole
+ * MVC round trip (handler, exception resolution, error body serialisation) through MockMvc.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class NotFoundBenchmark {
+
+    TeamStepService service;
+    MockMvc mockMvc;
+    int next;
+
+    @Setup
+    public void setUp() {
+        service = new TeamStepService();
+        for (int i = 0; i < 1000; i++) {
+            service.createTeam("team-" + i);
+        }
+        JsonMapper jsonMapper = JsonMapper.builder().build();
+        LeaderboardProperties properties = new LeaderboardProperties(Duration.ZERO, Duration.ofSeconds(1), 20,
+                LeaderboardRanking.EXACT, 1000, 0.01);
+        TeamStepController controller = new TeamStepController(service,
+                new LeaderboardSnapshotCache(service, jsonMapper, properties),
+                new LeaderboardStreamPublisher(service, jsonMapper, properties),
+                new StaticListableBeanFactory().getBeanProvider(StepIngestQueue.class));
+        mockMvc = MockMvcBuilders.standaloneSetup(controller)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    @Benchmark
+    public Object serviceLookup() {
+        try {
+            return service.getTeamSteps("deleted-" + (next++ & 1023));
+        } catch (TeamNotFoundException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public MockHttpServletResponse http404() throws Exception {
+        return mockMvc.perform(get("/api/teams/{teamId}", "deleted-" + (next++ & 1023))).andReturn().getResponse();
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.assessemnt.benchmark;
+
+import com.example.assessemnt.config.CounterProperties;
+import com.example.assessemnt.config.LeaderboardProperties;
+import com.example.assessemnt.service.CounterMode;
+import com.example.assessemnt.service.LeaderboardRanking;
+import com.example.assessemnt.service.TeamStepService;
+
+import java.lang.ref.Reference;
+import java.time.Duration;
+
+/**
+ * Reports the retained heap per team: creates {@code teamCount} teams with steps and compares the
+ * used heap after full GCs. Team ID strings are allocated up front and excluded from the figure.
+ * <p>
+ * {@code ./mvnw -Pbenchmark test-compile exec:exec -Dbenchmark.main=com.example.assessemnt.benchmark.TeamFootprint
+ * -Djmh.args="1000000 atomic exact"}
+ */
+public final class TeamFootprint {
+
+    private TeamFootprint() {
+    }
+
+    public static void main(String[] args) {
+        int teamCount = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        CounterMode mode = args.length > 1 ? CounterMode.valueOf(args[1].toUpperCase()) : CounterMode.ATOMIC;
+        LeaderboardRanking ranking = args.length > 2
+                ? LeaderboardRanking.valueOf(args[2].toUpperCase())
+                : LeaderboardRanking.EXACT;
+        String[] teamIds = new String[teamCount];
+        for (int i = 0; i < teamCount; i++) {
+            teamIds[i] = "team-" + i;
+        }
+
+        long before = usedHeap();
+        TeamStepService service = new TeamStepService(new TeamStepService.Options()
+                .counters(new CounterProperties(mode))
+                .leaderboard(new LeaderboardProperties(Duration.ZERO, Duration.ofSeconds(1), 20, ranking, 1000,
+                        0.01)));
+        for (int i = 0; i < teamCount; i++) {
+            service.createTeam(teamIds[i]);
+            service.addSteps(teamIds[i], (long) (i % 10_000) + 1);
+        }
+        service.getLeaderboardVersion();
+        long after = usedHeap();
+
+        System.out.printf("%s mode, %s ranking, %,d teams: %,d bytes retained, %.1f bytes per team%n",
+                mode, ranking, teamCount, after - before, (double) (after - before) / teamCount);
+        Reference.reachabilityFence(service);
+        Reference.reachabilityFence(teamIds);
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
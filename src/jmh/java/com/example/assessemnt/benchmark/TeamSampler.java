@@ -0,0 +1,45 @@
+package com.example.assessemnt.benchmark;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Pre-draws team indexes so that benchmarks measure the service rather than the random number
+ * generator. The skewed distribution is Zipfian: team 0 is the most popular.
+ */
+final class TeamSampler {
+
+    private static final int SAMPLES = 1 << 16;
+
+    private TeamSampler() {
+    }
+
+    static int[] uniform(int teamCount, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        int[] samples = new int[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            samples[i] = random.nextInt(teamCount);
+        }
+        return samples;
+    }
+
+    static int[] zipfian(int teamCount, double exponent, long seed) {
+        double[] cumulative = new double[teamCount];
+        double total = 0;
+        for (int rank = 0; rank < teamCount; rank++) {
+            total += 1.0 / Math.pow(rank + 1, exponent);
+            cumulative[rank] = total;
+        }
+        SplittableRandom random = new SplittableRandom(seed);
+        int[] samples = new int[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            int index = Arrays.binarySearch(cumulative, random.nextDouble() * total);
+            samples[i] = index >= 0 ? index : Math.min(-index - 1, teamCount - 1);
+        }
+        return samples;
+    }
+
+    static int mask() {
+        return SAMPLES - 1;
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.assessemnt.benchmark;
+
+import com.example.assessemnt.dto.AddStepsRequest;
+import com.example.assessemnt.dto.LeaderboardEntry;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON against CBOR for the two hot payloads: decoding (and validating) a step submission, and
+ * encoding a leaderboard page. Body sizes are printed at setup.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WireFormatBenchmark {
+
+    @Param({"json", "cbor"})
+    String format;
+
+    @Param({"20", "1000"})
+    int entryCount;
+
+    ObjectMapper mapper;
+    ValidatorFactory validatorFactory;
+    Validator validator;
+    byte[] stepsRequest;
+    List<LeaderboardEntry> leaderboard;
+
+    @Setup
+    public void setUp() {
+        mapper = "cbor".equals(format) ? CBORMapper.builder().build() : JsonMapper.builder().build();
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+        stepsRequest = mapper.writeValueAsBytes(new AddStepsRequest(12_345L));
+        leaderboard = new ArrayList<>(entryCount);
+        for (int i = 0; i < entryCount; i++) {
+            leaderboard.add(new LeaderboardEntry("team-" + i, (long) (entryCount - i) * 1000));
+        }
+        System.out.printf("%n%s: steps request %d bytes, leaderboard of %d entries %d bytes%n", format,
+                stepsRequest.length, entryCount, mapper.writeValueAsBytes(leaderboard).length);
+    }
+
+    @TearDown
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public AddStepsRequest decodeStepsRequest() {
+        return mapper.readValue(stepsRequest, AddStepsRequest.class);
+    }
+
+    @Benchmark
+    public Set<?> decodeAndValidateStepsRequest() {
+        return validator.validate(mapper.readValue(stepsRequest, AddStepsRequest.class));
+    }
+
+    @Benchmark
+    public byte[] encodeLeaderboard() {
+        return mapper.writeValueAsBytes(leaderboard);
+    }
+}
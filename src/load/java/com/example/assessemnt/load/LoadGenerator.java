@@ -0,0 +1,208 @@
+package com.example.assessemnt.load;
+
+import com.example.assessemnt.load.RequestLog.PlannedRequest;
+import com.example.assessemnt.load.RequestLog.Recording;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives a running application over HTTP with a {@link LoadProfile} or a recorded {@link RequestLog}
+ * and reports throughput and latency percentiles per operation.
+ * <p>
+ * Load is open-loop: every request has an intended send time and its latency is measured from that
+ * time, not from when it was actually sent, so a stalled server shows up in the percentiles
+ * instead of silently slowing the generator down (coordinated omission).
+ * <p>
+ * Options: {@code --base-url=http://localhost:8082}, {@code --profile=steady|bursty|churn}, profile
+ * overrides ({@code --duration=60s --rate=2000 --teams=10000 --zipf=1.1 --burst-factor=5
+ * --burst-period=10s --burst-length=2s --leaderboard=5 --churn=2}), {@code --seed=1},
+ * {@code --record=file}, {@code --replay=file}, {@code --histograms=dir} and
+ * {@code --max-in-flight=10000}.
+ */
+public final class LoadGenerator {
+
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final URI baseUrl;
+    private final HttpClient client;
+    private final int maxInFlight;
+    private final Semaphore inFlight;
+    private final Map<String, OperationStats> stats = new ConcurrentHashMap<>();
+    private long runNanos;
+
+    LoadGenerator(URI baseUrl, int maxInFlight) {
+        this.baseUrl = baseUrl;
+        this.maxInFlight = maxInFlight;
+        this.inFlight = new Semaphore(maxInFlight);
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --option=value but got " + arg);
+            }
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        URI baseUrl = URI.create(options.getOrDefault("base-url", "http://localhost:8082"));
+        int maxInFlight = Integer.parseInt(options.getOrDefault("max-in-flight", "10000"));
+        String replay = options.get("replay");
+        String record = options.get("record");
+        String histograms = options.get("histograms");
+        long seed = Long.parseLong(options.getOrDefault("seed", "1"));
+        LoadProfile profile = LoadProfile.named(options.getOrDefault("profile", "steady"));
+        for (Map.Entry<String, String> option : options.entrySet()) {
+            switch (option.getKey()) {
+                case "base-url", "max-in-flight", "replay", "record", "histograms", "seed", "profile" -> {
+                }
+                default -> profile = profile.with(option.getKey(), option.getValue());
+            }
+        }
+
+        LoadGenerator generator = new LoadGenerator(baseUrl, maxInFlight);
+        if (replay != null) {
+            Recording recording = RequestLog.read(Path.of(replay));
+            System.out.printf("Replaying %d requests from %s against %s%n", recording.requests().size(), replay,
+                    baseUrl);
+            generator.createTeams(recording.teamCount());
+            generator.run(recording.requests().iterator(), null);
+        } else {
+            System.out.printf("Running %s against %s%n", profile, baseUrl);
+            generator.createTeams(profile.teamCount());
+            try (RequestLog log = record == null ? null : RequestLog.create(Path.of(record), profile.teamCount())) {
+                generator.run(new TrafficPlan(profile, seed), log);
+            }
+        }
+        generator.report(System.out);
+        if (histograms != null) {
+            generator.writeHistograms(Path.of(histograms));
+        }
+    }
+
+    void createTeams(int teamCount) throws InterruptedException {
+        Semaphore setup = new Semaphore(64);
+        for (int i = 0; i < teamCount; i++) {
+            setup.acquire();
+            client.sendAsync(request("PUT", "/api/teams/" + TrafficPlan.teamId(i), null),
+                            HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> setup.release());
+        }
+        setup.acquire(64);
+    }
+
+    void run(Iterator<PlannedRequest> plan, RequestLog log) throws InterruptedException {
+        long startedAt = System.nanoTime();
+        while (plan.hasNext()) {
+            PlannedRequest planned = plan.next();
+            if (log != null) {
+                log.append(planned);
+            }
+            long intendedAt = startedAt + TimeUnit.MICROSECONDS.toNanos(planned.offsetMicros());
+            long wait;
+            while ((wait = intendedAt - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            send(planned, intendedAt);
+        }
+        if (!inFlight.tryAcquire(maxInFlight, 1, TimeUnit.MINUTES)) {
+            System.out.println("Gave up waiting for outstanding responses");
+        }
+        runNanos = System.nanoTime() - startedAt;
+    }
+
+    private void send(PlannedRequest planned, long intendedAt) {
+        OperationStats operation = stats.computeIfAbsent(planned.operation(), name -> new OperationStats());
+        if (!inFlight.tryAcquire()) {
+            operation.saturated.increment();
+            return;
+        }
+        client.sendAsync(request(planned.method(), planned.path(), planned.body()),
+                        HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, error) -> {
+                    operation.record(System.nanoTime() - intendedAt, response == null ? 0 : response.statusCode());
+                    inFlight.release();
+                });
+    }
+
+    private HttpRequest request(String method, String path, String body) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(baseUrl.resolve(path)).timeout(Duration.ofSeconds(30));
+        if (body == null) {
+            return builder.method(method, HttpRequest.BodyPublishers.noBody()).build();
+        }
+        return builder.header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    void report(PrintStream out) {
+        double seconds = runNanos / 1e9;
+        out.printf("%nRun took %.1f s%n", seconds);
+        out.printf("%-12s %9s %10s %9s %9s %9s %9s %9s %9s%n", "operation", "requests", "req/s", "p50 ms",
+                "p90 ms", "p99 ms", "p99.9 ms", "max ms", "saturated");
+        new TreeMap<>(stats).forEach((name, operation) -> {
+            Histogram latency = operation.latency;
+            out.printf("%-12s %9d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f %9d%n", name, latency.getTotalCount(),
+                    latency.getTotalCount() / seconds, millis(latency.getValueAtPercentile(50)),
+                    millis(latency.getValueAtPercentile(90)), millis(latency.getValueAtPercentile(99)),
+                    millis(latency.getValueAtPercentile(99.9)), millis(latency.getMaxValue()),
+                    operation.saturated.sum());
+        });
+        new TreeMap<>(stats).forEach((name, operation) -> out.printf("%-12s status %s%n", name,
+                new TreeMap<>(operation.statuses)));
+    }
+
+    /**
+     * Writes each operation's full percentile distribution in HdrHistogram's {@code .hgrm} format
+     * (values in milliseconds), which the HdrHistogram plotter can chart and compare across runs.
+     */
+    void writeHistograms(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        for (Map.Entry<String, OperationStats> operation : stats.entrySet()) {
+            Path file = directory.resolve(operation.getKey() + ".hgrm");
+            try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+                operation.getValue().latency.outputPercentileDistribution(out, 1000.0);
+            }
+        }
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+
+    private static final class OperationStats {
+
+        private final ConcurrentHistogram latency = new ConcurrentHistogram(MAX_LATENCY_MICROS, 3);
+        private final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+        private final LongAdder saturated = new LongAdder();
+
+        private void record(long latencyNanos, int status) {
+            latency.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), MAX_LATENCY_MICROS));
+            statuses.computeIfAbsent(status, key -> new LongAdder()).increment();
+        }
+    }
+}
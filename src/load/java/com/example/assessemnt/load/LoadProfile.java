@@ -0,0 +1,75 @@
+package com.example.assessemnt.load;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Shape of the generated traffic. Requests arrive open-loop at {@code rate} per second, multiplied
+ * by {@code burstFactor} for {@code burstLength} out of every {@code burstPeriod}. Each request is a
+ * leaderboard poll with probability {@code leaderboardPercent}, a team removal or re-creation with
+ * probability {@code churnPercent}, and otherwise a step submission for a team drawn from a
+ * Zipfian distribution with exponent {@code zipfExponent} (0 is uniform).
+ */
+record LoadProfile(
+        Duration duration,
+        int rate,
+        int teamCount,
+        double zipfExponent,
+        double burstFactor,
+        Duration burstPeriod,
+        Duration burstLength,
+        int leaderboardPercent,
+        int churnPercent) {
+
+    private static final Map<String, LoadProfile> BUILT_IN = Map.of(
+            "steady", new LoadProfile(Duration.ofSeconds(30), 500, 1_000, 0.99, 1,
+                    Duration.ofSeconds(10), Duration.ZERO, 5, 0),
+            "bursty", new LoadProfile(Duration.ofSeconds(60), 500, 1_000, 0.99, 5,
+                    Duration.ofSeconds(10), Duration.ofSeconds(2), 5, 0),
+            "churn", new LoadProfile(Duration.ofSeconds(60), 500, 1_000, 0.99, 1,
+                    Duration.ofSeconds(10), Duration.ZERO, 5, 5));
+
+    static LoadProfile named(String name) {
+        LoadProfile profile = BUILT_IN.get(name);
+        if (profile == null) {
+            throw new IllegalArgumentException("Unknown profile: " + name + ", expected one of " + BUILT_IN.keySet());
+        }
+        return profile;
+    }
+
+    /**
+     * Returns a copy with one setting replaced, using the command-line option names.
+     */
+    LoadProfile with(String option, String value) {
+        return switch (option) {
+            case "duration" -> new LoadProfile(Duration.parse("PT" + value.toUpperCase()), rate, teamCount,
+                    zipfExponent, burstFactor, burstPeriod, burstLength, leaderboardPercent, churnPercent);
+            case "rate" -> new LoadProfile(duration, Integer.parseInt(value), teamCount, zipfExponent,
+                    burstFactor, burstPeriod, burstLength, leaderboardPercent, churnPercent);
+            case "teams" -> new LoadProfile(duration, rate, Integer.parseInt(value), zipfExponent, burstFactor,
+                    burstPeriod, burstLength, leaderboardPercent, churnPercent);
+            case "zipf" -> new LoadProfile(duration, rate, teamCount, Double.parseDouble(value), burstFactor,
+                    burstPeriod, burstLength, leaderboardPercent, churnPercent);
+            case "burst-factor" -> new LoadProfile(duration, rate, teamCount, zipfExponent,
+                    Double.parseDouble(value), burstPeriod, burstLength, leaderboardPercent, churnPercent);
+            case "burst-period" -> new LoadProfile(duration, rate, teamCount, zipfExponent, burstFactor,
+                    Duration.parse("PT" + value.toUpperCase()), burstLength, leaderboardPercent, churnPercent);
+            case "burst-length" -> new LoadProfile(duration, rate, teamCount, zipfExponent, burstFactor,
+                    burstPeriod, Duration.parse("PT" + value.toUpperCase()), leaderboardPercent, churnPercent);
+            case "leaderboard" -> new LoadProfile(duration, rate, teamCount, zipfExponent, burstFactor,
+                    burstPeriod, burstLength, Integer.parseInt(value), churnPercent);
+            case "churn" -> new LoadProfile(duration, rate, teamCount, zipfExponent, burstFactor, burstPeriod,
+                    burstLength, leaderboardPercent, Integer.parseInt(value));
+            default -> throw new IllegalArgumentException("Unknown option: --" + option);
+        };
+    }
+
+    /**
+     * Requests per second at {@code elapsedNanos} into the run.
+     */
+    double rateAt(long elapsedNanos) {
+        long period = burstPeriod.toNanos();
+        boolean bursting = period > 0 && elapsedNanos % period < burstLength.toNanos();
+        return bursting ? rate * burstFactor : rate;
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.assessemnt.load;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Recorded traffic. A header line {@code # teams=N} gives the number of teams created before the
+ * run, followed by one request per line: {@code offset-micros TAB method TAB path TAB body}, with
+ * {@code -} for an empty body. Offsets are the intended send times, so a replay reproduces the
+ * original arrival pattern regardless of how the server kept up.
+ */
+final class RequestLog implements AutoCloseable {
+
+    private static final String TEAMS_HEADER = "# teams=";
+
+    private final BufferedWriter writer;
+
+    private RequestLog(BufferedWriter writer) {
+        this.writer = writer;
+    }
+
+    static RequestLog create(Path path, int teamCount) throws IOException {
+        BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8);
+        writer.write(TEAMS_HEADER + teamCount);
+        writer.newLine();
+        return new RequestLog(writer);
+    }
+
+    void append(PlannedRequest request) {
+        try {
+            writer.write(Long.toString(request.offsetMicros()));
+            writer.write('\t');
+            writer.write(request.method());
+            writer.write('\t');
+            writer.write(request.path());
+            writer.write('\t');
+            writer.write(request.body() == null ? "-" : request.body());
+            writer.newLine();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static Recording read(Path path) throws IOException {
+        int teamCount = 0;
+        List<PlannedRequest> requests = new ArrayList<>();
+        for (String line : Files.readAllLines(path, StandardCharsets.UTF_8)) {
+            if (line.startsWith(TEAMS_HEADER)) {
+                teamCount = Integer.parseInt(line.substring(TEAMS_HEADER.length()));
+                continue;
+            }
+            if (line.isBlank() || line.startsWith("#")) {
+                continue;
+            }
+            String[] fields = line.split("\t", 4);
+            if (fields.length != 4) {
+                throw new IOException("Malformed request log line: " + line);
+            }
+            requests.add(new PlannedRequest(Long.parseLong(fields[0]), fields[1], fields[2],
+                    "-".equals(fields[3]) ? null : fields[3]));
+        }
+        return new Recording(teamCount, requests);
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+
+    record Recording(int teamCount, List<PlannedRequest> requests) {
+    }
+
+    record PlannedRequest(long offsetMicros, String method, String path, String body) {
+
+        /**
+         * The operation the request is reported under.
+         */
+        String operation() {
+            if ("GET".equals(method) && path.startsWith("/api/teams/leaderboard")) {
+                return "leaderboard";
+            }
+            if ("POST".equals(method)) {
+                return "addSteps";
+            }
+            if ("PUT".equals(method)) {
+                return "createTeam";
+            }
+            if ("DELETE".equals(method)) {
+                return "removeTeam";
+            }
+            return "other";
+        }
+    }
+}
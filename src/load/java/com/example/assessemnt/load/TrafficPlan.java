@@ -0,0 +1,79 @@
+package com.example.assessemnt.load;
+
+import com.example.assessemnt.load.RequestLog.PlannedRequest;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.SplittableRandom;
+
+/**
+ * Generates the requests of a {@link LoadProfile} lazily, in send order. Arrivals are a Poisson
+ * process at the profile's current rate, so even the steady profile has realistic clustering.
+ */
+final class TrafficPlan implements Iterator<PlannedRequest> {
+
+    private final LoadProfile profile;
+    private final SplittableRandom random;
+    private final double[] cumulative;
+    private final boolean[] removed;
+    private final long durationNanos;
+    private long elapsedNanos;
+
+    TrafficPlan(LoadProfile profile, long seed) {
+        this.profile = profile;
+        this.random = new SplittableRandom(seed);
+        this.cumulative = new double[profile.teamCount()];
+        this.removed = new boolean[profile.teamCount()];
+        this.durationNanos = profile.duration().toNanos();
+        double total = 0;
+        for (int rank = 0; rank < cumulative.length; rank++) {
+            total += 1.0 / Math.pow(rank + 1, profile.zipfExponent());
+            cumulative[rank] = total;
+        }
+        advance();
+    }
+
+    static String teamId(int index) {
+        return "load-team-" + index;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return elapsedNanos < durationNanos;
+    }
+
+    @Override
+    public PlannedRequest next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        long offsetMicros = elapsedNanos / 1_000;
+        PlannedRequest request;
+        int roll = random.nextInt(100);
+        if (roll < profile.leaderboardPercent()) {
+            request = new PlannedRequest(offsetMicros, "GET", "/api/teams/leaderboard", null);
+        } else if (roll < profile.leaderboardPercent() + profile.churnPercent()) {
+            int team = random.nextInt(removed.length);
+            removed[team] = !removed[team];
+            request = new PlannedRequest(offsetMicros, removed[team] ? "DELETE" : "PUT",
+                    "/api/teams/" + teamId(team), null);
+        } else {
+            request = new PlannedRequest(offsetMicros, "POST", "/api/teams/" + teamId(popularTeam()) + "/steps",
+                    "{\"steps\":" + (1 + random.nextInt(10_000)) + "}");
+        }
+        advance();
+        return request;
+    }
+
+    private int popularTeam() {
+        double point = random.nextDouble() * cumulative[cumulative.length - 1];
+        int index = Arrays.binarySearch(cumulative, point);
+        return index >= 0 ? index : Math.min(-index - 1, cumulative.length - 1);
+    }
+
+    private void advance() {
+        double rate = profile.rateAt(elapsedNanos);
+        elapsedNanos += (long) (-Math.log(1 - random.nextDouble()) / rate * 1e9);
+    }
+}
@@ -0,0 +1,426 @@
+package com.example.assessemnt.cluster;
+
+import com.example.assessemnt.config.ClusterProperties;
+import com.example.assessemnt.controller.TeamStepController;
+import com.example.assessemnt.dto.BatchStepsResult;
+import com.example.assessemnt.dto.ErrorResponse;
+import com.example.assessemnt.dto.LeaderboardEntry;
+import com.example.assessemnt.dto.TeamStepsEntry;
+import com.example.assessemnt.service.StepWindow;
+import com.example.assessemnt.service.TeamStepService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import tools.jackson.core.JacksonException;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.ConnectException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpConnectTimeoutException;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Routes team requests in cluster mode. Requests for a single team are forwarded to the node that
+ * owns the team on the {@link ConsistentHashRing}; leaderboard requests are answered by merging
+ * the top {@code offset + limit} teams of every node; batches are split by owner, and entries whose
+ * owner fails are reported per entry rather than failing the batch after other shares were applied.
+ * Bulk imports and tenant routes are rejected, as neither is partitioned: both would create teams
+ * on the node that receives the request. Team ranks, department and company routes and the
+ * leaderboard stream are rejected too, as a single node could only answer them for its own teams.
+ * <p>
+ * Requests carrying {@value #FORWARDED_HEADER} are always handled locally, so a request is
+ * forwarded at most once. Nodes prove a request was forwarded by another member with the shared
+ * {@code teams.cluster.secret} in {@value #SECRET_HEADER}; a client sending the header without it
+ * is rejected, so it cannot write to a node that does not own the team.
+ */
+@Component
+@ConditionalOnProperty(prefix = "teams.cluster", name = "enabled", havingValue = "true")
+public class ClusterRoutingInterceptor implements HandlerInterceptor {
+
+    public static final String FORWARDED_HEADER = "X-Cluster-Forwarded";
+    public static final String PARTIAL_HEADER = "X-Cluster-Partial";
+    public static final String SECRET_HEADER = "X-Cluster-Secret";
+
+    private static final Logger log = LoggerFactory.getLogger(ClusterRoutingInterceptor.class);
+    private static final String LEADERBOARD_PATTERN = "/api/teams/leaderboard";
+    private static final String BATCH_PATTERN = "/api/teams/steps:batch";
+    private static final String IMPORT_PATTERN = "/api/teams:import";
+    private static final String TENANTS_PATH = "/api/tenants/";
+    private static final String RANK_PATTERN = "/api/teams/{teamId}/rank";
+    private static final String STREAM_PATTERN = "/api/teams/leaderboard/stream";
+    private static final List<String> GROUP_PATHS = List.of("/api/departments/", "/api/companies/");
+    private static final int MAX_BATCH_SIZE = 10_000;
+    private static final List<String> FORWARDED_REQUEST_HEADERS = List.of(HttpHeaders.CONTENT_TYPE,
+            HttpHeaders.ACCEPT, HttpHeaders.IF_NONE_MATCH, TeamStepController.IDEMPOTENCY_KEY_HEADER);
+    private static final List<String> FORWARDED_RESPONSE_HEADERS = List.of(HttpHeaders.CONTENT_TYPE,
+            HttpHeaders.ETAG, HttpHeaders.RETRY_AFTER, TeamStepController.IDEMPOTENT_REPLAYED_HEADER);
+    private static final TypeReference<List<LeaderboardEntry>> LEADERBOARD = new TypeReference<>() {
+    };
+    private static final TypeReference<List<TeamStepsEntry>> BATCH = new TypeReference<>() {
+    };
+    private static final TypeReference<List<BatchStepsResult>> BATCH_RESULTS = new TypeReference<>() {
+    };
+    private static final Comparator<LeaderboardEntry> RANKING = Comparator
+            .comparing(LeaderboardEntry::getStepCount, Comparator.reverseOrder())
+            .thenComparing(LeaderboardEntry::getTeamId);
+
+    private final URI self;
+    private final byte[] secret;
+    private final List<URI> nodes;
+    private final ConsistentHashRing ring;
+    private final Duration timeout;
+    private final TeamStepService teamStepService;
+    private final JsonMapper jsonMapper;
+    private final HttpClient httpClient;
+
+    public ClusterRoutingInterceptor(ClusterProperties properties, TeamStepService teamStepService,
+                                     JsonMapper jsonMapper) {
+        if (properties.self() == null || !properties.nodes().contains(properties.self())) {
+            throw new IllegalStateException("teams.cluster.self must be one of teams.cluster.nodes");
+        }
+        if (properties.secret() == null || properties.secret().isBlank()) {
+            throw new IllegalStateException("teams.cluster.secret is required to authenticate forwarded requests");
+        }
+        this.self = properties.self();
+        this.secret = properties.secret().getBytes(StandardCharsets.UTF_8);
+        this.nodes = List.copyOf(properties.nodes());
+        this.ring = new ConsistentHashRing(nodes, properties.virtualNodes());
+        this.timeout = properties.timeout();
+        this.teamStepService = teamStepService;
+        this.jsonMapper = jsonMapper;
+        this.httpClient = HttpClient.newBuilder().connectTimeout(timeout).build();
+    }
+
+    public URI ownerOf(String teamId) {
+        return ring.ownerOf(teamId);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws IOException {
+        if (request.getHeader(FORWARDED_HEADER) != null) {
+            if (fromMember(request)) {
+                return true;
+            }
+            writeJson(response, HttpServletResponse.SC_FORBIDDEN,
+                    new ErrorResponse(FORWARDED_HEADER + " is reserved for requests between cluster nodes"));
+            return false;
+        }
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (LEADERBOARD_PATTERN.equals(pattern) && "GET".equals(request.getMethod())) {
+            return gatherLeaderboard(request, response);
+        }
+        if (BATCH_PATTERN.equals(pattern) && "POST".equals(request.getMethod())) {
+            splitBatch(request, response);
+            return false;
+        }
+        if (IMPORT_PATTERN.equals(pattern)) {
+            writeJson(response, HttpServletResponse.SC_CONFLICT, new ErrorResponse(
+                    "Bulk import is not available in cluster mode; create teams through /api/teams"));
+            return false;
+        }
+        if (request.getRequestURI().startsWith(TENANTS_PATH)) {
+            writeJson(response, HttpServletResponse.SC_CONFLICT,
+                    new ErrorResponse("Tenants are not available in cluster mode"));
+            return false;
+        }
+        if (RANK_PATTERN.equals(pattern)) {
+            writeJson(response, HttpServletResponse.SC_CONFLICT, new ErrorResponse(
+                    "Team ranks are not available in cluster mode; use /api/teams/leaderboard"));
+            return false;
+        }
+        if (STREAM_PATTERN.equals(pattern)) {
+            writeJson(response, HttpServletResponse.SC_CONFLICT, new ErrorResponse(
+                    "The leaderboard stream is not available in cluster mode; poll /api/teams/leaderboard"));
+            return false;
+        }
+        if (GROUP_PATHS.stream().anyMatch(request.getRequestURI()::startsWith)) {
+            writeJson(response, HttpServletResponse.SC_CONFLICT,
+                    new ErrorResponse("Department and company totals are not available in cluster mode"));
+            return false;
+        }
+        Object variables = request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        if (!(variables instanceof Map<?, ?> map && map.get("teamId") instanceof String teamId)) {
+            return true;
+        }
+        URI owner = ring.ownerOf(teamId);
+        if (owner.equals(self)) {
+            return true;
+        }
+        forward(owner, request, request.getInputStream().readAllBytes(), response);
+        return false;
+    }
+
+    private boolean gatherLeaderboard(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        int offset;
+        Integer limit;
+        StepWindow window;
+        try {
+            String offsetParam = request.getParameter("offset");
+            String limitParam = request.getParameter("limit");
+            offset = offsetParam == null ? 0 : Integer.parseInt(offsetParam);
+            limit = limitParam == null ? null : Integer.valueOf(limitParam);
+            window = StepWindow.from(request.getParameter("window"));
+        } catch (IllegalArgumentException e) {
+            return true;
+        }
+        if (offset < 0 || (limit != null && limit < 1)) {
+            return true;
+        }
+        int keep = limit == null ? Integer.MAX_VALUE : (int) Math.min((long) offset + limit, Integer.MAX_VALUE);
+
+        StringBuilder query = new StringBuilder("/api/teams/leaderboard?window=").append(window.name());
+        if (limit != null) {
+            query.append("&limit=").append(keep);
+        }
+        List<CompletableFuture<HttpResponse<byte[]>>> remote = new ArrayList<>();
+        for (URI node : nodes) {
+            if (!node.equals(self)) {
+                remote.add(sendAsync(node, "GET", query.toString(), null, new byte[0]));
+            }
+        }
+        List<List<LeaderboardEntry>> partitions = new ArrayList<>();
+        partitions.add(teamStepService.getLeaderboard(0, keep, window));
+        boolean partial = false;
+        for (CompletableFuture<HttpResponse<byte[]>> future : remote) {
+            try {
+                HttpResponse<byte[]> reply = future.join();
+                if (reply.statusCode() != HttpServletResponse.SC_OK) {
+                    throw new IOException("Status " + reply.statusCode() + " from " + reply.uri());
+                }
+                partitions.add(jsonMapper.readValue(reply.body(), LEADERBOARD));
+            } catch (RuntimeException | IOException e) {
+                log.warn("Leaderboard partition unavailable: {}", e.getMessage());
+                partial = true;
+            }
+        }
+        if (partial) {
+            response.setHeader(PARTIAL_HEADER, "true");
+        }
+        writeJson(response, HttpServletResponse.SC_OK, merge(partitions, offset, keep));
+        return false;
+    }
+
+    /**
+     * K-way merge of leaderboards that are each sorted by rank; returns ranks
+     * {@code offset} (inclusive) to {@code keep} (exclusive) of the combined ranking.
+     */
+    static List<LeaderboardEntry> merge(List<List<LeaderboardEntry>> partitions, int offset, int keep) {
+        PriorityQueue<int[]> heads = new PriorityQueue<>((a, b) ->
+                RANKING.compare(partitions.get(a[0]).get(a[1]), partitions.get(b[0]).get(b[1])));
+        for (int i = 0; i < partitions.size(); i++) {
+            if (!partitions.get(i).isEmpty()) {
+                heads.add(new int[] {i, 0});
+            }
+        }
+        List<LeaderboardEntry> merged = new ArrayList<>();
+        int rank = 0;
+        while (!heads.isEmpty() && rank < keep) {
+            int[] head = heads.poll();
+            List<LeaderboardEntry> partition = partitions.get(head[0]);
+            if (rank++ >= offset) {
+                merged.add(partition.get(head[1]));
+            }
+            if (++head[1] < partition.size()) {
+                heads.add(head);
+            }
+        }
+        return merged;
+    }
+
+    private void splitBatch(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        byte[] body = request.getInputStream().readAllBytes();
+        List<TeamStepsEntry> entries;
+        try {
+            entries = jsonMapper.readValue(body, BATCH);
+        } catch (JacksonException e) {
+            entries = null;
+        }
+        if (!isRoutable(entries)) {
+            forward(self, request, body, response);
+            return;
+        }
+
+        Map<URI, List<Integer>> indexesByOwner = new LinkedHashMap<>();
+        for (int i = 0; i < entries.size(); i++) {
+            indexesByOwner.computeIfAbsent(ring.ownerOf(entries.get(i).getTeamId()), owner -> new ArrayList<>()).add(i);
+        }
+        Map<URI, CompletableFuture<HttpResponse<byte[]>>> remote = new LinkedHashMap<>();
+        for (Map.Entry<URI, List<Integer>> share : indexesByOwner.entrySet()) {
+            if (!share.getKey().equals(self)) {
+                byte[] shareBody = jsonMapper.writeValueAsBytes(select(entries, share.getValue()));
+                remote.put(share.getKey(), sendAsync(share.getKey(), "POST", request.getRequestURI(),
+                        MediaType.APPLICATION_JSON_VALUE, shareBody));
+            }
+        }
+
+        BatchStepsResult[] results = new BatchStepsResult[entries.size()];
+        List<Integer> local = indexesByOwner.get(self);
+        if (local != null) {
+            place(teamStepService.addStepsBatch(select(entries, local)), local, results);
+        }
+        boolean partial = false;
+        for (Map.Entry<URI, CompletableFuture<HttpResponse<byte[]>>> share : remote.entrySet()) {
+            List<Integer> indexes = indexesByOwner.get(share.getKey());
+            BatchStepsResult.Status failure = shareFailure(share.getKey(), share.getValue());
+            if (failure == null) {
+                try {
+                    place(jsonMapper.readValue(share.getValue().join().body(), BATCH_RESULTS), indexes, results);
+                    continue;
+                } catch (JacksonException e) {
+                    log.warn("Unreadable batch results from {}: {}", share.getKey(), e.getMessage());
+                    failure = BatchStepsResult.Status.OUTCOME_UNKNOWN;
+                }
+            }
+            partial = true;
+            for (int index : indexes) {
+                results[index] = new BatchStepsResult(entries.get(index).getTeamId(), failure, null);
+            }
+        }
+        if (partial) {
+            response.setHeader(PARTIAL_HEADER, "true");
+        }
+        writeJson(response, HttpServletResponse.SC_OK, List.of(results));
+    }
+
+    /**
+     * Returns {@code null} if the node applied its share, otherwise whether the share was certainly
+     * not applied (no connection, or the node refused it) or may have been (no answer in time, or a
+     * server error part way through).
+     */
+    private static BatchStepsResult.Status shareFailure(URI node, CompletableFuture<HttpResponse<byte[]>> share) {
+        HttpResponse<byte[]> reply;
+        try {
+            reply = share.join();
+        } catch (CompletionException e) {
+            log.warn("Batch share for {} failed: {}", node, e.getCause().toString());
+            return e.getCause() instanceof ConnectException || e.getCause() instanceof HttpConnectTimeoutException
+                    ? BatchStepsResult.Status.NODE_UNAVAILABLE
+                    : BatchStepsResult.Status.OUTCOME_UNKNOWN;
+        }
+        int status = reply.statusCode();
+        if (status == HttpServletResponse.SC_OK) {
+            return null;
+        }
+        log.warn("Batch share rejected by {} with status {}", node, status);
+        return status >= 500 && status != HttpServletResponse.SC_SERVICE_UNAVAILABLE
+                ? BatchStepsResult.Status.OUTCOME_UNKNOWN
+                : BatchStepsResult.Status.NODE_UNAVAILABLE;
+    }
+
+    private boolean fromMember(HttpServletRequest request) {
+        String presented = request.getHeader(SECRET_HEADER);
+        return presented != null && MessageDigest.isEqual(secret, presented.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static boolean isRoutable(List<TeamStepsEntry> entries) {
+        if (entries == null || entries.isEmpty() || entries.size() > MAX_BATCH_SIZE) {
+            return false;
+        }
+        for (TeamStepsEntry entry : entries) {
+            if (entry == null || entry.getTeamId() == null || entry.getTeamId().isBlank()
+                    || entry.getSteps() == null || entry.getSteps() < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static List<TeamStepsEntry> select(List<TeamStepsEntry> entries, List<Integer> indexes) {
+        List<TeamStepsEntry> selected = new ArrayList<>(indexes.size());
+        for (int index : indexes) {
+            selected.add(entries.get(index));
+        }
+        return selected;
+    }
+
+    private static void place(List<BatchStepsResult> share, List<Integer> indexes, BatchStepsResult[] results) {
+        for (int i = 0; i < indexes.size(); i++) {
+            results[indexes.get(i)] = share.get(i);
+        }
+    }
+
+    private void forward(URI node, HttpServletRequest request, byte[] body, HttpServletResponse response)
+            throws IOException {
+        String pathAndQuery = request.getQueryString() == null
+                ? request.getRequestURI()
+                : request.getRequestURI() + "?" + request.getQueryString();
+        HttpRequest.Builder builder = newRequest(node, request.getMethod(), pathAndQuery, body);
+        for (String header : FORWARDED_REQUEST_HEADERS) {
+            String value = request.getHeader(header);
+            if (value != null) {
+                builder.header(header, value);
+            }
+        }
+        try {
+            copy(httpClient.send(builder.build(), HttpResponse.BodyHandlers.ofByteArray()), response);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while forwarding to " + node);
+        } catch (IOException e) {
+            log.warn("Failed to forward {} {} to {}: {}", request.getMethod(), pathAndQuery, node, e.getMessage());
+            unavailable(node, response);
+        }
+    }
+
+    private CompletableFuture<HttpResponse<byte[]>> sendAsync(URI node, String method, String pathAndQuery,
+                                                              String contentType, byte[] body) {
+        HttpRequest.Builder builder = newRequest(node, method, pathAndQuery, body);
+        if (contentType != null) {
+            builder.header(HttpHeaders.CONTENT_TYPE, contentType);
+        }
+        return httpClient.sendAsync(builder.build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    private HttpRequest.Builder newRequest(URI node, String method, String pathAndQuery, byte[] body) {
+        return HttpRequest.newBuilder(node.resolve(pathAndQuery))
+                .timeout(timeout)
+                .header(FORWARDED_HEADER, self.toString())
+                .header(SECRET_HEADER, new String(secret, StandardCharsets.UTF_8))
+                .method(method, body.length == 0
+                        ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofByteArray(body));
+    }
+
+    private static void copy(HttpResponse<byte[]> reply, HttpServletResponse response) throws IOException {
+        response.setStatus(reply.statusCode());
+        for (String header : FORWARDED_RESPONSE_HEADERS) {
+            reply.headers().firstValue(header).ifPresent(value -> response.setHeader(header, value));
+        }
+        response.getOutputStream().write(reply.body());
+    }
+
+    private void unavailable(URI node, HttpServletResponse response) throws IOException {
+        writeJson(response, HttpServletResponse.SC_SERVICE_UNAVAILABLE,
+                new ErrorResponse("Cluster node unavailable: " + node));
+    }
+
+    private void writeJson(HttpServletResponse response, int status, Object body) throws IOException {
+        response.setStatus(status);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getOutputStream().write(jsonMapper.writeValueAsBytes(body));
+    }
+}
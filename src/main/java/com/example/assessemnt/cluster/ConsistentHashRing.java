@@ -0,0 +1,66 @@
+package com.example.assessemnt.cluster;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Maps team IDs to owner nodes. Each node is placed on a 64-bit hash ring at
+ * {@code virtualNodes} points and a team belongs to the first node point at or after the team's
+ * hash, so adding or removing a node only moves the teams adjacent to that node's points.
+ */
+public final class ConsistentHashRing {
+
+    private final long[] points;
+    private final URI[] owners;
+
+    public ConsistentHashRing(List<URI> nodes, int virtualNodes) {
+        if (nodes.isEmpty()) {
+            throw new IllegalArgumentException("Cluster needs at least one node");
+        }
+        if (virtualNodes < 1) {
+            throw new IllegalArgumentException("Virtual nodes must be positive");
+        }
+        int size = nodes.size() * virtualNodes;
+        long[][] entries = new long[size][];
+        for (int n = 0; n < nodes.size(); n++) {
+            for (int v = 0; v < virtualNodes; v++) {
+                entries[n * virtualNodes + v] = new long[] {hash(nodes.get(n) + "#" + v), n};
+            }
+        }
+        Arrays.sort(entries, (a, b) -> Long.compare(a[0], b[0]));
+        points = new long[size];
+        owners = new URI[size];
+        for (int i = 0; i < size; i++) {
+            points[i] = entries[i][0];
+            owners[i] = nodes.get((int) entries[i][1]);
+        }
+    }
+
+    public URI ownerOf(String teamId) {
+        int index = Arrays.binarySearch(points, hash(teamId));
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return owners[index == points.length ? 0 : index];
+    }
+
+    /**
+     * FNV-1a over the UTF-8 bytes followed by the MurmurHash3 finaliser, so similar IDs such as
+     * {@code team-1} and {@code team-2} land far apart on the ring.
+     */
+    static long hash(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
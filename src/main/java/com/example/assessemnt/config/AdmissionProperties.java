@@ -0,0 +1,14 @@
+package com.example.assessemnt.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "teams.admission")
+public record AdmissionProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("512") int maxConcurrent,
+        @DefaultValue("0ms") Duration maxWait,
+        @DefaultValue("1s") Duration retryAfter) {
+}
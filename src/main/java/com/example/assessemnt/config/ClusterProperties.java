@@ -0,0 +1,18 @@
+package com.example.assessemnt.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+
+@ConfigurationProperties(prefix = "teams.cluster")
+public record ClusterProperties(
+        @DefaultValue("false") boolean enabled,
+        URI self,
+        String secret,
+        @DefaultValue List<URI> nodes,
+        @DefaultValue("128") int virtualNodes,
+        @DefaultValue("2s") Duration timeout) {
+}
@@ -0,0 +1,10 @@
+package com.example.assessemnt.config;
+
+import com.example.assessemnt.service.CounterMode;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "teams.counter")
+public record CounterProperties(
+        @DefaultValue("atomic") CounterMode mode) {
+}
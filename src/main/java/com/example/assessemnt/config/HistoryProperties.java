@@ -0,0 +1,15 @@
+package com.example.assessemnt.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "teams.history")
+public record HistoryProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("1h") Duration resolution,
+        @DefaultValue("7d") Duration rawRetention,
+        @DefaultValue("1d") Duration downsampledResolution,
+        @DefaultValue("400d") Duration retention) {
+}
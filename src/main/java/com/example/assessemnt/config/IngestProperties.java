@@ -0,0 +1,14 @@
+package com.example.assessemnt.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "teams.ingest")
+public record IngestProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("65536") int capacity,
+        @DefaultValue("4096") int maxBatch,
+        @DefaultValue("1s") Duration retryAfter) {
+}
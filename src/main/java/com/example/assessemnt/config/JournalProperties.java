@@ -0,0 +1,16 @@
+package com.example.assessemnt.config;
+
+import com.example.assessemnt.persistence.JournalDurability;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "teams.journal")
+public record JournalProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("data/teams.journal") Path path,
+        @DefaultValue("interval") JournalDurability durability,
+        @DefaultValue("10ms") Duration flushInterval) {
+}
@@ -0,0 +1,17 @@
+package com.example.assessemnt.config;
+
+import com.example.assessemnt.service.LeaderboardRanking;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "teams.leaderboard")
+public record LeaderboardProperties(
+        @DefaultValue("0ms") Duration maxStaleness,
+        @DefaultValue("1s") Duration pushInterval,
+        @DefaultValue("20") int pushSize,
+        @DefaultValue("exact") LeaderboardRanking ranking,
+        @DefaultValue("1000") int trackedTeams,
+        @DefaultValue("0.01") double relativeAccuracy) {
+}
@@ -0,0 +1,19 @@
+package com.example.assessemnt.config;
+
+import com.example.assessemnt.replication.ReplicationRole;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.net.URI;
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "teams.replication")
+public record ReplicationProperties(
+        @DefaultValue("none") ReplicationRole role,
+        URI leader,
+        @DefaultValue("131072") int logCapacity,
+        @DefaultValue("10000") int batchSize,
+        @DefaultValue("1s") Duration pollWait,
+        @DefaultValue("5s") Duration timeout,
+        @DefaultValue("1s") Duration retryDelay) {
+}
@@ -0,0 +1,14 @@
+package com.example.assessemnt.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "teams.snapshot")
+public record SnapshotProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("data/teams.snapshot") Path path,
+        @DefaultValue("5m") Duration interval) {
+}
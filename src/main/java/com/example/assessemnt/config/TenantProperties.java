@@ -0,0 +1,26 @@
+package com.example.assessemnt.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.Map;
+
+/**
+ * Limits for tenant namespaces. {@code maxTeams} and {@code maxUpdatesPerSecond} apply to every
+ * tenant unless {@code quotas} overrides them for a tenant ID; zero means unlimited.
+ */
+@ConfigurationProperties(prefix = "teams.tenants")
+public record TenantProperties(
+        @DefaultValue("1000") int maxTenants,
+        @DefaultValue("10000") int maxTeams,
+        @DefaultValue("0") int maxUpdatesPerSecond,
+        Map<String, TenantQuota> quotas) {
+
+    public TenantQuota quotaOf(String tenantId) {
+        TenantQuota quota = quotas == null ? null : quotas.get(tenantId);
+        return new TenantQuota(
+                quota == null || quota.maxTeams() == null ? maxTeams : quota.maxTeams(),
+                quota == null || quota.maxUpdatesPerSecond() == null ? maxUpdatesPerSecond
+                        : quota.maxUpdatesPerSecond());
+    }
+}
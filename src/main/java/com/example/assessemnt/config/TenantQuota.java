@@ -0,0 +1,8 @@
+package com.example.assessemnt.config;
+
+/**
+ * Team count and ingestion rate allowed for one tenant; {@code null} falls back to the defaults in
+ * {@link TenantProperties}.
+ */
+public record TenantQuota(Integer maxTeams, Integer maxUpdatesPerSecond) {
+}
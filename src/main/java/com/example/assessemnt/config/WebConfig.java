@@ -0,0 +1,42 @@
+package com.example.assessemnt.config;
+
+import com.example.assessemnt.cluster.ClusterRoutingInterceptor;
+import com.example.assessemnt.controller.StepAdmissionInterceptor;
+import com.example.assessemnt.replication.ReplicaWriteInterceptor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    private final StepAdmissionInterceptor stepAdmissionInterceptor;
+    private final AdmissionProperties admissionProperties;
+    private final ObjectProvider<ClusterRoutingInterceptor> clusterRoutingInterceptor;
+    private final ObjectProvider<ReplicaWriteInterceptor> replicaWriteInterceptor;
+
+    public WebConfig(StepAdmissionInterceptor stepAdmissionInterceptor, AdmissionProperties admissionProperties,
+                     ObjectProvider<ClusterRoutingInterceptor> clusterRoutingInterceptor,
+                     ObjectProvider<ReplicaWriteInterceptor> replicaWriteInterceptor) {
+        this.stepAdmissionInterceptor = stepAdmissionInterceptor;
+        this.admissionProperties = admissionProperties;
+        this.clusterRoutingInterceptor = clusterRoutingInterceptor;
+        this.replicaWriteInterceptor = replicaWriteInterceptor;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        replicaWriteInterceptor.ifAvailable(interceptor ->
+                registry.addInterceptor(interceptor)
+                        .addPathPatterns("/api/teams/**", "/api/teams:import", "/api/tenants/**"));
+        if (admissionProperties.enabled()) {
+            registry.addInterceptor(stepAdmissionInterceptor)
+                    .addPathPatterns("/api/teams/*/steps", "/api/teams/steps:batch",
+                            "/api/tenants/*/teams/*/steps", "/api/tenants/*/teams/steps:batch");
+        }
+        clusterRoutingInterceptor.ifAvailable(interceptor ->
+                registry.addInterceptor(interceptor).addPathPatterns("/api/teams/**", "/api/teams:import",
+                        "/api/tenants/**", "/api/departments/**", "/api/companies/**"));
+    }
+}
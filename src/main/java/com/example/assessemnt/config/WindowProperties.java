@@ -0,0 +1,13 @@
+package com.example.assessemnt.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.DayOfWeek;
+import java.time.ZoneId;
+
+@ConfigurationProperties(prefix = "teams.window")
+public record WindowProperties(
+        @DefaultValue("UTC") ZoneId zone,
+        @DefaultValue("monday") DayOfWeek firstDayOfWeek) {
+}
@@ -0,0 +1,49 @@
+package com.example.assessemnt.controller;
+
+import com.example.assessemnt.dto.GroupResponse;
+import com.example.assessemnt.dto.LeaderboardEntry;
+import com.example.assessemnt.service.GroupLevel;
+import com.example.assessemnt.service.TeamStepService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api")
+public class GroupController {
+
+    private final TeamStepService teamStepService;
+
+    public GroupController(TeamStepService teamStepService) {
+        this.teamStepService = teamStepService;
+    }
+
+    @GetMapping("/departments/leaderboard")
+    public ResponseEntity<List<LeaderboardEntry>> getDepartmentLeaderboard(
+            @RequestParam(defaultValue = "0") int offset,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(leaderboard(GroupLevel.DEPARTMENT, offset, limit));
+    }
+
+    @GetMapping("/departments/{departmentId}")
+    public ResponseEntity<GroupResponse> getDepartment(@PathVariable String departmentId) {
+        return ResponseEntity.ok(teamStepService.getGroupSteps(GroupLevel.DEPARTMENT, departmentId));
+    }
+
+    @GetMapping("/companies/leaderboard")
+    public ResponseEntity<List<LeaderboardEntry>> getCompanyLeaderboard(
+            @RequestParam(defaultValue = "0") int offset,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(leaderboard(GroupLevel.COMPANY, offset, limit));
+    }
+
+    @GetMapping("/companies/{companyId}")
+    public ResponseEntity<GroupResponse> getCompany(@PathVariable String companyId) {
+        return ResponseEntity.ok(teamStepService.getGroupSteps(GroupLevel.COMPANY, companyId));
+    }
+
+    private List<LeaderboardEntry> leaderboard(GroupLevel level, int offset, Integer limit) {
+        return teamStepService.getGroupLeaderboard(level, offset, limit == null ? Integer.MAX_VALUE : limit);
+    }
+}
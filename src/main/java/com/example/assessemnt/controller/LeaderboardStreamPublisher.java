@@ -0,0 +1,213 @@
+package com.example.assessemnt.controller;
+
+import com.example.assessemnt.config.LeaderboardProperties;
+import com.example.assessemnt.dto.LeaderboardUpdate;
+import com.example.assessemnt.service.LeaderboardDiffer;
+import com.example.assessemnt.service.TeamStepService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Pushes top-K leaderboard diffs to Server-Sent Events subscribers. Step updates are not forwarded
+ * one by one: once per push interval the top K is compared with the previous tick and a single
+ * pre-serialised diff is sent to every subscriber, so fan-out cost does not grow with write volume.
+ * <p>
+ * Diffs are computed under a lock that is never held while writing to a client. All diffs are sent
+ * from the ticker thread, in sequence order; a subscriber's snapshot is sent under that
+ * subscriber's own lock, so it always arrives before the first diff against it. Subscribers whose
+ * connection fails or times out are completed and dropped.
+ */
+@Component
+public class LeaderboardStreamPublisher {
+
+    private static final Logger log = LoggerFactory.getLogger(LeaderboardStreamPublisher.class);
+
+    private final TeamStepService teamStepService;
+    private final JsonMapper jsonMapper;
+    private final long pushIntervalMillis;
+    private final int pushSize;
+    private final LeaderboardDiffer differ = new LeaderboardDiffer();
+    private final ReentrantLock diffLock = new ReentrantLock();
+    private final Queue<Frame> pending = new ConcurrentLinkedQueue<>();
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private ScheduledExecutorService ticker;
+    private long lastVersion = -1;
+
+    public LeaderboardStreamPublisher(TeamStepService teamStepService, JsonMapper jsonMapper,
+                                      LeaderboardProperties properties) {
+        this.teamStepService = teamStepService;
+        this.jsonMapper = jsonMapper;
+        this.pushIntervalMillis = Math.max(1, properties.pushInterval().toMillis());
+        this.pushSize = properties.pushSize();
+    }
+
+    @PostConstruct
+    public void start() {
+        ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "leaderboard-ticker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleWithFixedDelay(this::tickQuietly, pushIntervalMillis, pushIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        ticker.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        subscribers.clear();
+    }
+
+    /**
+     * Registers a subscriber and sends it the current top K as a {@code snapshot} event; later
+     * events named {@code update} carry diffs against it.
+     */
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(0L);
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscriber.drop(null));
+        emitter.onError(subscriber::drop);
+        subscriber.sendLock.lock();
+        try {
+            Set<DataWithMediaType> snapshot;
+            diffLock.lock();
+            try {
+                refresh();
+                LeaderboardUpdate current = differ.current();
+                snapshot = SseEmitter.event().name("snapshot").data(jsonMapper.writeValueAsString(current)).build();
+                subscriber.sentSequence = current.getSequence();
+                subscribers.add(subscriber);
+            } finally {
+                diffLock.unlock();
+            }
+            emitter.send(snapshot);
+        } catch (IOException | IllegalStateException e) {
+            subscriber.drop(e);
+        } finally {
+            subscriber.sendLock.unlock();
+        }
+        if (!pending.isEmpty() && ticker != null) {
+            ticker.execute(this::publishQuietly);
+        }
+        return emitter;
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    private void tick() {
+        diffLock.lock();
+        try {
+            refresh();
+        } finally {
+            diffLock.unlock();
+        }
+        publish();
+    }
+
+    /**
+     * Diffs the top K against the previous tick and queues the serialised update. Called with the
+     * diff lock held, so updates are queued in sequence order.
+     */
+    private void refresh() {
+        long version = teamStepService.getLeaderboardVersion();
+        if (version == lastVersion) {
+            return;
+        }
+        lastVersion = version;
+        LeaderboardUpdate update = differ.diff(teamStepService.getTopTeams(pushSize));
+        if (update == null || subscribers.isEmpty()) {
+            return;
+        }
+        pending.add(new Frame(update.getSequence(),
+                SseEmitter.event().name("update").data(jsonMapper.writeValueAsString(update)).build()));
+    }
+
+    /**
+     * Sends queued updates to every subscriber. Runs on the ticker thread only.
+     */
+    private void publish() {
+        Frame frame;
+        while ((frame = pending.poll()) != null) {
+            for (Subscriber subscriber : subscribers) {
+                subscriber.send(frame);
+            }
+        }
+    }
+
+    private void tickQuietly() {
+        try {
+            tick();
+        } catch (RuntimeException e) {
+            log.error("Failed to publish leaderboard update", e);
+        }
+    }
+
+    private void publishQuietly() {
+        try {
+            publish();
+        } catch (RuntimeException e) {
+            log.error("Failed to publish leaderboard update", e);
+        }
+    }
+
+    private record Frame(long sequence, Set<DataWithMediaType> data) {
+    }
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final ReentrantLock sendLock = new ReentrantLock();
+        private long sentSequence;
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        /**
+         * Sends an update unless the subscriber's snapshot already includes it.
+         */
+        private void send(Frame frame) {
+            sendLock.lock();
+            try {
+                if (frame.sequence() > sentSequence) {
+                    emitter.send(frame.data());
+                    sentSequence = frame.sequence();
+                }
+            } catch (IOException | IllegalStateException e) {
+                drop(e);
+            } finally {
+                sendLock.unlock();
+            }
+        }
+
+        private void drop(Throwable error) {
+            if (subscribers.remove(this)) {
+                if (error == null) {
+                    emitter.complete();
+                } else {
+                    emitter.completeWithError(error);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.assessemnt.controller;
+
+import com.example.assessemnt.config.AdmissionProperties;
+import com.example.assessemnt.exception.TooManyRequestsException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caps the number of step submissions processed at once. A request that cannot get a permit
+ * within {@code teams.admission.max-wait} is rejected with 429 instead of queueing without bound,
+ * which keeps latency flat for admitted requests when clients burst.
+ */
+@Component
+public class StepAdmissionInterceptor implements HandlerInterceptor {
+
+    private static final String ADMITTED = StepAdmissionInterceptor.class.getName() + ".admitted";
+
+    private final Semaphore permits;
+    private final long maxWaitNanos;
+    private final Duration retryAfter;
+    private final LongAdder rejected = new LongAdder();
+
+    public StepAdmissionInterceptor(AdmissionProperties properties) {
+        this.permits = new Semaphore(properties.maxConcurrent());
+        this.maxWaitNanos = properties.maxWait().toNanos();
+        this.retryAfter = properties.retryAfter();
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws InterruptedException {
+        boolean admitted = maxWaitNanos > 0
+                ? permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS)
+                : permits.tryAcquire();
+        if (!admitted) {
+            rejected.increment();
+            throw new TooManyRequestsException("Too many concurrent step submissions", retryAfter);
+        }
+        request.setAttribute(ADMITTED, Boolean.TRUE);
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        if (request.getAttribute(ADMITTED) != null) {
+            request.removeAttribute(ADMITTED);
+            permits.release();
+        }
+    }
+
+    public int getAvailablePermits() {
+        return permits.availablePermits();
+    }
+
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+}
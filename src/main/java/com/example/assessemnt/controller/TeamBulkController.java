@@ -0,0 +1,37 @@
+package com.example.assessemnt.controller;
+
+import com.example.assessemnt.dto.TeamImportResult;
+import com.example.assessemnt.service.TeamBulkTransfer;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+
+@RestController
+@RequestMapping("/api")
+public class TeamBulkController {
+
+    private final TeamBulkTransfer teamBulkTransfer;
+
+    public TeamBulkController(TeamBulkTransfer teamBulkTransfer) {
+        this.teamBulkTransfer = teamBulkTransfer;
+    }
+
+    @GetMapping(value = "/teams:export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportTeams() {
+        StreamingResponseBody body = teamBulkTransfer::exportTeams;
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    @PostMapping(value = "/teams:import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<TeamImportResult> importTeams(HttpServletRequest request) throws IOException {
+        TeamImportResult result = teamBulkTransfer.importTeams(request.getInputStream());
+        return ResponseEntity.ok(result);
+    }
+}
@@ -1,28 +1,59 @@
 package com.example.assessemnt.controller;
 
 import com.example.assessemnt.dto.AddStepsRequest;
+import com.example.assessemnt.dto.BatchStepsResult;
 import com.example.assessemnt.dto.LeaderboardEntry;
+import com.example.assessemnt.dto.TeamHistoryResponse;
+import com.example.assessemnt.dto.TeamRankResponse;
 import com.example.assessemnt.dto.TeamResponse;
+import com.example.assessemnt.dto.TeamStepsEntry;
+import com.example.assessemnt.service.LeaderboardSnapshotCache;
+import com.example.assessemnt.service.LeaderboardSnapshotCache.LeaderboardSnapshot;
+import com.example.assessemnt.service.StepIngestQueue;
+import com.example.assessemnt.service.StepWindow;
 import com.example.assessemnt.service.TeamStepService;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
 
 @RestController
 @RequestMapping("/api/teams")
 public class TeamStepController {
 
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+
     private final TeamStepService teamStepService;
+    private final LeaderboardSnapshotCache leaderboardSnapshotCache;
+    private final LeaderboardStreamPublisher leaderboardStreamPublisher;
+    private final StepIngestQueue stepIngestQueue;
 
-    public TeamStepController(TeamStepService teamStepService) {
+    public TeamStepController(TeamStepService teamStepService, LeaderboardSnapshotCache leaderboardSnapshotCache,
+                              LeaderboardStreamPublisher leaderboardStreamPublisher,
+                              ObjectProvider<StepIngestQueue> stepIngestQueue) {
         this.teamStepService = teamStepService;
+        this.leaderboardSnapshotCache = leaderboardSnapshotCache;
+        this.leaderboardStreamPublisher = leaderboardStreamPublisher;
+        this.stepIngestQueue = stepIngestQueue.getIfAvailable();
     }
 
     @PutMapping("/{teamId}")
-    public ResponseEntity<Void> createTeam(@PathVariable String teamId) {
-        teamStepService.createTeam(teamId);
+    public ResponseEntity<Void> createTeam(
+            @PathVariable String teamId,
+            @RequestParam(required = false) String department,
+            @RequestParam(required = false) String company) {
+        teamStepService.createTeam(teamId, department, company);
         return ResponseEntity.ok().build();
     }
 
@@ -35,21 +66,93 @@ public class TeamStepController {
     @PostMapping("/{teamId}/steps")
     public ResponseEntity<Void> addSteps(
             @PathVariable String teamId,
+            @RequestHeader(name = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
             @Valid @RequestBody AddStepsRequest request) {
-        teamStepService.addSteps(teamId, request.getSteps());
-        return ResponseEntity.ok().build();
+        if (stepIngestQueue != null) {
+            boolean queued = stepIngestQueue.submit(teamId, request.getSteps(), idempotencyKey);
+            return ResponseEntity.accepted().headers(replayed(queued)).build();
+        }
+        boolean applied = teamStepService.addSteps(teamId, request.getSteps(), idempotencyKey);
+        return ResponseEntity.ok().headers(replayed(applied)).build();
+    }
+
+    @PostMapping("/steps:batch")
+    public ResponseEntity<List<BatchStepsResult>> addStepsBatch(
+            @RequestBody @NotEmpty @Size(max = 10_000) List<@Valid TeamStepsEntry> entries) {
+        List<BatchStepsResult> results = teamStepService.addStepsBatch(entries);
+        return ResponseEntity.ok(results);
     }
 
     @GetMapping("/{teamId}")
-    public ResponseEntity<TeamResponse> getTeamSteps(@PathVariable String teamId) {
-        TeamResponse response = teamStepService.getTeamSteps(teamId);
+    public ResponseEntity<TeamResponse> getTeamSteps(
+            @PathVariable String teamId,
+            @RequestParam(required = false) String window) {
+        TeamResponse response = teamStepService.getTeamSteps(teamId, StepWindow.from(window));
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/{teamId}/rank")
+    public ResponseEntity<TeamRankResponse> getTeamRank(
+            @PathVariable String teamId,
+            @RequestParam(required = false) String window) {
+        TeamRankResponse response = teamStepService.getTeamRank(teamId, StepWindow.from(window));
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/{teamId}/history")
+    public ResponseEntity<TeamHistoryResponse> getTeamHistory(
+            @PathVariable String teamId,
+            @RequestParam(required = false) Instant from,
+            @RequestParam(required = false) Instant to,
+            @RequestParam(required = false) Duration step) {
+        TeamHistoryResponse response = teamStepService.getTeamHistory(teamId, from, to, step);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping(value = "/leaderboard", params = {"!offset", "!limit", "!window"})
+    public ResponseEntity<byte[]> getLeaderboardSnapshot(WebRequest webRequest) {
+        return snapshotResponse(webRequest, LeaderboardSnapshotCache.Format.JSON, MediaType.APPLICATION_JSON);
+    }
+
+    @GetMapping(value = "/leaderboard", params = {"!offset", "!limit", "!window"},
+            produces = MediaType.APPLICATION_CBOR_VALUE)
+    public ResponseEntity<byte[]> getLeaderboardSnapshotCbor(WebRequest webRequest) {
+        return snapshotResponse(webRequest, LeaderboardSnapshotCache.Format.CBOR, MediaType.APPLICATION_CBOR);
+    }
+
     @GetMapping("/leaderboard")
-    public ResponseEntity<List<LeaderboardEntry>> getLeaderboard() {
-        List<LeaderboardEntry> leaderboard = teamStepService.getLeaderboard();
+    public ResponseEntity<List<LeaderboardEntry>> getLeaderboard(
+            @RequestParam(defaultValue = "0") int offset,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String window) {
+        List<LeaderboardEntry> leaderboard = teamStepService.getLeaderboard(
+                offset, limit == null ? Integer.MAX_VALUE : limit, StepWindow.from(window));
         return ResponseEntity.ok(leaderboard);
     }
-}
 
+    @GetMapping(value = "/leaderboard/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamLeaderboard() {
+        return leaderboardStreamPublisher.subscribe();
+    }
+
+    private ResponseEntity<byte[]> snapshotResponse(WebRequest webRequest, LeaderboardSnapshotCache.Format format,
+                                                    MediaType contentType) {
+        LeaderboardSnapshot snapshot = leaderboardSnapshotCache.current(format);
+        if (webRequest.checkNotModified(snapshot.etag())) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(snapshot.etag())
+                .varyBy(HttpHeaders.ACCEPT)
+                .contentType(contentType)
+                .body(snapshot.body());
+    }
+
+    private static HttpHeaders replayed(boolean applied) {
+        HttpHeaders headers = new HttpHeaders();
+        if (!applied) {
+            headers.set(IDEMPOTENT_REPLAYED_HEADER, "true");
+        }
+        return headers;
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.assessemnt.controller;
+
+import com.example.assessemnt.dto.AddStepsRequest;
+import com.example.assessemnt.dto.BatchStepsResult;
+import com.example.assessemnt.dto.LeaderboardEntry;
+import com.example.assessemnt.dto.TeamHistoryResponse;
+import com.example.assessemnt.dto.TeamImportResult;
+import com.example.assessemnt.dto.TeamRankResponse;
+import com.example.assessemnt.dto.TeamResponse;
+import com.example.assessemnt.dto.TeamStepsEntry;
+import com.example.assessemnt.dto.TenantResponse;
+import com.example.assessemnt.service.StepWindow;
+import com.example.assessemnt.service.TeamBulkTransfer;
+import com.example.assessemnt.service.TeamStepService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * The team endpoints of {@link TeamStepController}, scoped to a tenant namespace. A tenant is
+ * created with its first team, or by an import; every other call on an unknown tenant returns 404.
+ * Steps are always applied synchronously, and leaderboards are ranked on request rather than served
+ * from the cache.
+ */
+@RestController
+@RequestMapping("/api/tenants/{tenantId}")
+public class TenantController {
+
+    private final TeamStepService teamStepService;
+    private final TeamBulkTransfer teamBulkTransfer;
+
+    public TenantController(TeamStepService teamStepService, TeamBulkTransfer teamBulkTransfer) {
+        this.teamStepService = teamStepService;
+        this.teamBulkTransfer = teamBulkTransfer;
+    }
+
+    @GetMapping
+    public ResponseEntity<TenantResponse> getTenant(@PathVariable String tenantId) {
+        TeamStepService tenant = teamStepService.existingTenant(tenantId);
+        return ResponseEntity.ok(new TenantResponse(tenantId, tenant.getTeamCount(), tenant.getMaxTeams(),
+                tenant.getMaxUpdatesPerSecond()));
+    }
+
+    @PutMapping("/teams/{teamId}")
+    public ResponseEntity<Void> createTeam(
+            @PathVariable String tenantId,
+            @PathVariable String teamId,
+            @RequestParam(required = false) String department,
+            @RequestParam(required = false) String company) {
+        teamStepService.tenant(tenantId).createTeam(teamId, department, company);
+        return ResponseEntity.ok().build();
+    }
+
+    @DeleteMapping("/teams/{teamId}")
+    public ResponseEntity<Void> removeTeam(@PathVariable String tenantId, @PathVariable String teamId) {
+        teamStepService.existingTenant(tenantId).removeTeam(teamId);
+        return ResponseEntity.ok().build();
+    }
+
+    @PostMapping("/teams/{teamId}/steps")
+    public ResponseEntity<Void> addSteps(
+            @PathVariable String tenantId,
+            @PathVariable String teamId,
+            @RequestHeader(name = TeamStepController.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+            @Valid @RequestBody AddStepsRequest request) {
+        boolean applied = teamStepService.existingTenant(tenantId)
+                .addSteps(teamId, request.getSteps(), idempotencyKey);
+        HttpHeaders headers = new HttpHeaders();
+        if (!applied) {
+            headers.set(TeamStepController.IDEMPOTENT_REPLAYED_HEADER, "true");
+        }
+        return ResponseEntity.ok().headers(headers).build();
+    }
+
+    @PostMapping("/teams/steps:batch")
+    public ResponseEntity<List<BatchStepsResult>> addStepsBatch(
+            @PathVariable String tenantId,
+            @RequestBody @NotEmpty @Size(max = 10_000) List<@Valid TeamStepsEntry> entries) {
+        return ResponseEntity.ok(teamStepService.existingTenant(tenantId).addStepsBatch(entries));
+    }
+
+    @GetMapping("/teams/{teamId}")
+    public ResponseEntity<TeamResponse> getTeamSteps(
+            @PathVariable String tenantId,
+            @PathVariable String teamId,
+            @RequestParam(required = false) String window) {
+        return ResponseEntity.ok(teamStepService.existingTenant(tenantId)
+                .getTeamSteps(teamId, StepWindow.from(window)));
+    }
+
+    @GetMapping("/teams/{teamId}/rank")
+    public ResponseEntity<TeamRankResponse> getTeamRank(
+            @PathVariable String tenantId,
+            @PathVariable String teamId,
+            @RequestParam(required = false) String window) {
+        return ResponseEntity.ok(teamStepService.existingTenant(tenantId)
+                .getTeamRank(teamId, StepWindow.from(window)));
+    }
+
+    @GetMapping("/teams/{teamId}/history")
+    public ResponseEntity<TeamHistoryResponse> getTeamHistory(
+            @PathVariable String tenantId,
+            @PathVariable String teamId,
+            @RequestParam(required = false) Instant from,
+            @RequestParam(required = false) Instant to,
+            @RequestParam(required = false) Duration step) {
+        return ResponseEntity.ok(teamStepService.existingTenant(tenantId).getTeamHistory(teamId, from, to, step));
+    }
+
+    @GetMapping("/teams/leaderboard")
+    public ResponseEntity<List<LeaderboardEntry>> getLeaderboard(
+            @PathVariable String tenantId,
+            @RequestParam(defaultValue = "0") int offset,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String window) {
+        return ResponseEntity.ok(teamStepService.existingTenant(tenantId).getLeaderboard(
+                offset, limit == null ? Integer.MAX_VALUE : limit, StepWindow.from(window)));
+    }
+
+    @GetMapping(value = "/teams:export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportTeams(@PathVariable String tenantId) {
+        TeamStepService tenant = teamStepService.existingTenant(tenantId);
+        StreamingResponseBody body = out -> teamBulkTransfer.exportTeams(tenant, out);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    @PostMapping(value = "/teams:import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<TeamImportResult> importTeams(@PathVariable String tenantId, HttpServletRequest request)
+            throws IOException {
+        return ResponseEntity.ok(teamBulkTransfer.importTeams(teamStepService.tenant(tenantId),
+                request.getInputStream()));
+    }
+}
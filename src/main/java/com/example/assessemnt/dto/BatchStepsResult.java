@@ -0,0 +1,50 @@
+package com.example.assessemnt.dto;
+
+public class BatchStepsResult {
+
+    public enum Status {
+        APPLIED,
+        TEAM_NOT_FOUND,
+        /** In cluster mode: the node owning the team could not be reached or refused it; not applied. */
+        NODE_UNAVAILABLE,
+        /** In cluster mode: the owning node did not answer in time, so the steps may have been applied. */
+        OUTCOME_UNKNOWN
+    }
+
+    private String teamId;
+    private Status status;
+    private Long stepCount;
+
+    public BatchStepsResult() {
+    }
+
+    public BatchStepsResult(String teamId, Status status, Long stepCount) {
+        this.teamId = teamId;
+        this.status = status;
+        this.stepCount = stepCount;
+    }
+
+    public String getTeamId() {
+        return teamId;
+    }
+
+    public void setTeamId(String teamId) {
+        this.teamId = teamId;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public Long getStepCount() {
+        return stepCount;
+    }
+
+    public void setStepCount(Long stepCount) {
+        this.stepCount = stepCount;
+    }
+}
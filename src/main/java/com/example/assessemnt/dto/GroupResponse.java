@@ -0,0 +1,41 @@
+package com.example.assessemnt.dto;
+
+public class GroupResponse {
+    
+    private String groupId;
+    private String parentId;
+    private Long stepCount;
+
+    public GroupResponse() {
+    }
+
+    public GroupResponse(String groupId, String parentId, Long stepCount) {
+        this.groupId = groupId;
+        this.parentId = parentId;
+        this.stepCount = stepCount;
+    }
+
+    public String getGroupId() {
+        return groupId;
+    }
+
+    public void setGroupId(String groupId) {
+        this.groupId = groupId;
+    }
+
+    public String getParentId() {
+        return parentId;
+    }
+
+    public void setParentId(String parentId) {
+        this.parentId = parentId;
+    }
+
+    public Long getStepCount() {
+        return stepCount;
+    }
+
+    public void setStepCount(Long stepCount) {
+        this.stepCount = stepCount;
+    }
+}
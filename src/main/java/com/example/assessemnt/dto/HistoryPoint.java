@@ -0,0 +1,33 @@
+package com.example.assessemnt.dto;
+
+import java.time.Instant;
+
+public class HistoryPoint {
+
+    private Instant start;
+    private Long steps;
+
+    public HistoryPoint() {
+    }
+
+    public HistoryPoint(Instant start, Long steps) {
+        this.start = start;
+        this.steps = steps;
+    }
+
+    public Instant getStart() {
+        return start;
+    }
+
+    public void setStart(Instant start) {
+        this.start = start;
+    }
+
+    public Long getSteps() {
+        return steps;
+    }
+
+    public void setSteps(Long steps) {
+        this.steps = steps;
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.assessemnt.dto;
+
+public class ImportError {
+
+    private Long line;
+    private String error;
+
+    public ImportError() {
+    }
+
+    public ImportError(Long line, String error) {
+        this.line = line;
+        this.error = error;
+    }
+
+    public Long getLine() {
+        return line;
+    }
+
+    public void setLine(Long line) {
+        this.line = line;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.assessemnt.dto;
+
+public class LeaderboardChange {
+
+    private String teamId;
+    private Integer rank;
+    private Long stepCount;
+    private Long stepDelta;
+
+    public LeaderboardChange() {
+    }
+
+    public LeaderboardChange(String teamId, Integer rank, Long stepCount, Long stepDelta) {
+        this.teamId = teamId;
+        this.rank = rank;
+        this.stepCount = stepCount;
+        this.stepDelta = stepDelta;
+    }
+
+    public String getTeamId() {
+        return teamId;
+    }
+
+    public void setTeamId(String teamId) {
+        this.teamId = teamId;
+    }
+
+    public Integer getRank() {
+        return rank;
+    }
+
+    public void setRank(Integer rank) {
+        this.rank = rank;
+    }
+
+    public Long getStepCount() {
+        return stepCount;
+    }
+
+    public void setStepCount(Long stepCount) {
+        this.stepCount = stepCount;
+    }
+
+    public Long getStepDelta() {
+        return stepDelta;
+    }
+
+    public void setStepDelta(Long stepDelta) {
+        this.stepDelta = stepDelta;
+    }
+}
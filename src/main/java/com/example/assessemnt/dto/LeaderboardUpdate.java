@@ -0,0 +1,43 @@
+package com.example.assessemnt.dto;
+
+import java.util.List;
+
+public class LeaderboardUpdate {
+
+    private Long sequence;
+    private List<LeaderboardChange> changes;
+    private List<String> removed;
+
+    public LeaderboardUpdate() {
+    }
+
+    public LeaderboardUpdate(Long sequence, List<LeaderboardChange> changes, List<String> removed) {
+        this.sequence = sequence;
+        this.changes = changes;
+        this.removed = removed;
+    }
+
+    public Long getSequence() {
+        return sequence;
+    }
+
+    public void setSequence(Long sequence) {
+        this.sequence = sequence;
+    }
+
+    public List<LeaderboardChange> getChanges() {
+        return changes;
+    }
+
+    public void setChanges(List<LeaderboardChange> changes) {
+        this.changes = changes;
+    }
+
+    public List<String> getRemoved() {
+        return removed;
+    }
+
+    public void setRemoved(List<String> removed) {
+        this.removed = removed;
+    }
+}
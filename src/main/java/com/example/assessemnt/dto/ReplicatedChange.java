@@ -0,0 +1,94 @@
+package com.example.assessemnt.dto;
+
+import com.example.assessemnt.service.TeamChange;
+
+public class ReplicatedChange {
+
+    private Long sequence;
+    private TeamChange.Type type;
+    private String teamId;
+    private Long generation;
+    private Long stepCount;
+    private String department;
+    private String company;
+    private String tenant;
+
+    public ReplicatedChange() {
+    }
+
+    public ReplicatedChange(Long sequence, TeamChange.Type type, String teamId, Long generation, Long stepCount,
+                            String department, String company, String tenant) {
+        this.sequence = sequence;
+        this.type = type;
+        this.teamId = teamId;
+        this.generation = generation;
+        this.stepCount = stepCount;
+        this.department = department;
+        this.company = company;
+        this.tenant = tenant;
+    }
+
+    public Long getSequence() {
+        return sequence;
+    }
+
+    public void setSequence(Long sequence) {
+        this.sequence = sequence;
+    }
+
+    public TeamChange.Type getType() {
+        return type;
+    }
+
+    public void setType(TeamChange.Type type) {
+        this.type = type;
+    }
+
+    public String getTeamId() {
+        return teamId;
+    }
+
+    public void setTeamId(String teamId) {
+        this.teamId = teamId;
+    }
+
+    public Long getGeneration() {
+        return generation;
+    }
+
+    public void setGeneration(Long generation) {
+        this.generation = generation;
+    }
+
+    public Long getStepCount() {
+        return stepCount;
+    }
+
+    public void setStepCount(Long stepCount) {
+        this.stepCount = stepCount;
+    }
+
+    public String getDepartment() {
+        return department;
+    }
+
+    public void setDepartment(String department) {
+        this.department = department;
+    }
+
+    public String getCompany() {
+        return company;
+    }
+
+    public void setCompany(String company) {
+        this.company = company;
+    }
+
+    public String getTenant() {
+        return tenant;
+    }
+
+    public void setTenant(String tenant) {
+        this.tenant = tenant;
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.assessemnt.dto;
+
+import java.util.List;
+
+public class ReplicationBatch {
+
+    private String epoch;
+    private Long sequence;
+    private List<ReplicatedChange> changes;
+
+    public ReplicationBatch() {
+    }
+
+    public ReplicationBatch(String epoch, Long sequence, List<ReplicatedChange> changes) {
+        this.epoch = epoch;
+        this.sequence = sequence;
+        this.changes = changes;
+    }
+
+    public String getEpoch() {
+        return epoch;
+    }
+
+    public void setEpoch(String epoch) {
+        this.epoch = epoch;
+    }
+
+    public Long getSequence() {
+        return sequence;
+    }
+
+    public void setSequence(Long sequence) {
+        this.sequence = sequence;
+    }
+
+    public List<ReplicatedChange> getChanges() {
+        return changes;
+    }
+
+    public void setChanges(List<ReplicatedChange> changes) {
+        this.changes = changes;
+    }
+}
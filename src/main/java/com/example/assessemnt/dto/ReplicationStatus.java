@@ -0,0 +1,53 @@
+package com.example.assessemnt.dto;
+
+import com.example.assessemnt.replication.ReplicationRole;
+
+public class ReplicationStatus {
+
+    private ReplicationRole role;
+    private Long sequence;
+    private Long leaderSequence;
+    private Long lagMillis;
+
+    public ReplicationStatus() {
+    }
+
+    public ReplicationStatus(ReplicationRole role, Long sequence, Long leaderSequence, Long lagMillis) {
+        this.role = role;
+        this.sequence = sequence;
+        this.leaderSequence = leaderSequence;
+        this.lagMillis = lagMillis;
+    }
+
+    public ReplicationRole getRole() {
+        return role;
+    }
+
+    public void setRole(ReplicationRole role) {
+        this.role = role;
+    }
+
+    public Long getSequence() {
+        return sequence;
+    }
+
+    public void setSequence(Long sequence) {
+        this.sequence = sequence;
+    }
+
+    public Long getLeaderSequence() {
+        return leaderSequence;
+    }
+
+    public void setLeaderSequence(Long leaderSequence) {
+        this.leaderSequence = leaderSequence;
+    }
+
+    public Long getLagMillis() {
+        return lagMillis;
+    }
+
+    public void setLagMillis(Long lagMillis) {
+        this.lagMillis = lagMillis;
+    }
+}
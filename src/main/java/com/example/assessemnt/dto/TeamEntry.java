@@ -0,0 +1,57 @@
+package com.example.assessemnt.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * One line of a bulk import or export. Absent groups are left out rather than written as nulls.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TeamEntry {
+
+    private String teamId;
+    private Long stepCount;
+    private String department;
+    private String company;
+
+    public TeamEntry() {
+    }
+
+    public TeamEntry(String teamId, Long stepCount, String department, String company) {
+        this.teamId = teamId;
+        this.stepCount = stepCount;
+        this.department = department;
+        this.company = company;
+    }
+
+    public String getTeamId() {
+        return teamId;
+    }
+
+    public void setTeamId(String teamId) {
+        this.teamId = teamId;
+    }
+
+    public Long getStepCount() {
+        return stepCount;
+    }
+
+    public void setStepCount(Long stepCount) {
+        this.stepCount = stepCount;
+    }
+
+    public String getDepartment() {
+        return department;
+    }
+
+    public void setDepartment(String department) {
+        this.department = department;
+    }
+
+    public String getCompany() {
+        return company;
+    }
+
+    public void setCompany(String company) {
+        this.company = company;
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.assessemnt.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+public class TeamHistoryResponse {
+
+    private String teamId;
+    private Instant from;
+    private Instant to;
+    private String step;
+    private List<HistoryPoint> points;
+
+    public TeamHistoryResponse() {
+    }
+
+    public TeamHistoryResponse(String teamId, Instant from, Instant to, String step, List<HistoryPoint> points) {
+        this.teamId = teamId;
+        this.from = from;
+        this.to = to;
+        this.step = step;
+        this.points = points;
+    }
+
+    public String getTeamId() {
+        return teamId;
+    }
+
+    public void setTeamId(String teamId) {
+        this.teamId = teamId;
+    }
+
+    public Instant getFrom() {
+        return from;
+    }
+
+    public void setFrom(Instant from) {
+        this.from = from;
+    }
+
+    public Instant getTo() {
+        return to;
+    }
+
+    public void setTo(Instant to) {
+        this.to = to;
+    }
+
+    public String getStep() {
+        return step;
+    }
+
+    public void setStep(String step) {
+        this.step = step;
+    }
+
+    public List<HistoryPoint> getPoints() {
+        return points;
+    }
+
+    public void setPoints(List<HistoryPoint> points) {
+        this.points = points;
+    }
+}
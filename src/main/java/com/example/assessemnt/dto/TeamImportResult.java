@@ -0,0 +1,53 @@
+package com.example.assessemnt.dto;
+
+import java.util.List;
+
+public class TeamImportResult {
+
+    private Long created;
+    private Long existing;
+    private Long failed;
+    private List<ImportError> errors;
+
+    public TeamImportResult() {
+    }
+
+    public TeamImportResult(Long created, Long existing, Long failed, List<ImportError> errors) {
+        this.created = created;
+        this.existing = existing;
+        this.failed = failed;
+        this.errors = errors;
+    }
+
+    public Long getCreated() {
+        return created;
+    }
+
+    public void setCreated(Long created) {
+        this.created = created;
+    }
+
+    public Long getExisting() {
+        return existing;
+    }
+
+    public void setExisting(Long existing) {
+        this.existing = existing;
+    }
+
+    public Long getFailed() {
+        return failed;
+    }
+
+    public void setFailed(Long failed) {
+        this.failed = failed;
+    }
+
+    public List<ImportError> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<ImportError> errors) {
+        this.errors = errors;
+    }
+}
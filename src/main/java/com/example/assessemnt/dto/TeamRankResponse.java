@@ -0,0 +1,72 @@
+package com.example.assessemnt.dto;
+
+public class TeamRankResponse {
+    
+    private String teamId;
+    private Long stepCount;
+    private Integer rank;
+    private Integer totalTeams;
+    private Double percentile;
+    private Boolean approximate;
+
+    public TeamRankResponse() {
+    }
+
+    public TeamRankResponse(String teamId, Long stepCount, Integer rank, Integer totalTeams, Double percentile,
+                            Boolean approximate) {
+        this.teamId = teamId;
+        this.stepCount = stepCount;
+        this.rank = rank;
+        this.totalTeams = totalTeams;
+        this.percentile = percentile;
+        this.approximate = approximate;
+    }
+
+    public String getTeamId() {
+        return teamId;
+    }
+
+    public void setTeamId(String teamId) {
+        this.teamId = teamId;
+    }
+
+    public Long getStepCount() {
+        return stepCount;
+    }
+
+    public void setStepCount(Long stepCount) {
+        this.stepCount = stepCount;
+    }
+
+    public Integer getRank() {
+        return rank;
+    }
+
+    public void setRank(Integer rank) {
+        this.rank = rank;
+    }
+
+    public Integer getTotalTeams() {
+        return totalTeams;
+    }
+
+    public void setTotalTeams(Integer totalTeams) {
+        this.totalTeams = totalTeams;
+    }
+
+    public Double getPercentile() {
+        return percentile;
+    }
+
+    public void setPercentile(Double percentile) {
+        this.percentile = percentile;
+    }
+
+    public Boolean getApproximate() {
+        return approximate;
+    }
+
+    public void setApproximate(Boolean approximate) {
+        this.approximate = approximate;
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.assessemnt.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+public class TeamStepsEntry {
+
+    @NotBlank(message = "Team ID cannot be null or empty")
+    private String teamId;
+
+    @NotNull(message = "Steps cannot be null")
+    @Min(value = 0, message = "Steps cannot be negative")
+    private Long steps;
+
+    public TeamStepsEntry() {
+    }
+
+    public TeamStepsEntry(String teamId, Long steps) {
+        this.teamId = teamId;
+        this.steps = steps;
+    }
+
+    public String getTeamId() {
+        return teamId;
+    }
+
+    public void setTeamId(String teamId) {
+        this.teamId = teamId;
+    }
+
+    public Long getSteps() {
+        return steps;
+    }
+
+    public void setSteps(Long steps) {
+        this.steps = steps;
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.assessemnt.dto;
+
+public class TenantResponse {
+
+    private String tenantId;
+    private Integer teamCount;
+    private Integer maxTeams;
+    private Integer maxUpdatesPerSecond;
+
+    public TenantResponse() {
+    }
+
+    public TenantResponse(String tenantId, Integer teamCount, Integer maxTeams, Integer maxUpdatesPerSecond) {
+        this.tenantId = tenantId;
+        this.teamCount = teamCount;
+        this.maxTeams = maxTeams;
+        this.maxUpdatesPerSecond = maxUpdatesPerSecond;
+    }
+
+    public String getTenantId() {
+        return tenantId;
+    }
+
+    public void setTenantId(String tenantId) {
+        this.tenantId = tenantId;
+    }
+
+    public Integer getTeamCount() {
+        return teamCount;
+    }
+
+    public void setTeamCount(Integer teamCount) {
+        this.teamCount = teamCount;
+    }
+
+    public Integer getMaxTeams() {
+        return maxTeams;
+    }
+
+    public void setMaxTeams(Integer maxTeams) {
+        this.maxTeams = maxTeams;
+    }
+
+    public Integer getMaxUpdatesPerSecond() {
+        return maxUpdatesPerSecond;
+    }
+
+    public void setMaxUpdatesPerSecond(Integer maxUpdatesPerSecond) {
+        this.maxUpdatesPerSecond = maxUpdatesPerSecond;
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.assessemnt.exception;
+
+/**
+ * Signals a missing department or company; like {@link TeamNotFoundException} it carries no stack trace.
+ */
+public class GroupNotFoundException extends RuntimeException {
+
+    private final String kind;
+    private final String groupId;
+
+    public GroupNotFoundException(String kind, String groupId) {
+        super(null, null, false, false);
+        this.kind = kind;
+        this.groupId = groupId;
+    }
+
+    @Override
+    public String getMessage() {
+        return kind + " not found: " + groupId;
+    }
+}
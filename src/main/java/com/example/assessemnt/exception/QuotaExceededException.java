@@ -0,0 +1,12 @@
+package com.example.assessemnt.exception;
+
+/**
+ * Signals that a tenant has as many teams, or there are as many tenants, as its quota allows.
+ * Rejections are expected under load, so it is created without a stack trace.
+ */
+public class QuotaExceededException extends RuntimeException {
+
+    public QuotaExceededException(String message) {
+        super(message, null, false, false);
+    }
+}
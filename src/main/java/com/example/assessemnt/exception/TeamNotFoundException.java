@@ -1,9 +1,24 @@
 package com.example.assessemnt.exception;
 
+/**
+ * Signals a missing team. Clients probing unknown or deleted IDs make this the most common error,
+ * so it is created without a stack trace and its message is only built when asked for.
+ */
 public class TeamNotFoundException extends RuntimeException {
-    
+
+    private final String teamId;
+
     public TeamNotFoundException(String teamId) {
-        super("Team not found: " + teamId);
+        super(null, null, false, false);
+        this.teamId = teamId;
     }
-}
 
+    public String getTeamId() {
+        return teamId;
+    }
+
+    @Override
+    public String getMessage() {
+        return "Team not found: " + teamId;
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.assessemnt.exception;
+
+/**
+ * Signals a tenant that has no teams yet; like {@link TeamNotFoundException} it carries no stack trace.
+ */
+public class TenantNotFoundException extends RuntimeException {
+
+    private final String tenantId;
+
+    public TenantNotFoundException(String tenantId) {
+        super(null, null, false, false);
+        this.tenantId = tenantId;
+    }
+
+    @Override
+    public String getMessage() {
+        return "Tenant not found: " + tenantId;
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.assessemnt.exception;
+
+import java.time.Duration;
+
+/**
+ * Signals a request shed by admission control or a rate limit. It is thrown when the service is
+ * busiest, so it is created without a stack trace.
+ */
+public class TooManyRequestsException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public TooManyRequestsException(String message, Duration retryAfter) {
+        super(message, null, false, false);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
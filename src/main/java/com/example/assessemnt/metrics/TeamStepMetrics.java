@@ -0,0 +1,176 @@
+package com.example.assessemnt.metrics;
+
+import com.example.assessemnt.controller.LeaderboardStreamPublisher;
+import com.example.assessemnt.controller.StepAdmissionInterceptor;
+import com.example.assessemnt.persistence.StepJournal;
+import com.example.assessemnt.persistence.StepSnapshotter;
+import com.example.assessemnt.replication.ReplicaFollower;
+import com.example.assessemnt.replication.ReplicationLog;
+import com.example.assessemnt.service.LeaderboardSnapshotCache;
+import com.example.assessemnt.service.StepIngestQueue;
+import com.example.assessemnt.service.TeamStepService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Registers the service's meters. Every meter reads a counter or field the components already
+ * maintain when the registry is scraped, so the request path records nothing through Micrometer
+ * and allocates nothing for metrics. Request latency per endpoint comes from Spring MVC's
+ * {@code http.server.requests} timer.
+ */
+@Component
+public class TeamStepMetrics implements MeterBinder {
+
+    private final TeamStepService teamStepService;
+    private final LeaderboardSnapshotCache leaderboardSnapshotCache;
+    private final StepAdmissionInterceptor stepAdmissionInterceptor;
+    private final LeaderboardStreamPublisher leaderboardStreamPublisher;
+    private final ObjectProvider<StepJournal> stepJournal;
+    private final ObjectProvider<StepSnapshotter> stepSnapshotter;
+    private final ObjectProvider<StepIngestQueue> stepIngestQueue;
+    private final ObjectProvider<ReplicationLog> replicationLog;
+    private final ObjectProvider<ReplicaFollower> replicaFollower;
+
+    public TeamStepMetrics(TeamStepService teamStepService, LeaderboardSnapshotCache leaderboardSnapshotCache,
+                           StepAdmissionInterceptor stepAdmissionInterceptor,
+                           LeaderboardStreamPublisher leaderboardStreamPublisher,
+                           ObjectProvider<StepJournal> stepJournal, ObjectProvider<StepSnapshotter> stepSnapshotter,
+                           ObjectProvider<StepIngestQueue> stepIngestQueue,
+                           ObjectProvider<ReplicationLog> replicationLog,
+                           ObjectProvider<ReplicaFollower> replicaFollower) {
+        this.teamStepService = teamStepService;
+        this.leaderboardSnapshotCache = leaderboardSnapshotCache;
+        this.stepAdmissionInterceptor = stepAdmissionInterceptor;
+        this.leaderboardStreamPublisher = leaderboardStreamPublisher;
+        this.stepJournal = stepJournal;
+        this.stepSnapshotter = stepSnapshotter;
+        this.stepIngestQueue = stepIngestQueue;
+        this.replicationLog = replicationLog;
+        this.replicaFollower = replicaFollower;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("teams.count", teamStepService, TeamStepService::getTeamCount)
+                .description("Number of teams")
+                .register(registry);
+        FunctionCounter.builder("teams.steps.updates", teamStepService, TeamStepService::getStepUpdateCount)
+                .description("Step updates applied to a team")
+                .register(registry);
+        FunctionCounter.builder("teams.steps.added", teamStepService, TeamStepService::getStepsAddedTotal)
+                .description("Steps added across all teams")
+                .baseUnit("steps")
+                .register(registry);
+        FunctionCounter.builder("teams.steps.duplicates", teamStepService,
+                        TeamStepService::getDuplicateSubmissionCount)
+                .description("Step submissions dropped as repeats of an idempotency key")
+                .register(registry);
+        Gauge.builder("teams.idempotency.keys", teamStepService, TeamStepService::getIdempotencyKeyCount)
+                .description("Idempotency keys currently remembered")
+                .register(registry);
+        FunctionCounter.builder("teams.not.found", teamStepService, TeamStepService::getTeamNotFoundCount)
+                .description("Requests that referenced a team that does not exist")
+                .register(registry);
+        Gauge.builder("teams.tenants", teamStepService, TeamStepService::getTenantCount)
+                .description("Number of tenant namespaces")
+                .register(registry);
+        FunctionCounter.builder("teams.tenants.quota.rejected", teamStepService,
+                        TeamStepService::getQuotaRejectionCount)
+                .description("Requests rejected for exceeding a tenant's team or ingestion quota")
+                .register(registry);
+
+        FunctionTimer.builder("teams.leaderboard.build", leaderboardSnapshotCache,
+                        LeaderboardSnapshotCache::getBuildCount, LeaderboardSnapshotCache::getTotalBuildNanos,
+                        TimeUnit.NANOSECONDS)
+                .description("Time spent rebuilding the cached leaderboard")
+                .register(registry);
+        Gauge.builder("teams.leaderboard.size", leaderboardSnapshotCache, LeaderboardSnapshotCache::getLastBuildTeams)
+                .description("Teams in the cached leaderboard")
+                .register(registry);
+        Gauge.builder("teams.leaderboard.body", leaderboardSnapshotCache, LeaderboardSnapshotCache::getLastBuildBytes)
+                .description("Size of the cached leaderboard body")
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("teams.leaderboard.subscribers", leaderboardStreamPublisher,
+                        LeaderboardStreamPublisher::getSubscriberCount)
+                .description("Open leaderboard streams")
+                .register(registry);
+
+        Gauge.builder("teams.admission.available", stepAdmissionInterceptor,
+                        StepAdmissionInterceptor::getAvailablePermits)
+                .description("Free step submission slots")
+                .register(registry);
+        FunctionCounter.builder("teams.admission.rejected", stepAdmissionInterceptor,
+                        StepAdmissionInterceptor::getRejectedCount)
+                .description("Step submissions rejected with 429")
+                .register(registry);
+
+        stepJournal.ifAvailable(journal -> Gauge.builder("teams.journal.size", journal, StepJournal::getRetainedBytes)
+                .description("Journal bytes kept on disk until a snapshot covers them")
+                .baseUnit("bytes")
+                .register(registry));
+        stepSnapshotter.ifAvailable(snapshotter -> {
+            Gauge.builder("teams.snapshot.size", snapshotter, StepSnapshotter::getLastSnapshotBytes)
+                    .description("Size of the latest snapshot")
+                    .baseUnit("bytes")
+                    .register(registry);
+            TimeGauge.builder("teams.snapshot.write.duration", snapshotter, TimeUnit.MILLISECONDS,
+                            StepSnapshotter::getLastSnapshotMillis)
+                    .description("Time taken to write the latest snapshot")
+                    .register(registry);
+            TimeGauge.builder("teams.snapshot.restore.duration", snapshotter, TimeUnit.MILLISECONDS,
+                            StepSnapshotter::getRestoreMillis)
+                    .description("Time taken to restore the snapshot at startup")
+                    .register(registry);
+        });
+        stepIngestQueue.ifAvailable(queue -> {
+            Gauge.builder("teams.ingest.depth", queue, StepIngestQueue::getDepth)
+                    .description("Step submissions queued but not yet applied")
+                    .register(registry);
+            TimeGauge.builder("teams.ingest.lag", queue, TimeUnit.NANOSECONDS, StepIngestQueue::getLagNanos)
+                    .description("Age of the oldest queued step submission")
+                    .register(registry);
+            FunctionCounter.builder("teams.ingest.applied", queue, StepIngestQueue::getAppliedCount)
+                    .description("Queued step submissions applied")
+                    .register(registry);
+            FunctionCounter.builder("teams.ingest.batches", queue, StepIngestQueue::getBatchCount)
+                    .description("Coalesced batches applied")
+                    .register(registry);
+            FunctionCounter.builder("teams.ingest.dropped", queue, StepIngestQueue::getDroppedCount)
+                    .description("Queued submissions dropped because the team was removed")
+                    .register(registry);
+            FunctionCounter.builder("teams.ingest.failed", queue, StepIngestQueue::getFailedCount)
+                    .description("Queued submissions not applied because applying them failed")
+                    .register(registry);
+            FunctionCounter.builder("teams.ingest.rejected", queue, StepIngestQueue::getRejectedCount)
+                    .description("Step submissions rejected because the queue was full")
+                    .register(registry);
+        });
+        replicationLog.ifAvailable(changeLog -> Gauge.builder("teams.replication.sequence", changeLog,
+                        ReplicationLog::getSequence)
+                .description("Sequence number of the latest change in the replication log")
+                .register(registry));
+        replicaFollower.ifAvailable(follower -> {
+            TimeGauge.builder("teams.replication.lag", follower, TimeUnit.NANOSECONDS, ReplicaFollower::getLagNanos)
+                    .description("Time since the replica last had every change from the leader")
+                    .register(registry);
+            Gauge.builder("teams.replication.behind", follower, ReplicaFollower::getBehind)
+                    .description("Changes the leader has that the replica has not applied")
+                    .register(registry);
+            FunctionCounter.builder("teams.replication.applied", follower, ReplicaFollower::getAppliedCount)
+                    .description("Changes applied from the leader's log")
+                    .register(registry);
+            FunctionCounter.builder("teams.replication.resyncs", follower, ReplicaFollower::getResyncCount)
+                    .description("Full copies of the leader's state")
+                    .register(registry);
+        });
+    }
+}
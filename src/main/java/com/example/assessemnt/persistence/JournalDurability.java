@@ -0,0 +1,10 @@
+package com.example.assessemnt.persistence;
+
+public enum JournalDurability {
+    /** Every mutation is fsynced before the request returns; concurrent requests share one fsync. */
+    PER_REQUEST,
+    /** Mutations are written and fsynced in the background every flush interval. */
+    INTERVAL,
+    /** Mutations are written in the background every flush interval and left to the OS to sync. */
+    ASYNC
+}
@@ -0,0 +1,516 @@
+package com.example.assessemnt.persistence;
+
+import com.example.assessemnt.config.JournalProperties;
+import com.example.assessemnt.service.TeamChange;
+import com.example.assessemnt.service.TeamChangeListener;
+import com.example.assessemnt.service.TeamStepService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only journal of team mutations, kept as segments. Each segment file starts with
+ * {@code [magic][format][start offset]}, and a segment without it or of another format is refused
+ * rather than misread. After each durable snapshot the active segment is sealed under its start
+ * offset and a new one begun; sealed segments the snapshot covers are deleted. Records are framed as
+ * {@code [payload length][CRC32C][type][generation][step count][team ID][department][company]},
+ * each name prefixed with its two-byte length (zero when absent). Changes of a tenant's teams end
+ * with the tenant, also as a name; records without it belong to the default namespace. Records
+ * are appended to one of two direct buffers; a sync swaps them and writes the full one to the
+ * file channel outside the append lock. On startup the journal is replayed into the service,
+ * starting after the restored snapshot if there is one, and any torn record at the tail is
+ * truncated away.
+ * <p>
+ * Records are written after the change is applied, by the change listener, so the journal is not
+ * write-ahead: other requests can see a change before it is durable. With
+ * {@link JournalDurability#PER_REQUEST} the request that made the change returns only once its
+ * record is fsynced. With the other modes, acknowledged changes from the last flush interval are
+ * lost if the process or machine crashes.
+ */
+@Component
+@ConditionalOnProperty(prefix = "teams.journal", name = "enabled", havingValue = "true")
+public class StepJournal implements TeamChangeListener {
+
+    private static final Logger log = LoggerFactory.getLogger(StepJournal.class);
+    private static final int MAGIC = 0x54574a4e;
+    private static final byte FORMAT = 2;
+    private static final int FILE_HEADER_BYTES = 13;
+    private static final int HEADER_BYTES = 8;
+    private static final int FIXED_PAYLOAD_BYTES = 23;
+    private static final byte[] NONE = new byte[0];
+    private static final int BUFFER_BYTES = 64 * 1024;
+    private static final TeamChange.Type[] TYPES = TeamChange.Type.values();
+
+    private final TeamStepService teamStepService;
+    private final StepSnapshotter snapshotter;
+    private final Path path;
+    private final JournalDurability durability;
+    private final long flushIntervalMillis;
+    private ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+    private ByteBuffer spare = ByteBuffer.allocateDirect(BUFFER_BYTES);
+    private final CRC32C crc = new CRC32C();
+    private final ReentrantLock syncLock = new ReentrantLock();
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private FileChannel channel;
+    private ScheduledExecutorService flusher;
+    private long appendedPosition;
+    private volatile long syncedPosition;
+    private long segmentStart;
+    private volatile long retainedStart;
+
+    @Autowired
+    public StepJournal(TeamStepService teamStepService, JournalProperties properties,
+                       ObjectProvider<StepSnapshotter> snapshotter) {
+        this(teamStepService, properties, snapshotter.getIfAvailable());
+    }
+
+    public StepJournal(TeamStepService teamStepService, JournalProperties properties, StepSnapshotter snapshotter) {
+        this.teamStepService = teamStepService;
+        this.snapshotter = snapshotter;
+        this.path = properties.path();
+        this.durability = properties.durability();
+        this.flushIntervalMillis = Math.max(1, properties.flushInterval().toMillis());
+    }
+
+    @PostConstruct
+    public void open() throws IOException {
+        Files.createDirectories(directory());
+        long startedAt = System.nanoTime();
+        long replayFrom = snapshotter == null ? 0 : snapshotter.getRestoredJournalOffset();
+        List<Segment> segments = new ArrayList<>();
+        for (Path sealed : sealedSegments()) {
+            segments.add(readSegment(sealed));
+        }
+        long end = segments.isEmpty() ? replayFrom : segments.getLast().end();
+        if (!Files.exists(path) || Files.size(path) < FILE_HEADER_BYTES) {
+            createSegment(end).close();
+        }
+        Segment active = readSegment(path);
+        segments.add(active);
+        if (end != active.start() && segments.size() > 1) {
+            log.warn("Journal {} starts at offset {} but the sealed segments end at {}", path, active.start(), end);
+        }
+
+        long validEnd = active.start();
+        long records = 0;
+        for (Segment segment : segments) {
+            if (segment.end() < replayFrom || (segment.end() == replayFrom && segment != active)) {
+                validEnd = segment.end();
+                continue;
+            }
+            Replayed replayed = replay(segment, Math.max(replayFrom, segment.start()));
+            if (replayed.end() < segment.end() && segment != active) {
+                log.warn("Journal segment {} has {} unreadable bytes at its end", segment.file(),
+                        segment.end() - replayed.end());
+            }
+            records += replayed.records();
+            validEnd = replayed.end();
+        }
+        boolean behindSnapshot = validEnd < replayFrom;
+        if (behindSnapshot) {
+            log.warn("Journal {} ends at offset {}, before the snapshot offset {}; skipped replay", path, validEnd,
+                    replayFrom);
+        }
+
+        channel = FileChannel.open(path, StandardOpenOption.WRITE);
+        long validLength = active.headerBytes() + validEnd - active.start();
+        if (channel.size() > validLength) {
+            log.warn("Truncating {} bytes of incomplete journal records", channel.size() - validLength);
+            channel.truncate(validLength);
+        }
+        channel.position(validLength);
+        segmentStart = active.start();
+        retainedStart = segments.getFirst().start();
+        appendedPosition = validEnd;
+        syncedPosition = validEnd;
+        log.info("Replayed {} journal records of {} from offset {} in {} ms", records, path, replayFrom,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+
+        if (durability != JournalDurability.PER_REQUEST) {
+            flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "journal-flusher");
+                thread.setDaemon(true);
+                return thread;
+            });
+            flusher.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMillis, flushIntervalMillis,
+                    TimeUnit.MILLISECONDS);
+        }
+        teamStepService.addChangeListener(this);
+        if (behindSnapshot) {
+            snapshotter.snapshot();
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        if (flusher != null) {
+            flusher.shutdown();
+        }
+        sync(appendedPosition(), true);
+        channel.close();
+    }
+
+    @Override
+    public void onChange(TeamChange change) {
+        byte[] teamId = change.teamId().getBytes(StandardCharsets.UTF_8);
+        byte[] department = encode(change.department());
+        byte[] company = encode(change.company());
+        byte[] tenant = encode(change.tenant());
+        int payloadLength = FIXED_PAYLOAD_BYTES + teamId.length + department.length + company.length
+                + (change.tenant() == null ? 0 : 2 + tenant.length);
+        assert HEADER_BYTES + payloadLength <= BUFFER_BYTES : "Journal record of " + payloadLength + " bytes";
+        long position;
+        appendLock.lock();
+        try {
+            while (buffer.remaining() < HEADER_BYTES + payloadLength) {
+                appendLock.unlock();
+                try {
+                    writeBuffered();
+                } finally {
+                    appendLock.lock();
+                }
+            }
+            int start = buffer.position();
+            buffer.putInt(payloadLength);
+            buffer.putInt(0);
+            buffer.put((byte) change.type().ordinal());
+            buffer.putLong(change.generation());
+            buffer.putLong(change.stepCount());
+            putName(teamId);
+            putName(department);
+            putName(company);
+            if (change.tenant() != null) {
+                putName(tenant);
+            }
+            crc.reset();
+            crc.update(buffer.duplicate().position(start + HEADER_BYTES).limit(buffer.position()));
+            buffer.putInt(start + 4, (int) crc.getValue());
+            appendedPosition += HEADER_BYTES + payloadLength;
+            position = appendedPosition;
+        } finally {
+            appendLock.unlock();
+        }
+        if (durability == JournalDurability.PER_REQUEST) {
+            sync(position, true);
+        }
+    }
+
+    /**
+     * Writes and fsyncs everything appended so far and returns the journal length, which is the
+     * offset a replay has to start from to see every later change.
+     */
+    public long flush() {
+        long position = appendedPosition();
+        sync(position, true);
+        return position;
+    }
+
+    /**
+     * Offset up to which the journal is known to be written to the file.
+     */
+    public long getSyncedPosition() {
+        return syncedPosition;
+    }
+
+    /**
+     * Bytes of records kept on disk, in the active segment and the sealed ones not yet deleted.
+     */
+    public long getRetainedBytes() {
+        return syncedPosition - retainedStart;
+    }
+
+    /**
+     * Seals the active segment and starts a new one, then deletes every sealed segment that only
+     * holds changes before {@code coveredOffset}. Called once a snapshot taken at that offset is
+     * durable, as replay will start there.
+     */
+    public void roll(long coveredOffset) {
+        syncLock.lock();
+        try {
+            long end = write();
+            channel.force(false);
+            syncedPosition = end;
+            if (end > segmentStart) {
+                channel.close();
+                Files.move(path, sealedPath(segmentStart), StandardCopyOption.ATOMIC_MOVE);
+                channel = createSegment(end);
+                segmentStart = end;
+                syncDirectory();
+            }
+            List<Path> sealed = sealedSegments();
+            for (int i = 0; i < sealed.size(); i++) {
+                long sealedEnd = i + 1 < sealed.size() ? startOf(sealed.get(i + 1)) : segmentStart;
+                if (sealedEnd > coveredOffset) {
+                    break;
+                }
+                Files.delete(sealed.get(i));
+                retainedStart = sealedEnd;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    /**
+     * Makes everything appended up to {@code position} durable. A caller that finds its records
+     * already synced by another thread returns without touching the file.
+     */
+    private void sync(long position, boolean force) {
+        if (syncedPosition >= position) {
+            return;
+        }
+        syncLock.lock();
+        try {
+            if (syncedPosition >= position) {
+                return;
+            }
+            long target = write();
+            if (force) {
+                channel.force(false);
+            }
+            syncedPosition = target;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            sync(appendedPosition(), durability == JournalDurability.INTERVAL);
+        } catch (RuntimeException e) {
+            log.error("Failed to flush journal {}", path, e);
+        }
+    }
+
+    private long appendedPosition() {
+        appendLock.lock();
+        try {
+            return appendedPosition;
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    private void writeBuffered() {
+        syncLock.lock();
+        try {
+            write();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    /**
+     * Swaps in the empty spare buffer and writes the full one to the file, so appenders only wait
+     * for the swap and never for the file. Called with the sync lock held; returns the journal
+     * length written.
+     */
+    private long write() throws IOException {
+        ByteBuffer full;
+        long target;
+        appendLock.lock();
+        try {
+            full = buffer;
+            buffer = spare;
+            target = appendedPosition;
+        } finally {
+            appendLock.unlock();
+        }
+        full.flip();
+        try {
+            while (full.hasRemaining()) {
+                channel.write(full);
+            }
+        } finally {
+            full.clear();
+            spare = full;
+        }
+        return target;
+    }
+
+    /**
+     * Creates the active segment with its header, replacing one whose header was torn, and returns
+     * it open for appending.
+     */
+    private FileChannel createSegment(long start) throws IOException {
+        FileChannel created = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_BYTES).putInt(MAGIC).put(FORMAT).putLong(start).flip();
+        while (header.hasRemaining()) {
+            created.write(header);
+        }
+        created.force(true);
+        return created;
+    }
+
+    /**
+     * Reads a segment's header. Format 1 segments, written before the journal was split into
+     * segments, start at offset 5, right after their shorter header.
+     */
+    private static Segment readSegment(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(file))) {
+            byte format = in.readInt() == MAGIC ? in.readByte() : 0;
+            long size = Files.size(file);
+            if (format == 1) {
+                return new Segment(file, 5, 5, size);
+            }
+            if (format != FORMAT) {
+                throw new IOException("Unsupported journal format: " + file);
+            }
+            return new Segment(file, in.readLong(), FILE_HEADER_BYTES, size);
+        } catch (EOFException e) {
+            throw new IOException("Unsupported journal format: " + file, e);
+        }
+    }
+
+    /**
+     * Sealed segments, named after the journal with the offset they start at, in offset order.
+     */
+    private List<Path> sealedSegments() throws IOException {
+        String prefix = path.getFileName() + ".";
+        try (Stream<Path> files = Files.list(directory())) {
+            return files.filter(file -> {
+                        String name = file.getFileName().toString();
+                        return name.startsWith(prefix) && name.length() > prefix.length()
+                                && name.substring(prefix.length()).chars().allMatch(Character::isDigit);
+                    })
+                    .sorted(Comparator.comparingLong(StepJournal::startOf))
+                    .toList();
+        }
+    }
+
+    /**
+     * Makes the rename and creation of segments durable.
+     */
+    private void syncDirectory() {
+        try (FileChannel directory = FileChannel.open(directory(), StandardOpenOption.READ)) {
+            directory.force(true);
+        } catch (IOException e) {
+            log.debug("Cannot sync journal directory {}", directory(), e);
+        }
+    }
+
+    private Path sealedPath(long start) {
+        return path.resolveSibling(path.getFileName() + "." + start);
+    }
+
+    private static long startOf(Path sealed) {
+        String name = sealed.getFileName().toString();
+        return Long.parseLong(name.substring(name.lastIndexOf('.') + 1));
+    }
+
+    private Path directory() {
+        Path parent = path.toAbsolutePath().getParent();
+        return parent == null ? Path.of(".") : parent;
+    }
+
+    private void putName(byte[] name) {
+        buffer.putShort((short) name.length);
+        buffer.put(name);
+    }
+
+    private static byte[] encode(String name) {
+        return name == null ? NONE : name.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Applies the segment's records from offset {@code from} on and returns where its readable
+     * records end.
+     */
+    private Replayed replay(Segment segment, long from) throws IOException {
+        long validEnd = from;
+        long records = 0;
+        CRC32C check = new CRC32C();
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(segment.file())))) {
+            in.skipNBytes(segment.headerBytes() + from - segment.start());
+            while (true) {
+                int payloadLength = in.readInt();
+                int expectedCrc = in.readInt();
+                if (payloadLength < FIXED_PAYLOAD_BYTES || payloadLength > BUFFER_BYTES) {
+                    break;
+                }
+                byte[] payload = new byte[payloadLength];
+                in.readFully(payload);
+                check.reset();
+                check.update(payload);
+                if ((int) check.getValue() != expectedCrc) {
+                    break;
+                }
+                teamStepService.apply(decode(ByteBuffer.wrap(payload)));
+                validEnd += HEADER_BYTES + payloadLength;
+                records++;
+            }
+        } catch (EOFException e) {
+            // incomplete trailing record, truncated on open
+        }
+        return new Replayed(validEnd, records);
+    }
+
+    private static TeamChange decode(ByteBuffer payload) {
+        TeamChange.Type type = TYPES[payload.get()];
+        long generation = payload.getLong();
+        long stepCount = payload.getLong();
+        String teamId = getName(payload);
+        String department = getName(payload);
+        String company = getName(payload);
+        String tenant = payload.hasRemaining() ? getName(payload) : null;
+        return new TeamChange(type, teamId, generation, 0, stepCount, department, company, tenant);
+    }
+
+    /**
+     * A journal file: its records cover offsets {@code start} to {@link #end()}.
+     */
+    private record Segment(Path file, long start, int headerBytes, long size) {
+
+        long end() {
+            return start + size - headerBytes;
+        }
+    }
+
+    private record Replayed(long end, long records) {
+    }
+
+    private static String getName(ByteBuffer payload) {
+        int length = Short.toUnsignedInt(payload.getShort());
+        if (length == 0) {
+            return null;
+        }
+        String name = StandardCharsets.UTF_8.decode(payload.slice(payload.position(), length)).toString();
+        payload.position(payload.position() + length);
+        return name;
+    }
+}
@@ -0,0 +1,271 @@
+package com.example.assessemnt.persistence;
+
+import com.example.assessemnt.config.SnapshotProperties;
+import com.example.assessemnt.service.TeamChange;
+import com.example.assessemnt.service.TeamStepService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Periodically writes every team to a compact binary snapshot and restores it on startup.
+ * <p>
+ * Layout: {@code [magic][format][journal offset]}, then per team {@code [varint ID length][ID]
+ * [varint generation][varint step count][department][company][tenant]}, then
+ * {@code [0][team count][CRC32C]}. Department, company and tenant are written like the ID, with
+ * length zero when absent; format 1 snapshots, which predate groups, and format 2 snapshots, which
+ * predate tenants, are still read. The journal offset
+ * is taken before the teams are read, so replaying the journal from there on top of the snapshot
+ * recovers every later change; replay is idempotent, so changes seen by both are harmless.
+ */
+@Component
+@ConditionalOnProperty(prefix = "teams.snapshot", name = "enabled", havingValue = "true")
+public class StepSnapshotter {
+
+    private static final Logger log = LoggerFactory.getLogger(StepSnapshotter.class);
+    private static final int MAGIC = 0x5457534e;
+    private static final byte FORMAT = 3;
+
+    private final TeamStepService teamStepService;
+    private final Supplier<StepJournal> journal;
+    private final Path path;
+    private final long intervalMillis;
+    private ScheduledExecutorService scheduler;
+    private volatile long restoredJournalOffset;
+    private volatile long restoreMillis;
+    private volatile long lastSnapshotBytes;
+    private volatile long lastSnapshotMillis;
+
+    @Autowired
+    public StepSnapshotter(TeamStepService teamStepService, SnapshotProperties properties,
+                           ObjectProvider<StepJournal> journal) {
+        this(teamStepService, properties, journal::getIfAvailable);
+    }
+
+    public StepSnapshotter(TeamStepService teamStepService, SnapshotProperties properties,
+                           Supplier<StepJournal> journal) {
+        this.teamStepService = teamStepService;
+        this.journal = journal;
+        this.path = properties.path();
+        this.intervalMillis = properties.interval().toMillis();
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        restore();
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "snapshot-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::snapshotQuietly, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdown();
+        }
+    }
+
+    /**
+     * Journal offset recorded in the snapshot that was restored, i.e. where journal replay must start.
+     */
+    public long getRestoredJournalOffset() {
+        return restoredJournalOffset;
+    }
+
+    public long getRestoreMillis() {
+        return restoreMillis;
+    }
+
+    public long getLastSnapshotBytes() {
+        return lastSnapshotBytes;
+    }
+
+    public long getLastSnapshotMillis() {
+        return lastSnapshotMillis;
+    }
+
+    public synchronized void snapshot() {
+        long startedAt = System.nanoTime();
+        StepJournal stepJournal = journal.get();
+        long journalOffset = stepJournal == null ? 0 : stepJournal.flush();
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        long teamCount;
+        try (CheckedOutputStream checked = new CheckedOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(temporary), 64 * 1024), new CRC32C());
+             DataOutputStream out = new DataOutputStream(checked)) {
+            out.writeInt(MAGIC);
+            out.writeByte(FORMAT);
+            out.writeLong(journalOffset);
+            long[] written = new long[1];
+            teamStepService.forEachTeam(team -> {
+                try {
+                    byte[] teamId = team.teamId().getBytes(StandardCharsets.UTF_8);
+                    writeVarLong(out, teamId.length);
+                    out.write(teamId);
+                    writeVarLong(out, team.generation());
+                    writeVarLong(out, team.stepCount());
+                    writeName(out, team.department());
+                    writeName(out, team.company());
+                    writeName(out, team.tenant());
+                    written[0]++;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            teamCount = written[0];
+            writeVarLong(out, 0);
+            out.writeLong(teamCount);
+            out.flush();
+            out.writeInt((int) checked.getChecksum().getValue());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        try {
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+                channel.force(true);
+            }
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            try (FileChannel directory = FileChannel.open(path.toAbsolutePath().getParent(), StandardOpenOption.READ)) {
+                directory.force(true);
+            }
+            lastSnapshotBytes = Files.size(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (stepJournal != null) {
+            stepJournal.roll(journalOffset);
+        }
+        lastSnapshotMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+        log.info("Wrote snapshot {} with {} teams ({} bytes) in {} ms", path, teamCount, lastSnapshotBytes,
+                lastSnapshotMillis);
+    }
+
+    private void snapshotQuietly() {
+        try {
+            snapshot();
+        } catch (RuntimeException e) {
+            log.error("Failed to write snapshot {}", path, e);
+        }
+    }
+
+    private void restore() throws IOException {
+        if (!Files.exists(path)) {
+            return;
+        }
+        long startedAt = System.nanoTime();
+        CheckedInputStream checked = new CheckedInputStream(
+                new BufferedInputStream(Files.newInputStream(path), 64 * 1024), new CRC32C());
+        try (DataInputStream in = new DataInputStream(checked)) {
+            byte format = in.readInt() == MAGIC ? in.readByte() : 0;
+            if (format < 1 || format > FORMAT) {
+                throw new IOException("Unsupported snapshot format: " + path);
+            }
+            long journalOffset = in.readLong();
+            long teamCount = 0;
+            while (true) {
+                int length = (int) readVarLong(in);
+                if (length == 0) {
+                    break;
+                }
+                String teamId = readName(in, length);
+                long generation = readVarLong(in);
+                long stepCount = readVarLong(in);
+                String department = format == 1 ? null : readName(in, (int) readVarLong(in));
+                String company = format == 1 ? null : readName(in, (int) readVarLong(in));
+                String tenant = format < 3 ? null : readName(in, (int) readVarLong(in));
+                teamStepService.apply(TeamChange.state(teamId, generation, stepCount, department, company)
+                        .withTenant(tenant));
+                teamCount++;
+            }
+            if (in.readLong() != teamCount) {
+                throw new IOException("Corrupt snapshot, team count mismatch: " + path);
+            }
+            int expectedCrc = (int) checked.getChecksum().getValue();
+            if (in.readInt() != expectedCrc) {
+                throw new IOException("Corrupt snapshot, checksum mismatch: " + path);
+            }
+            restoredJournalOffset = journalOffset;
+            restoreMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+            lastSnapshotBytes = Files.size(path);
+            log.info("Restored {} teams from snapshot {} ({} bytes) in {} ms", teamCount, path, lastSnapshotBytes,
+                    restoreMillis);
+        }
+    }
+
+    private static void writeName(OutputStream out, String name) throws IOException {
+        if (name == null) {
+            writeVarLong(out, 0);
+            return;
+        }
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(out, bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readName(InputStream in, int length) throws IOException {
+        if (length == 0) {
+            return null;
+        }
+        byte[] bytes = in.readNBytes(length);
+        if (bytes.length != length) {
+            throw new IOException("Unexpected end of snapshot");
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    static void writeVarLong(OutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    static long readVarLong(InputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.read();
+            if (b < 0) {
+                throw new IOException("Unexpected end of snapshot");
+            }
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint in snapshot");
+    }
+}
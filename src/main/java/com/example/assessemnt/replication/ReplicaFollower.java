@@ -0,0 +1,211 @@
+package com.example.assessemnt.replication;
+
+import com.example.assessemnt.config.ReplicationProperties;
+import com.example.assessemnt.dto.ReplicatedChange;
+import com.example.assessemnt.dto.ReplicationBatch;
+import com.example.assessemnt.service.TeamChange;
+import com.example.assessemnt.service.TeamStepService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps a read replica in step with the leader. A single thread long-polls the leader's
+ * {@link ReplicationLog} for changes after the last applied sequence number and applies them to the
+ * local service, so changes are applied in log order by one thread. On startup, and whenever the
+ * leader no longer has the changes it needs, it copies the leader's snapshot and removes any local
+ * team the snapshot does not contain.
+ * <p>
+ * Lag is the time since the replica last knew it had every change: zero while it waits on the
+ * leader with nothing outstanding, growing while a batch is in flight or the leader is unreachable.
+ */
+@Component
+@ConditionalOnProperty(prefix = "teams.replication", name = "role", havingValue = "follower")
+public class ReplicaFollower {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaFollower.class);
+
+    private final TeamStepService teamStepService;
+    private final JsonMapper jsonMapper;
+    private final URI leader;
+    private final int batchSize;
+    private final long pollWaitMillis;
+    private final Duration requestTimeout;
+    private final long retryDelayMillis;
+    private final HttpClient httpClient;
+    private Thread thread;
+    private volatile boolean stopped;
+    private volatile String epoch;
+    private volatile long appliedSequence;
+    private volatile long leaderSequence;
+    private volatile long caughtUpAtNanos = System.nanoTime();
+    private volatile boolean waiting;
+    private volatile long appliedCount;
+    private volatile long resyncCount;
+
+    public ReplicaFollower(TeamStepService teamStepService, JsonMapper jsonMapper, ReplicationProperties properties) {
+        if (properties.leader() == null) {
+            throw new IllegalStateException("teams.replication.leader is required for a follower");
+        }
+        this.teamStepService = teamStepService;
+        this.jsonMapper = jsonMapper;
+        this.leader = properties.leader();
+        this.batchSize = properties.batchSize();
+        this.pollWaitMillis = properties.pollWait().toMillis();
+        this.requestTimeout = properties.pollWait().plus(properties.timeout());
+        this.retryDelayMillis = properties.retryDelay().toMillis();
+        this.httpClient = HttpClient.newBuilder().connectTimeout(properties.timeout()).build();
+    }
+
+    @PostConstruct
+    public void start() {
+        thread = new Thread(this::run, "replica-follower");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        stopped = true;
+        thread.interrupt();
+        thread.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    public URI getLeader() {
+        return leader;
+    }
+
+    public long getAppliedSequence() {
+        return appliedSequence;
+    }
+
+    public long getLeaderSequence() {
+        return leaderSequence;
+    }
+
+    /**
+     * Changes the leader had, as of the last reply, that are not applied here yet.
+     */
+    public long getBehind() {
+        return Math.max(0, leaderSequence - appliedSequence);
+    }
+
+    public long getLagNanos() {
+        return waiting ? 0 : System.nanoTime() - caughtUpAtNanos;
+    }
+
+    public long getAppliedCount() {
+        return appliedCount;
+    }
+
+    public long getResyncCount() {
+        return resyncCount;
+    }
+
+    private void run() {
+        while (!stopped) {
+            try {
+                if (epoch == null) {
+                    resync();
+                } else {
+                    poll();
+                }
+            } catch (InterruptedException e) {
+                return;
+            } catch (IOException | RuntimeException e) {
+                waiting = false;
+                if (stopped) {
+                    return;
+                }
+                log.warn("Replication from {} failed, retrying in {} ms: {}", leader, retryDelayMillis,
+                        e.getMessage());
+                try {
+                    Thread.sleep(retryDelayMillis);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void poll() throws IOException, InterruptedException {
+        waiting = appliedSequence >= leaderSequence;
+        HttpResponse<byte[]> reply = get("/api/replication/changes?epoch=" + epoch + "&after=" + appliedSequence
+                + "&limit=" + batchSize + "&waitMillis=" + pollWaitMillis);
+        if (reply.statusCode() == 410) {
+            waiting = false;
+            log.info("Leader {} no longer has changes after {}, copying its snapshot", leader, appliedSequence);
+            epoch = null;
+            return;
+        }
+        ReplicationBatch batch = read(reply);
+        waiting = false;
+        for (ReplicatedChange change : batch.getChanges()) {
+            teamStepService.apply(ReplicationLog.change(change));
+            appliedSequence = change.getSequence();
+        }
+        appliedCount += batch.getChanges().size();
+        leaderSequence = batch.getSequence();
+        if (appliedSequence >= leaderSequence) {
+            caughtUpAtNanos = System.nanoTime();
+        }
+    }
+
+    private void resync() throws IOException, InterruptedException {
+        ReplicationBatch snapshot = read(get("/api/replication/snapshot"));
+        Set<String> present = new HashSet<>(snapshot.getChanges().size() * 2);
+        for (ReplicatedChange team : snapshot.getChanges()) {
+            teamStepService.apply(ReplicationLog.change(team));
+            present.add(key(team.getTenant(), team.getTeamId()));
+        }
+        List<TeamChange> stale = new ArrayList<>();
+        teamStepService.forEachTeam(team -> {
+            if (!present.contains(key(team.tenant(), team.teamId()))) {
+                stale.add(TeamChange.removed(team.teamId(), team.generation(), team.stepCount())
+                        .withTenant(team.tenant()));
+            }
+        });
+        stale.forEach(teamStepService::apply);
+        appliedSequence = snapshot.getSequence();
+        leaderSequence = snapshot.getSequence();
+        epoch = snapshot.getEpoch();
+        resyncCount++;
+        log.info("Copied {} teams from leader {} at sequence {}, removed {} stale teams", present.size(), leader,
+                appliedSequence, stale.size());
+    }
+
+    private static String key(String tenant, String teamId) {
+        return tenant == null ? teamId : tenant + '\0' + teamId;
+    }
+
+    private HttpResponse<byte[]> get(String pathAndQuery) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(leader.resolve(pathAndQuery))
+                .timeout(requestTimeout)
+                .GET()
+                .build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    private ReplicationBatch read(HttpResponse<byte[]> reply) throws IOException {
+        if (reply.statusCode() != 200) {
+            throw new IOException("Status " + reply.statusCode() + " from " + reply.uri());
+        }
+        return jsonMapper.readValue(reply.body(), ReplicationBatch.class);
+    }
+}
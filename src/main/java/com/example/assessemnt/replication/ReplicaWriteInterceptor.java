@@ -0,0 +1,54 @@
+package com.example.assessemnt.replication;
+
+import com.example.assessemnt.config.ReplicationProperties;
+import com.example.assessemnt.service.StepWindow;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.net.URI;
+
+/**
+ * Sends writes made to a read replica to the leader with a 307, which keeps the method and body.
+ * Reads a replica cannot answer are redirected the same way: followers receive totals only, so
+ * windowed counts and step history exist on the leader alone.
+ */
+@Component
+@ConditionalOnProperty(prefix = "teams.replication", name = "role", havingValue = "follower")
+public class ReplicaWriteInterceptor implements HandlerInterceptor {
+
+    private final URI leader;
+
+    public ReplicaWriteInterceptor(ReplicationProperties properties) {
+        this.leader = properties.leader();
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        String method = request.getMethod();
+        boolean read = "GET".equals(method) || "HEAD".equals(method) || "OPTIONS".equals(method);
+        if (read && !leaderOnly(request)) {
+            return true;
+        }
+        String pathAndQuery = request.getQueryString() == null
+                ? request.getRequestURI()
+                : request.getRequestURI() + "?" + request.getQueryString();
+        response.setStatus(HttpServletResponse.SC_TEMPORARY_REDIRECT);
+        response.setHeader(HttpHeaders.LOCATION, leader.resolve(pathAndQuery).toString());
+        return false;
+    }
+
+    private static boolean leaderOnly(HttpServletRequest request) {
+        if (request.getRequestURI().endsWith("/history")) {
+            return true;
+        }
+        try {
+            return StepWindow.from(request.getParameter("window")) != StepWindow.ALL;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.assessemnt.replication;
+
+import com.example.assessemnt.dto.ReplicationBatch;
+import com.example.assessemnt.dto.ReplicationStatus;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.concurrent.TimeUnit;
+
+@RestController
+@RequestMapping("/api/replication")
+public class ReplicationController {
+
+    private final ReplicationLog replicationLog;
+    private final ReplicaFollower replicaFollower;
+
+    public ReplicationController(ObjectProvider<ReplicationLog> replicationLog,
+                                 ObjectProvider<ReplicaFollower> replicaFollower) {
+        this.replicationLog = replicationLog.getIfAvailable();
+        this.replicaFollower = replicaFollower.getIfAvailable();
+    }
+
+    @GetMapping("/changes")
+    public ResponseEntity<ReplicationBatch> getChanges(
+            @RequestParam String epoch,
+            @RequestParam @Min(0) long after,
+            @RequestParam(defaultValue = "1000") @Min(1) @Max(100_000) int limit,
+            @RequestParam(defaultValue = "0") @Min(0) @Max(30_000) long waitMillis) throws InterruptedException {
+        if (replicationLog == null) {
+            return ResponseEntity.notFound().build();
+        }
+        ReplicationBatch batch = replicationLog.changesAfter(epoch, after, limit, waitMillis);
+        if (batch == null) {
+            return ResponseEntity.status(HttpStatus.GONE).build();
+        }
+        return ResponseEntity.ok(batch);
+    }
+
+    @GetMapping("/snapshot")
+    public ResponseEntity<ReplicationBatch> getSnapshot() {
+        if (replicationLog == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(replicationLog.snapshot());
+    }
+
+    @GetMapping("/status")
+    public ResponseEntity<ReplicationStatus> getStatus() {
+        if (replicationLog != null) {
+            long sequence = replicationLog.getSequence();
+            return ResponseEntity.ok(new ReplicationStatus(ReplicationRole.LEADER, sequence, sequence, 0L));
+        }
+        if (replicaFollower != null) {
+            return ResponseEntity.ok(new ReplicationStatus(ReplicationRole.FOLLOWER,
+                    replicaFollower.getAppliedSequence(), replicaFollower.getLeaderSequence(),
+                    TimeUnit.NANOSECONDS.toMillis(replicaFollower.getLagNanos())));
+        }
+        return ResponseEntity.ok(new ReplicationStatus(ReplicationRole.NONE, null, null, null));
+    }
+}
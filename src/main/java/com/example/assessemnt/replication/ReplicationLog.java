@@ -0,0 +1,140 @@
+package com.example.assessemnt.replication;
+
+import com.example.assessemnt.config.ReplicationProperties;
+import com.example.assessemnt.dto.ReplicatedChange;
+import com.example.assessemnt.dto.ReplicationBatch;
+import com.example.assessemnt.service.TeamChange;
+import com.example.assessemnt.service.TeamChangeListener;
+import com.example.assessemnt.service.TeamStepService;
+import jakarta.annotation.PostConstruct;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The leader's change log: every team mutation is numbered and kept in a ring of the latest
+ * {@code logCapacity} changes, which followers read after their last applied sequence number.
+ * A follower that falls further behind than the ring, or that was following a previous run of the
+ * leader (a different epoch), copies the full state from {@link #snapshot()} instead.
+ */
+@Component
+@ConditionalOnProperty(prefix = "teams.replication", name = "role", havingValue = "leader")
+public class ReplicationLog implements TeamChangeListener {
+
+    private final TeamStepService teamStepService;
+    private final TeamChange[] changes;
+    private final String epoch = UUID.randomUUID().toString();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition appended = lock.newCondition();
+    private long sequence;
+
+    public ReplicationLog(TeamStepService teamStepService, ReplicationProperties properties) {
+        if (properties.logCapacity() < 1) {
+            throw new IllegalArgumentException("teams.replication.log-capacity must be positive");
+        }
+        this.teamStepService = teamStepService;
+        this.changes = new TeamChange[properties.logCapacity()];
+    }
+
+    @PostConstruct
+    public void start() {
+        teamStepService.addChangeListener(this);
+    }
+
+    @Override
+    public void onChange(TeamChange change) {
+        lock.lock();
+        try {
+            sequence++;
+            changes[slot(sequence)] = change;
+            appended.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public String getEpoch() {
+        return epoch;
+    }
+
+    public long getSequence() {
+        lock.lock();
+        try {
+            return sequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} changes after sequence number {@code after}, waiting up to
+     * {@code waitMillis} for one when there are none yet. Returns {@code null} when the epoch does
+     * not match or the changes after {@code after} are no longer in the log.
+     */
+    public ReplicationBatch changesAfter(String epoch, long after, int limit, long waitMillis)
+            throws InterruptedException {
+        TeamChange[] copied;
+        long last;
+        lock.lock();
+        try {
+            if (!this.epoch.equals(epoch) || !retains(after)) {
+                return null;
+            }
+            long remaining = TimeUnit.MILLISECONDS.toNanos(waitMillis);
+            while (sequence == after && remaining > 0) {
+                remaining = appended.awaitNanos(remaining);
+            }
+            if (!retains(after)) {
+                return null;
+            }
+            last = Math.min(sequence, after + limit);
+            copied = new TeamChange[(int) (last - after)];
+            for (int i = 0; i < copied.length; i++) {
+                copied[i] = changes[slot(after + 1 + i)];
+            }
+        } finally {
+            lock.unlock();
+        }
+        List<ReplicatedChange> batch = new ArrayList<>(copied.length);
+        for (int i = 0; i < copied.length; i++) {
+            batch.add(replicated(after + 1 + i, copied[i]));
+        }
+        return new ReplicationBatch(this.epoch, last, batch);
+    }
+
+    /**
+     * The state of every team, tagged with the sequence number read before copying. Every change
+     * up to that number is reflected in the copy, and re-applying later changes on top is harmless.
+     */
+    public ReplicationBatch snapshot() {
+        long from = getSequence();
+        List<ReplicatedChange> teams = new ArrayList<>();
+        teamStepService.forEachTeam(team -> teams.add(replicated(from, team)));
+        return new ReplicationBatch(epoch, from, teams);
+    }
+
+    private boolean retains(long after) {
+        return after <= sequence && after >= sequence - changes.length;
+    }
+
+    private int slot(long sequence) {
+        return (int) (sequence % changes.length);
+    }
+
+    static ReplicatedChange replicated(long sequence, TeamChange change) {
+        return new ReplicatedChange(sequence, change.type(), change.teamId(), change.generation(),
+                change.stepCount(), change.department(), change.company(), change.tenant());
+    }
+
+    static TeamChange change(ReplicatedChange replicated) {
+        return new TeamChange(replicated.getType(), replicated.getTeamId(), replicated.getGeneration(), 0,
+                replicated.getStepCount(), replicated.getDepartment(), replicated.getCompany(),
+                replicated.getTenant());
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.assessemnt.replication;
+
+public enum ReplicationRole {
+    NONE,
+    LEADER,
+    FOLLOWER
+}
@@ -0,0 +1,215 @@
+package com.example.assessemnt.service;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Ranking for namespaces with too many teams to keep in order. Only the top {@code capacity} teams
+ * are kept in order, in a bounded set that, like Space-Saving, admits a team by evicting the
+ * current minimum. Unlike Space-Saving it reads the team's exact total from its counter, so the
+ * listed counts carry no overestimate, and as totals only grow, an evicted team can only return
+ * by overtaking the new minimum. Updates from teams below the minimum skip the set without taking
+ * its lock. Every other team is ranked from a {@link StepCountSketch} of all totals.
+ * <p>
+ * Removing a team from the top set leaves a gap that only a full scan of the teams can fill
+ * correctly, so the next read rebuilds the set. In deferred mode writers only mark their counter
+ * dirty, as with {@link LeaderboardIndex}.
+ */
+final class ApproximateRanking implements TeamRanking {
+
+    private static final Comparator<Tracked> ORDER = Comparator
+            .comparingLong(Tracked::stepCount).reversed()
+            .thenComparing(Tracked::teamId)
+            .thenComparingLong(Tracked::generation);
+
+    private final int capacity;
+    private final boolean deferred;
+    private final Collection<TeamCounter> teams;
+    private final StepCountSketch sketch;
+    private final ConcurrentLinkedQueue<TeamCounter> dirtyCounters = new ConcurrentLinkedQueue<>();
+    private final TreeSet<Tracked> top = new TreeSet<>(ORDER);
+    private final Map<TeamCounter, Tracked> tracked = new HashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile long admitFrom = Long.MIN_VALUE;
+    private volatile boolean incomplete;
+    private volatile long version;
+
+    /**
+     * @param teams live view of every counter in the namespace, scanned to refill the top set
+     */
+    ApproximateRanking(int capacity, long[] sketchBounds, boolean deferred, Collection<TeamCounter> teams) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Tracked teams must be positive");
+        }
+        this.capacity = capacity;
+        this.deferred = deferred;
+        this.teams = teams;
+        this.sketch = new StepCountSketch(sketchBounds);
+    }
+
+    @Override
+    public void update(TeamCounter counter) {
+        if (!deferred) {
+            reindex(counter);
+        } else if (counter.markDirty()) {
+            dirtyCounters.add(counter);
+        }
+    }
+
+    private void reindex(TeamCounter counter) {
+        sketch.record(counter);
+        if (counter.isRemoved()) {
+            lock.lock();
+            try {
+                Tracked removed = tracked.remove(counter);
+                if (removed != null) {
+                    top.remove(removed);
+                    incomplete = true;
+                    version++;
+                }
+            } finally {
+                lock.unlock();
+            }
+            return;
+        }
+        long stepCount = counter.get();
+        if (stepCount < admitFrom) {
+            return;
+        }
+        lock.lock();
+        try {
+            if (!counter.isRemoved()) {
+                offer(counter, stepCount);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void offer(TeamCounter counter, long stepCount) {
+        Tracked candidate = new Tracked(stepCount, counter.getTeamId(), counter.getGeneration(), counter);
+        Tracked existing = tracked.get(counter);
+        if (existing != null) {
+            if (existing.stepCount() >= stepCount) {
+                return;
+            }
+            top.remove(existing);
+        } else if (top.size() >= capacity) {
+            Tracked minimum = top.last();
+            if (ORDER.compare(candidate, minimum) >= 0) {
+                return;
+            }
+            top.pollLast();
+            tracked.remove(minimum.counter());
+        }
+        top.add(candidate);
+        tracked.put(counter, candidate);
+        if (top.size() >= capacity) {
+            admitFrom = top.last().stepCount();
+        }
+        version++;
+    }
+
+    @Override
+    public int forEach(int offset, int limit, LeaderboardIndex.EntryVisitor visitor) {
+        refresh();
+        lock.lock();
+        try {
+            int visited = 0;
+            int skipped = 0;
+            for (Tracked entry : top) {
+                if (visited >= limit) {
+                    break;
+                }
+                if (skipped < offset) {
+                    skipped++;
+                    continue;
+                }
+                visitor.visit(entry.teamId(), entry.stepCount());
+                visited++;
+            }
+            return visited;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Exact for teams in the top set. Any other team is placed in the middle of the teams whose
+     * totals fall in its sketch range, and below every team in the top set.
+     */
+    @Override
+    public Rank rank(TeamCounter counter) {
+        refresh();
+        long stepCount = counter.get();
+        int totalTeams = size();
+        int topSize;
+        lock.lock();
+        try {
+            Tracked entry = tracked.get(counter);
+            if (entry != null) {
+                return new Rank(entry.stepCount(), top.headSet(entry).size() + 1, totalTeams, false);
+            }
+            topSize = top.size();
+        } finally {
+            lock.unlock();
+        }
+        int range = sketch.rangeOf(stepCount);
+        long sharing = Math.max(sketch.teamsIn(range) - 1, 0);
+        long estimate = 1 + sketch.above(range) + sharing / 2;
+        int rank = (int) Math.min(Math.max(estimate, topSize + 1L), Math.max(totalTeams, topSize + 1L));
+        return new Rank(stepCount, rank, totalTeams, true);
+    }
+
+    @Override
+    public long version() {
+        refresh();
+        return version;
+    }
+
+    @Override
+    public int size() {
+        refresh();
+        return (int) Math.min(sketch.size(), Integer.MAX_VALUE);
+    }
+
+    private void refresh() {
+        TeamCounter counter;
+        while ((counter = dirtyCounters.poll()) != null) {
+            counter.clearDirty();
+            reindex(counter);
+        }
+        if (incomplete) {
+            rebuild();
+        }
+    }
+
+    private void rebuild() {
+        lock.lock();
+        try {
+            if (!incomplete) {
+                return;
+            }
+            incomplete = false;
+            top.clear();
+            tracked.clear();
+            admitFrom = Long.MIN_VALUE;
+            for (TeamCounter counter : teams) {
+                if (!counter.isRemoved()) {
+                    offer(counter, counter.get());
+                }
+            }
+            version++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private record Tracked(long stepCount, String teamId, long generation, TeamCounter counter) {
+    }
+}
@@ -0,0 +1,6 @@
+package com.example.assessemnt.service;
+
+public enum CounterMode {
+    ATOMIC,
+    STRIPED
+}
@@ -0,0 +1,103 @@
+package com.example.assessemnt.service;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Remembers recently seen idempotency keys so retried submissions can be dropped. Keys are spread
+ * over independently locked stripes; each stripe keeps its keys in insertion order, which is also
+ * expiry order, so expired keys are always at the head and eviction never scans. A stripe that is
+ * full drops its oldest key early, which bounds memory at the cost of a shorter dedup window
+ * under heavy load.
+ */
+final class IdempotencyCache {
+
+    static final int MAX_KEY_LENGTH = 128;
+    private static final int STRIPES = 64;
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+    private final long ttlNanos;
+    private final LongSupplier nanoTime;
+
+    IdempotencyCache(long ttlNanos, int maxKeys) {
+        this(ttlNanos, maxKeys, System::nanoTime);
+    }
+
+    IdempotencyCache(long ttlNanos, int maxKeys, LongSupplier nanoTime) {
+        if (maxKeys < STRIPES) {
+            throw new IllegalArgumentException("Idempotency cache must hold at least " + STRIPES + " keys");
+        }
+        this.ttlNanos = ttlNanos;
+        this.nanoTime = nanoTime;
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe(maxKeys / STRIPES);
+        }
+    }
+
+    /**
+     * Records the key for the team and returns true, or returns false if it was already recorded
+     * and has not expired.
+     */
+    boolean claim(String teamId, String key) {
+        String scoped = scope(teamId, key);
+        Stripe stripe = stripeFor(scoped);
+        long now = nanoTime.getAsLong();
+        synchronized (stripe) {
+            stripe.expire(now - ttlNanos);
+            return stripe.putIfAbsent(scoped, now) == null;
+        }
+    }
+
+    /**
+     * Forgets a claimed key, so a submission that failed after claiming can be retried.
+     */
+    void release(String teamId, String key) {
+        String scoped = scope(teamId, key);
+        Stripe stripe = stripeFor(scoped);
+        synchronized (stripe) {
+            stripe.remove(scoped);
+        }
+    }
+
+    int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.size();
+            }
+        }
+        return size;
+    }
+
+    private Stripe stripeFor(String scoped) {
+        int hash = scoped.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & (STRIPES - 1)];
+    }
+
+    private static String scope(String teamId, String key) {
+        return teamId + '\u0000' + key;
+    }
+
+    private static final class Stripe extends LinkedHashMap<String, Long> {
+
+        private final int capacity;
+
+        private Stripe(int capacity) {
+            this.capacity = capacity;
+        }
+
+        private void expire(long claimedBefore) {
+            Iterator<Long> claimedAt = values().iterator();
+            while (claimedAt.hasNext() && claimedAt.next() - claimedBefore <= 0) {
+                claimedAt.remove();
+            }
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+            return size() > capacity;
+        }
+    }
+}
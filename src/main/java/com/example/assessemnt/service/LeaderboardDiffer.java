@@ -0,0 +1,60 @@
+package com.example.assessemnt.service;
+
+import com.example.assessemnt.dto.LeaderboardChange;
+import com.example.assessemnt.dto.LeaderboardEntry;
+import com.example.assessemnt.dto.LeaderboardUpdate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Turns successive top-K leaderboards into updates that only list the teams whose rank or step
+ * count changed, plus the teams that dropped out. Not thread-safe.
+ */
+public class LeaderboardDiffer {
+
+    private Map<String, LeaderboardChange> previous = new LinkedHashMap<>();
+    private long sequence;
+
+    /**
+     * Returns the update from the previous leaderboard to {@code current}, or null if nothing changed.
+     */
+    public LeaderboardUpdate diff(List<LeaderboardEntry> current) {
+        Map<String, LeaderboardChange> next = new LinkedHashMap<>();
+        List<LeaderboardChange> changes = new ArrayList<>();
+        for (int i = 0; i < current.size(); i++) {
+            LeaderboardEntry entry = current.get(i);
+            LeaderboardChange before = previous.get(entry.getTeamId());
+            long delta = before == null ? entry.getStepCount() : entry.getStepCount() - before.getStepCount();
+            LeaderboardChange change = new LeaderboardChange(entry.getTeamId(), i + 1, entry.getStepCount(), delta);
+            next.put(entry.getTeamId(), change);
+            if (before == null || before.getRank() != i + 1 || delta != 0) {
+                changes.add(change);
+            }
+        }
+        List<String> removed = new ArrayList<>();
+        for (String teamId : previous.keySet()) {
+            if (!next.containsKey(teamId)) {
+                removed.add(teamId);
+            }
+        }
+        previous = next;
+        if (changes.isEmpty() && removed.isEmpty()) {
+            return null;
+        }
+        return new LeaderboardUpdate(++sequence, changes, removed);
+    }
+
+    /**
+     * The last diffed leaderboard as a full update, for subscribers that join between diffs.
+     */
+    public LeaderboardUpdate current() {
+        List<LeaderboardChange> changes = new ArrayList<>(previous.size());
+        for (LeaderboardChange change : previous.values()) {
+            changes.add(new LeaderboardChange(change.getTeamId(), change.getRank(), change.getStepCount(), 0L));
+        }
+        return new LeaderboardUpdate(sequence, changes, List.of());
+    }
+}
@@ -0,0 +1,205 @@
+package com.example.assessemnt.service;
+
+import com.example.assessemnt.dto.LeaderboardEntry;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Ranking of all teams ordered by step count (descending), then team ID, then generation, so the
+ * node of a removed team never stands in for the node of a team re-created under its ID.
+ * Counters push their changes in; readers walk the ranking in order and never sort.
+ * Backed by a concurrent skip list, so writers re-position different teams without a shared lock
+ * and readers never block them.
+ * <p>
+ * Order statistics come from a {@link StepCountSketch} of the indexed counts, which a writer only
+ * touches when its team crosses into another 0.1% count range. A rank lookup adds up the teams in
+ * the ranges above the team and walks only the team's own range of the skip list, and seeking to a
+ * page offset skips whole ranges the same way. Under concurrent writes a page or rank reflects
+ * each team at some point during the read, as with any lock-free scan.
+ * <p>
+ * In deferred mode writers only mark their counter dirty and the ranking is brought up to date
+ * by the next reader, which keeps hot striped counters free of any shared write per update.
+ */
+class LeaderboardIndex implements TeamRanking {
+
+    private static final long[] RANGES = StepCountSketch.lowerBounds(0.001);
+
+    private static final Comparator<Node> ORDER = (node, other) -> {
+        int byCount = Long.compare(other.stepCount, node.stepCount);
+        if (byCount != 0) {
+            return byCount;
+        }
+        int byTeam = node.teamId.compareTo(other.teamId);
+        return byTeam != 0 ? byTeam : Long.compare(node.generation, other.generation);
+    };
+
+    private final boolean deferred;
+    private final ConcurrentLinkedQueue<TeamCounter> dirtyCounters = new ConcurrentLinkedQueue<>();
+    private final ConcurrentSkipListSet<Node> ranked = new ConcurrentSkipListSet<>(ORDER);
+    private final StepCountSketch sketch = new StepCountSketch(RANGES);
+    private final LongAdder version = new LongAdder();
+
+    LeaderboardIndex() {
+        this(false);
+    }
+
+    LeaderboardIndex(boolean deferred) {
+        this.deferred = deferred;
+    }
+
+    @Override
+    public void update(TeamCounter counter) {
+        if (!deferred) {
+            reindex(counter);
+        } else if (counter.markDirty()) {
+            dirtyCounters.add(counter);
+        }
+    }
+
+    /**
+     * Re-positions the counter at its current step count, or drops it once removed.
+     * Concurrent callers for the same team collapse into a single thread doing the work,
+     * so the index never keeps a stale key for a team.
+     */
+    private void reindex(TeamCounter counter) {
+        if (counter.enterReindex() != 0) {
+            return;
+        }
+        int missed = 1;
+        do {
+            Node current = counter.getIndexedNode();
+            if (counter.isRemoved()) {
+                if (current != null) {
+                    ranked.remove(current);
+                    sketch.move(counter, 0);
+                    counter.setIndexedNode(null);
+                    version.increment();
+                }
+            } else {
+                long stepCount = counter.get();
+                if (current == null || current.stepCount != stepCount) {
+                    Node next = new Node(stepCount, counter.getTeamId(), counter.getGeneration());
+                    if (current != null) {
+                        ranked.remove(current);
+                    }
+                    sketch.move(counter, stepCount);
+                    ranked.add(next);
+                    counter.setIndexedNode(next);
+                    version.increment();
+                }
+            }
+            missed = counter.exitReindex(missed);
+        } while (missed != 0);
+    }
+
+    @Override
+    public List<LeaderboardEntry> page(int offset, int limit) {
+        List<LeaderboardEntry> leaderboard = new ArrayList<>(Math.min(limit, Math.max(size() - offset, 0)));
+        forEach(offset, limit, (teamId, stepCount) -> leaderboard.add(new LeaderboardEntry(teamId, stepCount)));
+        return leaderboard;
+    }
+
+    /**
+     * Passes up to {@code limit} entries, starting at {@code offset}, to the visitor in rank order
+     * without materialising them, and returns the number visited. Writers are not blocked.
+     */
+    @Override
+    public int forEach(int offset, int limit, EntryVisitor visitor) {
+        flush();
+        Iterator<Node> entries;
+        long skip = offset;
+        if (offset == 0) {
+            entries = ranked.iterator();
+        } else {
+            int range = sketch.rangeAt(offset);
+            entries = ranked.tailSet(rangeStart(range), true).iterator();
+            skip = Math.max(offset - sketch.above(range), 0);
+        }
+        for (; skip > 0 && entries.hasNext(); skip--) {
+            entries.next();
+        }
+        int visited = 0;
+        while (visited < limit && entries.hasNext()) {
+            Node next = entries.next();
+            visitor.visit(next.teamId, next.stepCount);
+            visited++;
+        }
+        return visited;
+    }
+
+    @Override
+    public Rank rank(TeamCounter counter) {
+        long current = counter.get();
+        return new Rank(current, rankOf(current, counter.getTeamId()), size(), false);
+    }
+
+    /**
+     * Returns the 1-based position a team with this count holds (or would hold) in the ranking.
+     */
+    int rankOf(long stepCount, String teamId) {
+        flush();
+        int range = sketch.rangeOf(stepCount);
+        long ahead = sketch.above(range)
+                + ranked.subSet(rangeStart(range), true, new Node(stepCount, teamId, Long.MIN_VALUE), false).size();
+        return (int) Math.min(ahead + 1, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Changes whenever the ranking changes; equal versions mean an identical leaderboard.
+     */
+    @Override
+    public long version() {
+        flush();
+        return version.sum();
+    }
+
+    @Override
+    public int size() {
+        flush();
+        return (int) Math.min(sketch.size(), Integer.MAX_VALUE);
+    }
+
+    private void flush() {
+        TeamCounter counter;
+        while ((counter = dirtyCounters.poll()) != null) {
+            counter.clearDirty();
+            reindex(counter);
+        }
+    }
+
+    /**
+     * A key placed before every team in the range: its highest count and the empty team ID.
+     */
+    private Node rangeStart(int range) {
+        return new Node(sketch.upperBound(range), "", Long.MIN_VALUE);
+    }
+
+    @FunctionalInterface
+    interface EntryVisitor {
+
+        void visit(String teamId, long stepCount);
+    }
+
+    /**
+     * A ranked team. Nodes are the index entries themselves: a counter keeps a reference to the
+     * node it is indexed under, so no separate key object is stored per team.
+     */
+    static final class Node {
+
+        private final long stepCount;
+        private final String teamId;
+        private final long generation;
+
+        private Node(long stepCount, String teamId, long generation) {
+            this.stepCount = stepCount;
+            this.teamId = teamId;
+            this.generation = generation;
+        }
+    }
+}
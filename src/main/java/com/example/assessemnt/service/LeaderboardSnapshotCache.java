@@ -0,0 +1,134 @@
+package com.example.assessemnt.service;
+
+import com.example.assessemnt.config.LeaderboardProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.core.io.SerializedString;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Serves the full leaderboard as a pre-serialised body in each {@link Format}. A body is rebuilt
+ * only when it is requested, the ranking has changed and the current snapshot is older than
+ * {@code teams.leaderboard.max-staleness}. Rebuilds stream the ranking straight into the
+ * generator, without an entry object per team.
+ */
+@Component
+public class LeaderboardSnapshotCache {
+
+    public enum Format {
+        JSON,
+        CBOR
+    }
+
+    private static final SerializedString TEAM_ID = new SerializedString("teamId");
+    private static final SerializedString STEP_COUNT = new SerializedString("stepCount");
+
+    private final TeamStepService teamStepService;
+    private final Map<Format, ObjectMapper> mappers = new EnumMap<>(Format.class);
+    private final long maxStalenessNanos;
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private final String etagPrefix = Long.toHexString(ThreadLocalRandom.current().nextLong());
+    private volatile LeaderboardSnapshot snapshot;
+    private volatile LeaderboardSnapshot cborSnapshot;
+    private volatile long buildCount;
+    private volatile long buildNanos;
+    private volatile int lastBuildTeams;
+
+    public LeaderboardSnapshotCache(TeamStepService teamStepService, JsonMapper jsonMapper,
+                                    LeaderboardProperties properties) {
+        this(teamStepService, jsonMapper, CBORMapper.builder().build(), properties);
+    }
+
+    @Autowired
+    public LeaderboardSnapshotCache(TeamStepService teamStepService, JsonMapper jsonMapper, CBORMapper cborMapper,
+                                    LeaderboardProperties properties) {
+        this.teamStepService = teamStepService;
+        this.mappers.put(Format.JSON, jsonMapper);
+        this.mappers.put(Format.CBOR, cborMapper);
+        this.maxStalenessNanos = properties.maxStaleness().toNanos();
+    }
+
+    public LeaderboardSnapshot current() {
+        return current(Format.JSON);
+    }
+
+    public LeaderboardSnapshot current(Format format) {
+        LeaderboardSnapshot current = format == Format.JSON ? snapshot : cborSnapshot;
+        if (isFresh(current)) {
+            return current;
+        }
+        rebuildLock.lock();
+        try {
+            current = format == Format.JSON ? snapshot : cborSnapshot;
+            if (isFresh(current)) {
+                return current;
+            }
+            long startedAt = System.nanoTime();
+            long version = teamStepService.getLeaderboardVersion();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(current == null ? 256 : current.body().length + 64);
+            int teams;
+            try (JsonGenerator generator = mappers.get(format).createGenerator(out)) {
+                generator.writeStartArray();
+                teams = teamStepService.visitLeaderboard((teamId, stepCount) -> {
+                    generator.writeStartObject();
+                    generator.writeName(TEAM_ID);
+                    generator.writeString(teamId);
+                    generator.writeName(STEP_COUNT);
+                    generator.writeNumber(stepCount);
+                    generator.writeEndObject();
+                });
+                generator.writeEndArray();
+            }
+            byte[] body = out.toByteArray();
+            long builtAt = System.nanoTime();
+            String etag = "\"" + etagPrefix + "-" + version + (format == Format.JSON ? "" : "-cbor") + "\"";
+            current = new LeaderboardSnapshot(body, etag, version, builtAt);
+            if (format == Format.JSON) {
+                snapshot = current;
+            } else {
+                cborSnapshot = current;
+            }
+            lastBuildTeams = teams;
+            buildNanos += builtAt - startedAt;
+            buildCount++;
+            return current;
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    public long getBuildCount() {
+        return buildCount;
+    }
+
+    public long getTotalBuildNanos() {
+        return buildNanos;
+    }
+
+    public int getLastBuildTeams() {
+        return lastBuildTeams;
+    }
+
+    public int getLastBuildBytes() {
+        LeaderboardSnapshot current = snapshot;
+        return current == null ? 0 : current.body().length;
+    }
+
+    private boolean isFresh(LeaderboardSnapshot current) {
+        return current != null
+                && (current.version() == teamStepService.getLeaderboardVersion()
+                || System.nanoTime() - current.builtAtNanos() < maxStalenessNanos);
+    }
+
+    public record LeaderboardSnapshot(byte[] body, String etag, long version, long builtAtNanos) {
+    }
+}
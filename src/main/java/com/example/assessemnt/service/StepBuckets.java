@@ -0,0 +1,121 @@
+package com.example.assessemnt.service;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-team step counts for the last seven days, one bucket per day in a ring indexed by epoch day.
+ * A writer that finds an older day in its slot resets the slot with a CAS, so old days expire
+ * without any lock and days that saw no steps simply read as zero.
+ */
+abstract class StepBuckets {
+
+    static final int DAYS = 7;
+
+    abstract void add(long epochDay, long steps);
+
+    /**
+     * Sums the buckets for the days {@code fromEpochDay} to {@code toEpochDay}, inclusive.
+     * The range must not span more than seven days.
+     */
+    abstract long sum(long fromEpochDay, long toEpochDay);
+
+    static int slot(long epochDay) {
+        return (int) Math.floorMod(epochDay, (long) DAYS);
+    }
+
+    /**
+     * Packs each bucket into a single {@code long} of a {@code long[]}: the epoch day in the upper
+     * 24 bits and the count in the lower 40, saturating at about 10^12 steps per team and day.
+     */
+    static final class Packed extends StepBuckets {
+
+        private static final VarHandle SLOTS = MethodHandles.arrayElementVarHandle(long[].class);
+        private static final int COUNT_BITS = 40;
+        private static final long MAX_COUNT = (1L << COUNT_BITS) - 1;
+
+        private final long[] slots = new long[DAYS];
+
+        @Override
+        void add(long epochDay, long steps) {
+            int slot = slot(epochDay);
+            while (true) {
+                long current = (long) SLOTS.getVolatile(slots, slot);
+                long day = current >>> COUNT_BITS;
+                if (day > epochDay) {
+                    epochDay = day;
+                }
+                long count = day == epochDay ? current & MAX_COUNT : 0;
+                long next = (epochDay << COUNT_BITS) | Math.min(MAX_COUNT, count + steps);
+                if (SLOTS.compareAndSet(slots, slot, current, next)) {
+                    return;
+                }
+            }
+        }
+
+        @Override
+        long sum(long fromEpochDay, long toEpochDay) {
+            long total = 0;
+            for (int i = 0; i < DAYS; i++) {
+                long bucket = (long) SLOTS.getVolatile(slots, i);
+                long day = bucket >>> COUNT_BITS;
+                if (day >= fromEpochDay && day <= toEpochDay) {
+                    total += bucket & MAX_COUNT;
+                }
+            }
+            return total;
+        }
+    }
+
+    /**
+     * One {@link LongAdder} per day, so concurrent writers to a hot team do not contend on a single
+     * bucket. Used with striped counters.
+     */
+    static final class Striped extends StepBuckets {
+
+        private final AtomicReferenceArray<Bucket> buckets = new AtomicReferenceArray<>(DAYS);
+
+        @Override
+        void add(long epochDay, long steps) {
+            bucket(epochDay).steps.add(steps);
+        }
+
+        @Override
+        long sum(long fromEpochDay, long toEpochDay) {
+            long total = 0;
+            for (int i = 0; i < DAYS; i++) {
+                Bucket bucket = buckets.get(i);
+                if (bucket != null && bucket.epochDay >= fromEpochDay && bucket.epochDay <= toEpochDay) {
+                    total += bucket.steps.sum();
+                }
+            }
+            return total;
+        }
+
+        private Bucket bucket(long epochDay) {
+            int slot = slot(epochDay);
+            while (true) {
+                Bucket current = buckets.get(slot);
+                if (current != null && current.epochDay >= epochDay) {
+                    return current;
+                }
+                Bucket next = new Bucket(epochDay);
+                if (buckets.compareAndSet(slot, current, next)) {
+                    return next;
+                }
+            }
+        }
+    }
+
+    private static final class Bucket {
+
+        private final long epochDay;
+        private final LongAdder steps = new LongAdder();
+
+        private Bucket(long epochDay) {
+            this.epochDay = epochDay;
+        }
+    }
+}
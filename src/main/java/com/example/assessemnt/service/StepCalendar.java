@@ -0,0 +1,53 @@
+package com.example.assessemnt.service;
+
+import java.time.Clock;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * Maps the clock to epoch days for bucketing. The current day is cached together with the instant
+ * it ends, so the write path only reads the clock instead of resolving a date every time.
+ */
+final class StepCalendar {
+
+    private final Clock clock;
+    private final DayOfWeek firstDayOfWeek;
+    private volatile Day current = new Day(0, 0, 0);
+
+    StepCalendar(Clock clock, DayOfWeek firstDayOfWeek) {
+        this.clock = clock;
+        this.firstDayOfWeek = firstDayOfWeek;
+    }
+
+    long millis() {
+        return clock.millis();
+    }
+
+    long today() {
+        long now = clock.millis();
+        Day day = current;
+        if (now >= day.startsAtMillis() && now < day.endsAtMillis()) {
+            return day.epochDay();
+        }
+        LocalDate date = LocalDate.ofInstant(Instant.ofEpochMilli(now), clock.getZone());
+        long startsAt = date.atStartOfDay(clock.getZone()).toInstant().toEpochMilli();
+        long endsAt = date.plusDays(1).atStartOfDay(clock.getZone()).toInstant().toEpochMilli();
+        current = new Day(date.toEpochDay(), startsAt, endsAt);
+        return date.toEpochDay();
+    }
+
+    /**
+     * First epoch day covered by the window that contains {@code today}.
+     */
+    long firstDay(StepWindow window, long today) {
+        if (window != StepWindow.WEEK) {
+            return today;
+        }
+        int dayOfWeek = LocalDate.ofEpochDay(today).getDayOfWeek().getValue();
+        return today - Math.floorMod(dayOfWeek - firstDayOfWeek.getValue(), 7);
+    }
+
+    private record Day(long epochDay, long startsAtMillis, long endsAtMillis) {
+    }
+}
@@ -0,0 +1,200 @@
+package com.example.assessemnt.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Number of teams per step count range, for estimating the rank of any team without ordering them.
+ * Ranges grow geometrically: every count in a range is less than {@code 1 + relativeAccuracy}
+ * times its lower bound, and small counts get a range each. A team's rank is then known up to the
+ * other teams in its range, all of which are within the relative accuracy of its own count.
+ * <p>
+ * Each counter records the range it is counted in, so an update only touches the sketch when the
+ * team crosses into another range; within a range it costs one comparison. A move is claimed with
+ * a CAS on the counter so that concurrent updates count the team once. Range counts are allocated
+ * in chunks of {@value #CHUNK_SIZE} ranges on first use, so a sketch only pays for the ranges its
+ * counts reach, and each chunk's total is kept too, so counting the teams above a range sums
+ * whole chunks.
+ */
+final class StepCountSketch {
+
+    private static final int UNCOUNTED = 0;
+    private static final int REMOVED = -1;
+    private static final int CHUNK_BITS = 6;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+
+    private final long[] lowerBounds;
+    private final AtomicReferenceArray<AtomicLongArray> chunks;
+    private final AtomicLongArray chunkTeams;
+    private final AtomicInteger highest = new AtomicInteger();
+    private final LongAdder size = new LongAdder();
+
+    StepCountSketch(long[] lowerBounds) {
+        this.lowerBounds = lowerBounds;
+        this.chunks = new AtomicReferenceArray<>((lowerBounds.length + CHUNK_SIZE - 1) >>> CHUNK_BITS);
+        this.chunkTeams = new AtomicLongArray(chunks.length());
+    }
+
+    /**
+     * Lower bounds of the ranges for the given accuracy, starting with a range for zero. Sketches
+     * with the same accuracy can share them.
+     */
+    static long[] lowerBounds(double relativeAccuracy) {
+        if (!(relativeAccuracy > 0 && relativeAccuracy < 1)) {
+            throw new IllegalArgumentException("Relative accuracy must be between 0 and 1");
+        }
+        List<Long> bounds = new ArrayList<>();
+        bounds.add(0L);
+        long lower = 1;
+        while (true) {
+            bounds.add(lower);
+            double next = Math.ceil(lower * (1 + relativeAccuracy));
+            if (next >= Long.MAX_VALUE) {
+                break;
+            }
+            lower = Math.max(lower + 1, (long) next);
+        }
+        return bounds.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    /**
+     * Counts the team in the range of its current step count, or stops counting it once removed.
+     * Only ever moves the team up, so concurrent callers that read an older count cannot undo a
+     * newer one; for counters that only grow.
+     */
+    void record(TeamCounter counter) {
+        boolean removed = counter.isRemoved();
+        record(counter, removed ? 0 : counter.get(), removed, true);
+    }
+
+    /**
+     * Counts the team in the range of {@code stepCount}, up or down, or stops counting it once
+     * removed. Callers must not move the same counter concurrently.
+     */
+    void move(TeamCounter counter, long stepCount) {
+        record(counter, stepCount, counter.isRemoved(), false);
+    }
+
+    private void record(TeamCounter counter, long stepCount, boolean removed, boolean upOnly) {
+        while (true) {
+            int slot = counter.getSketchSlot();
+            if (slot == REMOVED) {
+                return;
+            }
+            int target;
+            if (removed) {
+                target = REMOVED;
+            } else {
+                if (slot != UNCOUNTED && stepCount >= lowerBounds[slot - 1]
+                        && (slot == lowerBounds.length || stepCount < lowerBounds[slot])) {
+                    return;
+                }
+                target = rangeOf(stepCount) + 1;
+                if (upOnly && target <= slot) {
+                    return;
+                }
+            }
+            if (counter.compareAndSetSketchSlot(slot, target)) {
+                if (slot != UNCOUNTED) {
+                    chunk(slot - 1).decrementAndGet((slot - 1) & (CHUNK_SIZE - 1));
+                    chunkTeams.decrementAndGet((slot - 1) >>> CHUNK_BITS);
+                }
+                if (target != REMOVED) {
+                    chunk(target - 1).incrementAndGet((target - 1) & (CHUNK_SIZE - 1));
+                    chunkTeams.incrementAndGet((target - 1) >>> CHUNK_BITS);
+                    if (target - 1 > highest.get()) {
+                        highest.accumulateAndGet(target - 1, Math::max);
+                    }
+                }
+                if (slot == UNCOUNTED && target != REMOVED) {
+                    size.increment();
+                } else if (slot != UNCOUNTED && target == REMOVED) {
+                    size.decrement();
+                }
+                return;
+            }
+        }
+    }
+
+    int rangeOf(long stepCount) {
+        int low = 0;
+        int high = lowerBounds.length - 1;
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (lowerBounds[middle] <= stepCount) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Highest count in the range.
+     */
+    long upperBound(int range) {
+        return range + 1 < lowerBounds.length ? lowerBounds[range + 1] - 1 : Long.MAX_VALUE;
+    }
+
+    /**
+     * Teams counted in ranges above the given one.
+     */
+    long above(int range) {
+        int chunk = range >>> CHUNK_BITS;
+        long above = 0;
+        for (int i = highest.get() >>> CHUNK_BITS; i > chunk; i--) {
+            above += chunkTeams.get(i);
+        }
+        for (int i = range + 1; i < (chunk + 1) << CHUNK_BITS; i++) {
+            above += teamsIn(i);
+        }
+        return above;
+    }
+
+    /**
+     * The range holding the team {@code position} places from the top (0 for the first), or range
+     * 0 when there are not that many teams.
+     */
+    int rangeAt(long position) {
+        int chunk = highest.get() >>> CHUNK_BITS;
+        long above = 0;
+        while (chunk > 0 && above + chunkTeams.get(chunk) <= position) {
+            above += chunkTeams.get(chunk);
+            chunk--;
+        }
+        int range = Math.min(highest.get(), ((chunk + 1) << CHUNK_BITS) - 1);
+        while (range > 0 && above + teamsIn(range) <= position) {
+            above += teamsIn(range);
+            range--;
+        }
+        return range;
+    }
+
+    long teamsIn(int range) {
+        AtomicLongArray chunk = range < lowerBounds.length ? chunks.get(range >>> CHUNK_BITS) : null;
+        return chunk == null ? 0 : chunk.get(range & (CHUNK_SIZE - 1));
+    }
+
+    long size() {
+        return size.sum();
+    }
+
+    int ranges() {
+        return lowerBounds.length;
+    }
+
+    private AtomicLongArray chunk(int range) {
+        int index = range >>> CHUNK_BITS;
+        AtomicLongArray chunk = chunks.get(index);
+        if (chunk == null) {
+            chunks.compareAndSet(index, null, new AtomicLongArray(CHUNK_SIZE));
+            chunk = chunks.get(index);
+        }
+        return chunk;
+    }
+}
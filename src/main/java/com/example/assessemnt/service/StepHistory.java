@@ -0,0 +1,304 @@
+package com.example.assessemnt.service;
+
+import java.io.ByteArrayOutputStream;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Step history of one team: steps per {@code resolution} bucket, aligned to the epoch. The bucket
+ * being written is a single packed {@code long} (bucket index in the upper 28 bits, count in the
+ * lower 36) that writers update with a CAS, so adding steps costs the same as the daily buckets.
+ * Only a writer that moves on to a new bucket takes the lock and appends the finished one to the
+ * sealed history.
+ * <p>
+ * Sealed buckets are stored in chunks of up to {@value #CHUNK_POINTS} points, each point encoded as
+ * varints of the distance to the previous bucket and the step count. A chunk records its first
+ * and last bucket, so a range query only decodes the chunks it overlaps. Chunks older than the raw
+ * retention are re-encoded at the downsampled resolution, and chunks older than the retention are
+ * dropped, which caps the size of every team's history. The sealed history is only allocated once a
+ * bucket is finished, so a team that was active in a single bucket costs one small object.
+ */
+final class StepHistory {
+
+    static final int CHUNK_POINTS = 64;
+
+    private static final VarHandle CURRENT;
+    private static final int COUNT_BITS = 36;
+    private static final long MAX_COUNT = (1L << COUNT_BITS) - 1;
+
+    static {
+        try {
+            CURRENT = MethodHandles.lookup().findVarHandle(StepHistory.class, "current", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final Settings settings;
+    private volatile long current;
+    private List<Chunk> chunks;
+    private byte[] open;
+    private int openLength;
+    private int openPoints;
+    private long openFirst;
+    private long openLast;
+    private long lastAppended;
+
+    StepHistory(Settings settings) {
+        this.settings = settings;
+    }
+
+    void add(long nowMillis, long steps) {
+        if (steps <= 0) {
+            return;
+        }
+        long bucket = nowMillis / settings.resolutionMillis();
+        long packed = (long) CURRENT.getVolatile(this);
+        if (packed >>> COUNT_BITS == bucket && (packed & MAX_COUNT) <= MAX_COUNT - steps
+                && CURRENT.compareAndSet(this, packed, packed + steps)) {
+            return;
+        }
+        roll(bucket, steps);
+    }
+
+    /**
+     * Passes every non-empty bucket that starts in {@code [fromMillis, toMillis)} to the visitor,
+     * oldest first. Buckets older than the raw retention are downsampled and wider.
+     */
+    synchronized void forEach(long fromMillis, long toMillis, BucketVisitor visitor) {
+        long resolution = settings.resolutionMillis();
+        long fromBucket = Math.floorDiv(fromMillis, resolution);
+        long toBucket = Math.floorDiv(toMillis - 1, resolution);
+        if (chunks != null) {
+            for (Chunk chunk : chunks) {
+                if (chunk.last >= fromBucket && chunk.first <= toBucket) {
+                    chunk.forEach(fromBucket, toBucket, resolution, visitor);
+                }
+            }
+        }
+        if (openPoints > 0 && openLast >= fromBucket && openFirst <= toBucket) {
+            new Chunk(openFirst, openLast, 1, open, openLength).forEach(fromBucket, toBucket, resolution, visitor);
+        }
+        long packed = current;
+        long bucket = packed >>> COUNT_BITS;
+        if ((packed & MAX_COUNT) > 0 && bucket >= fromBucket && bucket <= toBucket) {
+            visitor.visit(bucket * resolution, resolution, packed & MAX_COUNT);
+        }
+    }
+
+    /**
+     * Bytes held by the encoded history, excluding object headers.
+     */
+    synchronized long encodedBytes() {
+        long bytes = open == null ? 0 : open.length;
+        if (chunks != null) {
+            for (Chunk chunk : chunks) {
+                bytes += chunk.data.length;
+            }
+        }
+        return bytes;
+    }
+
+    private synchronized void roll(long bucket, long steps) {
+        while (true) {
+            long packed = (long) CURRENT.getVolatile(this);
+            long openBucket = packed >>> COUNT_BITS;
+            long count = packed & MAX_COUNT;
+            if (openBucket > bucket) {
+                bucket = openBucket;
+            }
+            if (openBucket == bucket && count <= MAX_COUNT - steps) {
+                if (CURRENT.compareAndSet(this, packed, packed + steps)) {
+                    return;
+                }
+                continue;
+            }
+            long next = steps <= MAX_COUNT ? (bucket << COUNT_BITS) | steps : 0;
+            if (!CURRENT.compareAndSet(this, packed, next)) {
+                continue;
+            }
+            if (count > 0) {
+                append(openBucket, count);
+            }
+            if (next == 0) {
+                append(bucket, steps);
+            }
+            return;
+        }
+    }
+
+    private void append(long bucket, long steps) {
+        bucket = Math.max(bucket, lastAppended);
+        lastAppended = bucket;
+        if (openPoints == CHUNK_POINTS) {
+            if (chunks == null) {
+                chunks = new ArrayList<>();
+            }
+            chunks.add(new Chunk(openFirst, openLast, 1, Arrays.copyOf(open, openLength), openLength));
+            openLength = 0;
+            openPoints = 0;
+            compact(bucket);
+        }
+        if (openPoints == 0) {
+            openFirst = bucket;
+            openLast = bucket;
+        }
+        if (open == null) {
+            open = new byte[16];
+        } else if (open.length - openLength < 20) {
+            open = Arrays.copyOf(open, open.length * 2);
+        }
+        openLength = writeVarLong(open, openLength, bucket - openLast);
+        openLength = writeVarLong(open, openLength, steps);
+        openLast = bucket;
+        openPoints++;
+    }
+
+    /**
+     * Drops points older than the retention and downsamples raw chunks that ended before the raw
+     * retention. Downsampled points are merged into the last downsampled chunk while it has room.
+     */
+    private void compact(long nowBucket) {
+        long dropBefore = nowBucket - settings.retentionBuckets();
+        long downsampleBefore = nowBucket - settings.rawBuckets();
+        int factor = settings.downsampleFactor();
+        while (!chunks.isEmpty() && chunks.getFirst().last < dropBefore) {
+            chunks.removeFirst();
+        }
+        if (!chunks.isEmpty() && chunks.getFirst().first < dropBefore) {
+            Chunk oldest = chunks.removeFirst();
+            List<long[]> points = new ArrayList<>();
+            oldest.collect(points, 1);
+            points.removeIf(point -> point[0] < dropBefore);
+            chunks.addAll(0, encode(points, oldest.step));
+        }
+        int coarse = 0;
+        while (coarse < chunks.size() && chunks.get(coarse).step != 1) {
+            coarse++;
+        }
+        while (coarse < chunks.size() && chunks.get(coarse).last < downsampleBefore) {
+            List<long[]> points = new ArrayList<>();
+            if (coarse > 0 && chunks.get(coarse - 1).points() < CHUNK_POINTS) {
+                chunks.remove(--coarse).collect(points, 1);
+            }
+            chunks.remove(coarse).collect(points, factor);
+            List<Chunk> encoded = encode(points, factor);
+            chunks.addAll(coarse, encoded);
+            coarse += encoded.size();
+        }
+    }
+
+    /**
+     * Encodes points (bucket, steps), already aligned to {@code step}, merging equal buckets.
+     */
+    private static List<Chunk> encode(List<long[]> points, int step) {
+        List<Chunk> encoded = new ArrayList<>();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] scratch = new byte[20];
+        long first = 0;
+        long last = 0;
+        int written = 0;
+        for (int i = 0; i < points.size(); i++) {
+            long bucket = points.get(i)[0];
+            long steps = points.get(i)[1];
+            while (i + 1 < points.size() && points.get(i + 1)[0] == bucket) {
+                steps += points.get(++i)[1];
+            }
+            if (written == CHUNK_POINTS) {
+                encoded.add(new Chunk(first, last, step, out.toByteArray(), out.size()));
+                out.reset();
+                written = 0;
+            }
+            if (written == 0) {
+                first = bucket;
+                last = bucket;
+            }
+            int length = writeVarLong(scratch, 0, (bucket - last) / step);
+            length = writeVarLong(scratch, length, steps);
+            out.write(scratch, 0, length);
+            last = bucket;
+            written++;
+        }
+        if (written > 0) {
+            encoded.add(new Chunk(first, last, step, out.toByteArray(), out.size()));
+        }
+        return encoded;
+    }
+
+    private static int writeVarLong(byte[] buffer, int position, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[position++] = (byte) value;
+        return position;
+    }
+
+    @FunctionalInterface
+    interface BucketVisitor {
+
+        void visit(long startMillis, long widthMillis, long steps);
+    }
+
+    /**
+     * Bucket width, and how far back each resolution is kept, in units of the raw resolution.
+     */
+    record Settings(long resolutionMillis, long rawBuckets, int downsampleFactor, long retentionBuckets) {
+    }
+
+    /**
+     * A sealed run of points. Buckets are counted in raw resolution units; {@code step} is the width
+     * of a point in those units (1, or the downsample factor) and the unit of the encoded distances.
+     */
+    private record Chunk(long first, long last, int step, byte[] data, int length) {
+
+        int points() {
+            int points = 0;
+            for (int i = 0; i < length; i++) {
+                if ((data[i] & 0x80) == 0) {
+                    points++;
+                }
+            }
+            return points / 2;
+        }
+
+        void forEach(long fromBucket, long toBucket, long resolution, BucketVisitor visitor) {
+            long[] position = {0};
+            long bucket = first;
+            while (position[0] < length) {
+                bucket += readVarLong(position) * step;
+                long steps = readVarLong(position);
+                if (bucket > toBucket) {
+                    return;
+                }
+                if (bucket >= fromBucket) {
+                    visitor.visit(bucket * resolution, step * resolution, steps);
+                }
+            }
+        }
+
+        void collect(List<long[]> points, int factor) {
+            long[] position = {0};
+            long bucket = first;
+            while (position[0] < length) {
+                bucket += readVarLong(position) * step;
+                long steps = readVarLong(position);
+                points.add(new long[] {bucket - Math.floorMod(bucket, factor), steps});
+            }
+        }
+
+        private long readVarLong(long[] position) {
+            long value = 0;
+            for (int shift = 0; ; shift += 7) {
+                byte b = data[(int) position[0]++];
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,302 @@
+package com.example.assessemnt.service;
+
+import com.example.assessemnt.config.IngestProperties;
+import com.example.assessemnt.exception.TooManyRequestsException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Write-behind ingestion for step submissions. Request threads validate the submission and put it
+ * into a bounded ring buffer together with the team's generation; a single applier thread drains
+ * the buffer, sums the steps per team and generation and applies each total with
+ * {@link TeamStepService#addStepsCoalesced(String, long, long)}, so a hot team is touched once per
+ * batch instead of once per request. Submissions for a generation that was removed are dropped,
+ * even if the team has been created again since. A team whose total fails to apply
+ * is logged and its submissions are counted as failed; the other teams in the batch still apply.
+ * <p>
+ * The buffer is a multi-producer, single-consumer array queue: producers claim a slot by CAS on
+ * the tail and publish it by setting the slot's sequence number, so neither side takes a lock.
+ * When the buffer is full submissions are rejected with {@link TooManyRequestsException}.
+ */
+@Component
+@ConditionalOnProperty(prefix = "teams.ingest", name = "enabled", havingValue = "true")
+public class StepIngestQueue {
+
+    private static final Logger log = LoggerFactory.getLogger(StepIngestQueue.class);
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final VarHandle TAIL;
+
+    static {
+        try {
+            TAIL = MethodHandles.lookup().findVarHandle(StepIngestQueue.class, "tail", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final TeamStepService teamStepService;
+    private final int mask;
+    private final int maxBatch;
+    private final Duration retryAfter;
+    private final AtomicLongArray sequences;
+    private final String[] teamIds;
+    private final long[] generations;
+    private final long[] steps;
+    private final long[] enqueuedAt;
+    private final LongAdder rejected = new LongAdder();
+    private volatile long tail;
+    private volatile long head;
+    private volatile long appliedPosition;
+    private volatile long appliedCount;
+    private volatile long droppedCount;
+    private volatile long failedCount;
+    private volatile long batchCount;
+    private volatile boolean closed;
+    private volatile boolean applierIdle;
+    private Thread applier;
+
+    public StepIngestQueue(TeamStepService teamStepService, IngestProperties properties) {
+        if (properties.capacity() < 2 || properties.capacity() > 1 << 30) {
+            throw new IllegalArgumentException("Ingest capacity must be between 2 and 2^30");
+        }
+        if (properties.maxBatch() < 1) {
+            throw new IllegalArgumentException("Ingest batch size must be positive");
+        }
+        int capacity = Integer.highestOneBit(properties.capacity() - 1) << 1;
+        this.teamStepService = teamStepService;
+        this.mask = capacity - 1;
+        this.maxBatch = properties.maxBatch();
+        this.retryAfter = properties.retryAfter();
+        this.sequences = new AtomicLongArray(capacity);
+        this.teamIds = new String[capacity];
+        this.generations = new long[capacity];
+        this.steps = new long[capacity];
+        this.enqueuedAt = new long[capacity];
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        applier = new Thread(this::applyLoop, "step-applier");
+        applier.setDaemon(true);
+        applier.start();
+    }
+
+    /**
+     * Stops accepting work and applies everything already queued.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        closed = true;
+        if (applier != null) {
+            LockSupport.unpark(applier);
+            applier.join();
+        }
+    }
+
+    /**
+     * Validates the submission against the current state and queues it. Throws the exceptions
+     * {@link TeamStepService#addSteps(String, Long)} would for an invalid submission, and
+     * {@link TooManyRequestsException} when the queue is full.
+     */
+    public void submit(String teamId, Long steps) {
+        submit(teamId, steps, null);
+    }
+
+    /**
+     * Like {@link #submit(String, Long)}, but returns false without queueing anything if the
+     * idempotency key was already used for the team within the dedup window.
+     */
+    public boolean submit(String teamId, Long steps, String idempotencyKey) {
+        if (steps == null || steps < 0) {
+            throw new IllegalArgumentException("Steps must be non-negative");
+        }
+        long generation = teamStepService.requireTeam(teamId);
+        if (idempotencyKey != null && !teamStepService.claimIdempotencyKey(teamId, idempotencyKey)) {
+            return false;
+        }
+        if (!offer(teamId, generation, steps)) {
+            if (idempotencyKey != null) {
+                teamStepService.releaseIdempotencyKey(teamId, idempotencyKey);
+            }
+            rejected.increment();
+            throw new TooManyRequestsException("Step queue is full", retryAfter);
+        }
+        return true;
+    }
+
+    boolean offer(String teamId, long generation, long count) {
+        if (closed) {
+            return false;
+        }
+        long position = tail;
+        int index;
+        while (true) {
+            index = (int) position & mask;
+            long difference = sequences.getAcquire(index) - position;
+            if (difference == 0) {
+                if (TAIL.compareAndSet(this, position, position + 1)) {
+                    break;
+                }
+                position = tail;
+            } else if (difference < 0) {
+                return false;
+            } else {
+                position = tail;
+            }
+        }
+        teamIds[index] = teamId;
+        generations[index] = generation;
+        steps[index] = count;
+        enqueuedAt[index] = System.nanoTime();
+        sequences.setRelease(index, position + 1);
+        if (applierIdle) {
+            LockSupport.unpark(applier);
+        }
+        return true;
+    }
+
+    /**
+     * Waits until everything queued before the call has been applied.
+     */
+    public boolean awaitApplied(Duration timeout) {
+        long target = tail;
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (appliedPosition < target) {
+            if (System.nanoTime() - deadline > 0) {
+                return false;
+            }
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(100));
+        }
+        return true;
+    }
+
+    public int getCapacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Submissions queued but not yet taken by the applier.
+     */
+    public long getDepth() {
+        return Math.max(0, tail - head);
+    }
+
+    /**
+     * Age of the oldest queued submission, i.e. how far applied state trails the accepted one.
+     */
+    public long getLagNanos() {
+        long position = head;
+        int index = (int) position & mask;
+        if (sequences.getAcquire(index) != position + 1) {
+            return 0;
+        }
+        return Math.max(0, System.nanoTime() - enqueuedAt[index]);
+    }
+
+    public long getAcceptedCount() {
+        return tail;
+    }
+
+    public long getAppliedCount() {
+        return appliedCount;
+    }
+
+    public long getDroppedCount() {
+        return droppedCount;
+    }
+
+    public long getFailedCount() {
+        return failedCount;
+    }
+
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    public long getBatchCount() {
+        return batchCount;
+    }
+
+    private void applyLoop() {
+        Map<Target, long[]> stepsByTeam = new HashMap<>();
+        while (true) {
+            int taken = drainTo(stepsByTeam);
+            if (taken == 0) {
+                if (closed && tail == head) {
+                    return;
+                }
+                applierIdle = true;
+                if (tail == head && !closed) {
+                    LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                }
+                applierIdle = false;
+                continue;
+            }
+            stepsByTeam.forEach(this::apply);
+            stepsByTeam.clear();
+            batchCount++;
+            appliedPosition = head;
+        }
+    }
+
+    /**
+     * Applies one team's total; {@code pending} holds the summed steps and the submission count.
+     */
+    private void apply(Target target, long[] pending) {
+        String teamId = target.teamId();
+        try {
+            if (teamStepService.addStepsCoalesced(teamId, target.generation(), pending[0])) {
+                appliedCount += pending[1];
+            } else {
+                droppedCount += pending[1];
+            }
+        } catch (RuntimeException e) {
+            failedCount += pending[1];
+            log.error("Failed to apply {} queued step submissions for team {}", pending[1], teamId, e);
+        }
+    }
+
+    private int drainTo(Map<Target, long[]> stepsByTeam) {
+        long position = head;
+        int taken = 0;
+        while (taken < maxBatch) {
+            int index = (int) position & mask;
+            if (sequences.getAcquire(index) != position + 1) {
+                break;
+            }
+            long[] pending = stepsByTeam.computeIfAbsent(new Target(teamIds[index], generations[index]),
+                    target -> new long[2]);
+            pending[0] += steps[index];
+            pending[1]++;
+            teamIds[index] = null;
+            sequences.setRelease(index, position + mask + 1);
+            position++;
+            taken++;
+        }
+        head = position;
+        return taken;
+    }
+
+    /**
+     * The generation of a team that queued submissions were accepted for.
+     */
+    private record Target(String teamId, long generation) {
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.assessemnt.service;
+
+import java.util.Locale;
+
+public enum StepWindow {
+    ALL,
+    DAY,
+    WEEK;
+
+    public static StepWindow from(String value) {
+        if (value == null || value.isBlank()) {
+            return ALL;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown window: " + value);
+        }
+    }
+}
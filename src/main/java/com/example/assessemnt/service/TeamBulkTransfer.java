@@ -0,0 +1,127 @@
+package com.example.assessemnt.service;
+
+import com.example.assessemnt.dto.ImportError;
+import com.example.assessemnt.dto.TeamEntry;
+import com.example.assessemnt.dto.TeamImportResult;
+import com.example.assessemnt.exception.QuotaExceededException;
+import org.springframework.stereotype.Component;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.ObjectReader;
+import tools.jackson.databind.ObjectWriter;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Moves teams in and out as NDJSON, one {@link TeamEntry} per line. Both directions work a line
+ * at a time: export walks the teams without copying them and import applies each line as it is
+ * read, so memory use does not depend on the number of teams.
+ */
+@Component
+public class TeamBulkTransfer {
+
+    static final int MAX_REPORTED_ERRORS = 100;
+
+    private static final int BUFFER_BYTES = 64 * 1024;
+
+    private final TeamStepService teamStepService;
+    private final ObjectReader reader;
+    private final ObjectWriter writer;
+
+    public TeamBulkTransfer(TeamStepService teamStepService, JsonMapper jsonMapper) {
+        this.teamStepService = teamStepService;
+        this.reader = jsonMapper.readerFor(TeamEntry.class);
+        this.writer = jsonMapper.writerFor(TeamEntry.class);
+    }
+
+    public long exportTeams(OutputStream out) throws IOException {
+        return exportTeams(teamStepService, out);
+    }
+
+    /**
+     * Writes every team of the namespace, but not of its tenants, with its lifetime total,
+     * department and company, in no particular order. Teams changed while the export runs may
+     * appear with their old or new total.
+     */
+    public long exportTeams(TeamStepService namespace, OutputStream out) throws IOException {
+        BufferedOutputStream buffered = new BufferedOutputStream(out, BUFFER_BYTES);
+        long[] exported = new long[1];
+        try {
+            namespace.forEachTeam(team -> {
+                if (!Objects.equals(team.tenant(), namespace.getTenantId())) {
+                    return;
+                }
+                try {
+                    buffered.write(writer.writeValueAsBytes(
+                            new TeamEntry(team.teamId(), team.stepCount(), team.department(), team.company())));
+                    buffered.write('\n');
+                    exported[0]++;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        buffered.flush();
+        return exported[0];
+    }
+
+    public TeamImportResult importTeams(InputStream in) throws IOException {
+        return importTeams(teamStepService, in);
+    }
+
+    /**
+     * Creates a team in the namespace for every line, with the line's {@code stepCount} as its
+     * starting total. Teams that already exist are left unchanged, so an interrupted import can
+     * simply be repeated. Blank lines are skipped; invalid lines and lines over a team quota are
+     * counted and the first {@value #MAX_REPORTED_ERRORS} are reported with their line number.
+     */
+    public TeamImportResult importTeams(TeamStepService namespace, InputStream in) throws IOException {
+        BufferedReader lines = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), BUFFER_BYTES);
+        long lineNumber = 0;
+        long created = 0;
+        long existing = 0;
+        long failed = 0;
+        List<ImportError> errors = new ArrayList<>();
+        String line;
+        while ((line = lines.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                TeamEntry entry = reader.readValue(line);
+                if (entry == null) {
+                    throw new IllegalArgumentException("Expected a team object");
+                }
+                long stepCount = entry.getStepCount() == null ? 0 : entry.getStepCount();
+                if (namespace.importTeam(entry.getTeamId(), entry.getDepartment(), entry.getCompany(),
+                        stepCount)) {
+                    created++;
+                } else {
+                    existing++;
+                }
+            } catch (JacksonException | IllegalArgumentException | QuotaExceededException e) {
+                failed++;
+                if (errors.size() < MAX_REPORTED_ERRORS) {
+                    String message = e instanceof JacksonException jackson
+                            ? jackson.getOriginalMessage()
+                            : e.getMessage();
+                    errors.add(new ImportError(lineNumber, message));
+                }
+            }
+        }
+        return new TeamImportResult(created, existing, failed, errors);
+    }
+}
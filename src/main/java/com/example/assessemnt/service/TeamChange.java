@@ -0,0 +1,61 @@
+package com.example.assessemnt.service;
+
+import java.util.Objects;
+
+/**
+ * A mutation of one team. {@code generation} identifies one lifetime of a team ID (it changes when
+ * a removed team is created again) and {@code stepCount} is the team's total after the change, so
+ * applying the same change twice, or out of order within a generation, gives the same result.
+ * {@code department} and {@code company} are set on changes that may create the team, and are
+ * {@code null} when the team has no such parent. {@code tenant} names the tenant namespace the team
+ * belongs to, and is {@code null} for the default namespace.
+ */
+public record TeamChange(Type type, String teamId, long generation, long steps, long stepCount,
+                         String department, String company, String tenant) {
+
+    public enum Type {
+        CREATED,
+        REMOVED,
+        STEPS_ADDED
+    }
+
+    public TeamChange(Type type, String teamId, long generation, long steps, long stepCount) {
+        this(type, teamId, generation, steps, stepCount, null, null);
+    }
+
+    public TeamChange(Type type, String teamId, long generation, long steps, long stepCount,
+                      String department, String company) {
+        this(type, teamId, generation, steps, stepCount, department, company, null);
+    }
+
+    public static TeamChange created(String teamId, long generation) {
+        return created(teamId, generation, null, null);
+    }
+
+    public static TeamChange created(String teamId, long generation, String department, String company) {
+        return new TeamChange(Type.CREATED, teamId, generation, 0, 0, department, company);
+    }
+
+    public static TeamChange removed(String teamId, long generation, long stepCount) {
+        return new TeamChange(Type.REMOVED, teamId, generation, 0, stepCount);
+    }
+
+    public static TeamChange stepsAdded(String teamId, long generation, long steps, long stepCount) {
+        return new TeamChange(Type.STEPS_ADDED, teamId, generation, steps, stepCount);
+    }
+
+    /**
+     * The full state of a team, as used when copying every team (snapshots).
+     */
+    public static TeamChange state(String teamId, long generation, long stepCount, String department,
+                                   String company) {
+        return new TeamChange(Type.STEPS_ADDED, teamId, generation, 0, stepCount, department, company);
+    }
+
+    public TeamChange withTenant(String tenant) {
+        if (Objects.equals(this.tenant, tenant)) {
+            return this;
+        }
+        return new TeamChange(type, teamId, generation, steps, stepCount, department, company, tenant);
+    }
+}
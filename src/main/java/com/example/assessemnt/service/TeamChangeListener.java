@@ -0,0 +1,7 @@
+package com.example.assessemnt.service;
+
+@FunctionalInterface
+public interface TeamChangeListener {
+
+    void onChange(TeamChange change);
+}
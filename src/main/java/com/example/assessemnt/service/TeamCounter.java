@@ -0,0 +1,232 @@
+package com.example.assessemnt.service;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-team state. The reindex counter, the dirty flag and, in atomic mode, the count are plain
+ * fields updated through {@link VarHandle}s rather than separate atomic objects, which keeps the
+ * per-team footprint down at millions of teams.
+ */
+abstract class TeamCounter {
+
+    private static final VarHandle PENDING_REINDEX;
+    private static final VarHandle DIRTY;
+    private static final VarHandle HISTORY;
+    private static final VarHandle SKETCH_SLOT;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            PENDING_REINDEX = lookup.findVarHandle(TeamCounter.class, "pendingReindex", int.class);
+            DIRTY = lookup.findVarHandle(TeamCounter.class, "dirty", boolean.class);
+            HISTORY = lookup.findVarHandle(TeamCounter.class, "history", StepHistory.class);
+            SKETCH_SLOT = lookup.findVarHandle(TeamCounter.class, "sketchSlot", int.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final String teamId;
+    private final long generation;
+    private final TeamGroup group;
+    private final StepBuckets buckets;
+    private volatile int pendingReindex;
+    private volatile boolean dirty;
+    private volatile boolean removed;
+    private LeaderboardIndex.Node indexedNode;
+    private volatile StepHistory history;
+    private volatile int sketchSlot;
+
+    TeamCounter(String teamId, long generation, TeamGroup group, StepBuckets buckets) {
+        this.teamId = teamId;
+        this.generation = generation;
+        this.group = group;
+        this.buckets = buckets;
+    }
+
+    static TeamCounter create(String teamId, long generation, CounterMode mode) {
+        return create(teamId, generation, mode, null);
+    }
+
+    static TeamCounter create(String teamId, long generation, CounterMode mode, TeamGroup group) {
+        return mode == CounterMode.STRIPED
+                ? new Striped(teamId, generation, group)
+                : new Atomic(teamId, generation, group);
+    }
+
+    String getTeamId() {
+        return teamId;
+    }
+
+    long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * The group the counter rolls up into, or {@code null} for a team without a parent or a company.
+     */
+    TeamGroup getGroup() {
+        return group;
+    }
+
+    abstract long get();
+
+    abstract void add(long steps);
+
+    /**
+     * Takes the count, leaving zero. Each concurrent {@link #add} is either part of the returned
+     * total or left in the counter for a later call, never both or neither.
+     */
+    abstract long drain();
+
+    /**
+     * Raises the count to {@code stepCount} if it is currently lower and returns the amount added.
+     * Used when restoring totals, where only a single thread touches the counter.
+     */
+    long raiseTo(long stepCount) {
+        long missing = stepCount - get();
+        if (missing > 0) {
+            add(missing);
+            return missing;
+        }
+        return 0;
+    }
+
+    StepBuckets buckets() {
+        return buckets;
+    }
+
+    /**
+     * The team's step history, or {@code null} if it has not recorded any steps yet.
+     */
+    StepHistory history() {
+        return history;
+    }
+
+    /**
+     * Returns the step history, creating it on first use so teams that never add steps do not
+     * carry one.
+     */
+    StepHistory history(StepHistory.Settings settings) {
+        StepHistory existing = history;
+        if (existing != null) {
+            return existing;
+        }
+        StepHistory created = new StepHistory(settings);
+        StepHistory witness = (StepHistory) HISTORY.compareAndExchange(this, null, created);
+        return witness == null ? created : witness;
+    }
+
+    boolean isRemoved() {
+        return removed;
+    }
+
+    void markRemoved() {
+        removed = true;
+    }
+
+    /**
+     * Registers a pending reindex and returns the number that were already pending.
+     */
+    int enterReindex() {
+        return (int) PENDING_REINDEX.getAndAdd(this, 1);
+    }
+
+    /**
+     * Retires {@code handled} pending reindexes and returns the number still pending.
+     */
+    int exitReindex(int handled) {
+        return (int) PENDING_REINDEX.getAndAdd(this, -handled) - handled;
+    }
+
+    /**
+     * Returns true for the caller that flips the counter from clean to dirty. The plain read
+     * first keeps writers of an already-dirty counter from contending on the flag.
+     */
+    boolean markDirty() {
+        return !dirty && DIRTY.compareAndSet(this, false, true);
+    }
+
+    void clearDirty() {
+        dirty = false;
+    }
+
+    LeaderboardIndex.Node getIndexedNode() {
+        return indexedNode;
+    }
+
+    void setIndexedNode(LeaderboardIndex.Node indexedNode) {
+        this.indexedNode = indexedNode;
+    }
+
+    /**
+     * Where the team is counted in a {@link StepCountSketch}, as maintained by the sketch.
+     */
+    int getSketchSlot() {
+        return sketchSlot;
+    }
+
+    boolean compareAndSetSketchSlot(int expected, int slot) {
+        return SKETCH_SLOT.compareAndSet(this, expected, slot);
+    }
+
+    private static final class Atomic extends TeamCounter {
+
+        private static final VarHandle STEP_COUNT;
+
+        static {
+            try {
+                STEP_COUNT = MethodHandles.lookup().findVarHandle(Atomic.class, "stepCount", long.class);
+            } catch (ReflectiveOperationException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+
+        private volatile long stepCount;
+
+        private Atomic(String teamId, long generation, TeamGroup group) {
+            super(teamId, generation, group, new StepBuckets.Packed());
+        }
+
+        @Override
+        long get() {
+            return stepCount;
+        }
+
+        @Override
+        void add(long steps) {
+            STEP_COUNT.getAndAdd(this, steps);
+        }
+
+        @Override
+        long drain() {
+            return (long) STEP_COUNT.getAndSet(this, 0L);
+        }
+    }
+
+    private static final class Striped extends TeamCounter {
+
+        private final LongAdder stepCount = new LongAdder();
+
+        private Striped(String teamId, long generation, TeamGroup group) {
+            super(teamId, generation, group, new StepBuckets.Striped());
+        }
+
+        @Override
+        long get() {
+            return stepCount.sum();
+        }
+
+        @Override
+        void add(long steps) {
+            stepCount.add(steps);
+        }
+
+        @Override
+        long drain() {
+            return stepCount.sumThenReset();
+        }
+    }
+}
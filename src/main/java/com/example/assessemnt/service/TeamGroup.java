@@ -0,0 +1,34 @@
+package com.example.assessemnt.service;
+
+/**
+ * A department or company. Its counter holds the rolled-up total of every team below it and is
+ * ranked in the leaderboard of its level.
+ */
+final class TeamGroup {
+
+    private final GroupLevel level;
+    private final TeamCounter counter;
+    private final TeamGroup parent;
+
+    TeamGroup(GroupLevel level, TeamCounter counter, TeamGroup parent) {
+        this.level = level;
+        this.counter = counter;
+        this.parent = parent;
+    }
+
+    GroupLevel getLevel() {
+        return level;
+    }
+
+    String getId() {
+        return counter.getTeamId();
+    }
+
+    TeamCounter getCounter() {
+        return counter;
+    }
+
+    TeamGroup getParent() {
+        return parent;
+    }
+}
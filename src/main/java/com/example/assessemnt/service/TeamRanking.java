@@ -0,0 +1,39 @@
+package com.example.assessemnt.service;
+
+import com.example.assessemnt.dto.LeaderboardEntry;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lifetime ranking of a namespace's teams, ordered by step count (descending), then team ID.
+ * Counters push their changes in with {@link #update(TeamCounter)}.
+ */
+interface TeamRanking {
+
+    void update(TeamCounter counter);
+
+    /**
+     * Passes up to {@code limit} entries, starting at {@code offset}, to the visitor in rank order
+     * and returns the number visited.
+     */
+    int forEach(int offset, int limit, LeaderboardIndex.EntryVisitor visitor);
+
+    default List<LeaderboardEntry> page(int offset, int limit) {
+        List<LeaderboardEntry> leaderboard = new ArrayList<>();
+        forEach(offset, limit, (teamId, stepCount) -> leaderboard.add(new LeaderboardEntry(teamId, stepCount)));
+        return leaderboard;
+    }
+
+    Rank rank(TeamCounter counter);
+
+    /**
+     * Changes whenever the listed entries change; equal versions mean an identical leaderboard.
+     */
+    long version();
+
+    int size();
+
+    record Rank(long stepCount, int rank, int totalTeams, boolean approximate) {
+    }
+}
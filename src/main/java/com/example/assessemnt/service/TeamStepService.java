@@ -1,36 +1,344 @@
 package com.example.assessemnt.service;
 
+import com.example.assessemnt.config.CounterProperties;
+import com.example.assessemnt.config.HistoryProperties;
+import com.example.assessemnt.config.IdempotencyProperties;
+import com.example.assessemnt.config.LeaderboardProperties;
+import com.example.assessemnt.config.TenantProperties;
+import com.example.assessemnt.config.TenantQuota;
+import com.example.assessemnt.config.WindowProperties;
+import com.example.assessemnt.dto.BatchStepsResult;
+import com.example.assessemnt.dto.GroupResponse;
+import com.example.assessemnt.dto.HistoryPoint;
 import com.example.assessemnt.dto.LeaderboardEntry;
+import com.example.assessemnt.dto.TeamHistoryResponse;
+import com.example.assessemnt.dto.TeamRankResponse;
 import com.example.assessemnt.dto.TeamResponse;
+import com.example.assessemnt.dto.TeamStepsEntry;
+import com.example.assessemnt.exception.GroupNotFoundException;
+import com.example.assessemnt.exception.QuotaExceededException;
 import com.example.assessemnt.exception.TeamNotFoundException;
+import com.example.assessemnt.exception.TenantNotFoundException;
+import com.example.assessemnt.exception.TooManyRequestsException;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.time.Clock;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Queue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
 
 @Service
 public class TeamStepService {
 
-    private final ConcurrentHashMap<String, AtomicLong> teams = new ConcurrentHashMap<>();
+    /**
+     * Longest team, department, company or tenant ID accepted, in characters. Longer IDs are
+     * rejected before anything changes, which keeps every journal record within its buffer.
+     */
+    public static final int MAX_ID_LENGTH = 256;
+
+    private static final int MAX_HISTORY_POINTS = 10_000;
+    private static final int MAX_REMOVAL_MARKERS = 65_536;
+    private static final IdempotencyProperties DEFAULT_IDEMPOTENCY =
+            new IdempotencyProperties(Duration.ofMinutes(10), 100_000);
+    private static final HistoryProperties DEFAULT_HISTORY = new HistoryProperties(true, Duration.ofHours(1),
+            Duration.ofDays(7), Duration.ofDays(1), Duration.ofDays(400));
+    private static final TenantProperties DEFAULT_TENANTS = new TenantProperties(1000, 10_000, 0, Map.of());
+    private static final LeaderboardProperties DEFAULT_LEADERBOARD = new LeaderboardProperties(Duration.ZERO,
+            Duration.ofSeconds(1), 20, LeaderboardRanking.EXACT, 1000, 0.01);
+
+    private static final Comparator<LeaderboardEntry> RANKING = Comparator
+            .comparing(LeaderboardEntry::getStepCount, Comparator.reverseOrder())
+            .thenComparing(LeaderboardEntry::getTeamId);
+
+    private final ConcurrentHashMap<String, TeamCounter> teams = new ConcurrentHashMap<>();
+    private final ReentrantLock quotaLock = new ReentrantLock();
+    private final CounterMode counterMode;
+    private final LeaderboardProperties leaderboardProperties;
+    private final long[] sketchBounds;
+    private final TeamRanking ranking;
+    private final AtomicLong generations = new AtomicLong();
+    private final Map<String, Long> removedGenerations = new ConcurrentHashMap<>();
+    private final Queue<Map.Entry<String, Long>> removalOrder = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger removals = new AtomicInteger();
+    private final List<TeamChangeListener> changeListeners;
+    private final StepCalendar calendar;
+    private final StepHistory.Settings historySettings;
+    private final LongAdder stepUpdates;
+    private final LongAdder stepsAdded;
+    private final LongAdder teamsNotFound;
+    private final LongAdder duplicateSubmissions;
+    private final LongAdder quotaRejections;
+    private final IdempotencyCache idempotencyCache;
+    private final String tenantId;
+    private final TenantProperties tenantProperties;
+    private final ConcurrentHashMap<String, TeamStepService> tenants;
+    private final int maxTeams;
+    private final int maxUpdatesPerSecond;
+    private final TenantRateLimiter rateLimiter;
+    private final Map<GroupLevel, ConcurrentHashMap<String, TeamGroup>> groups = new EnumMap<>(GroupLevel.class);
+    private final Map<GroupLevel, LeaderboardIndex> groupIndexes = new EnumMap<>(GroupLevel.class);
+
+    public TeamStepService() {
+        this(new Options());
+    }
+
+    @Autowired
+    public TeamStepService(CounterProperties counterProperties, WindowProperties windowProperties,
+                           IdempotencyProperties idempotencyProperties, HistoryProperties historyProperties,
+                           TenantProperties tenantProperties, LeaderboardProperties leaderboardProperties) {
+        this(new Options()
+                .counters(counterProperties)
+                .window(windowProperties)
+                .idempotency(idempotencyProperties)
+                .history(historyProperties)
+                .tenants(tenantProperties)
+                .leaderboard(leaderboardProperties));
+    }
+
+    public TeamStepService(Options options) {
+        this.idempotencyCache = new IdempotencyCache(options.idempotency.ttl().toNanos(),
+                options.idempotency.maxKeys());
+        this.historySettings = historySettings(options.history);
+        this.counterMode = options.counterMode;
+        this.leaderboardProperties = options.leaderboard;
+        this.sketchBounds = leaderboardProperties.ranking() == LeaderboardRanking.APPROXIMATE
+                ? StepCountSketch.lowerBounds(leaderboardProperties.relativeAccuracy())
+                : null;
+        this.ranking = newRanking();
+        this.calendar = new StepCalendar(options.clock, options.firstDayOfWeek);
+        this.changeListeners = new CopyOnWriteArrayList<>();
+        this.stepUpdates = new LongAdder();
+        this.stepsAdded = new LongAdder();
+        this.teamsNotFound = new LongAdder();
+        this.duplicateSubmissions = new LongAdder();
+        this.quotaRejections = new LongAdder();
+        this.tenantId = null;
+        this.tenantProperties = options.tenants;
+        this.tenants = new ConcurrentHashMap<>();
+        this.maxTeams = 0;
+        this.maxUpdatesPerSecond = 0;
+        this.rateLimiter = null;
+        createGroupLevels();
+    }
+
+    /**
+     * A tenant namespace: its own teams, groups and rank indexes, sharing the calendar, history
+     * settings, idempotency cache, change listeners and counters of the default namespace.
+     */
+    private TeamStepService(TeamStepService root, String tenantId, TenantQuota quota) {
+        this.idempotencyCache = root.idempotencyCache;
+        this.historySettings = root.historySettings;
+        this.counterMode = root.counterMode;
+        this.leaderboardProperties = root.leaderboardProperties;
+        this.sketchBounds = root.sketchBounds;
+        this.ranking = newRanking();
+        this.calendar = root.calendar;
+        this.changeListeners = root.changeListeners;
+        this.stepUpdates = root.stepUpdates;
+        this.stepsAdded = root.stepsAdded;
+        this.teamsNotFound = root.teamsNotFound;
+        this.duplicateSubmissions = root.duplicateSubmissions;
+        this.quotaRejections = root.quotaRejections;
+        this.tenantId = tenantId;
+        this.tenantProperties = null;
+        this.tenants = null;
+        this.maxTeams = quota.maxTeams();
+        this.maxUpdatesPerSecond = quota.maxUpdatesPerSecond();
+        this.rateLimiter = maxUpdatesPerSecond > 0 ? new TenantRateLimiter(maxUpdatesPerSecond) : null;
+        createGroupLevels();
+    }
+
+    private TeamRanking newRanking() {
+        boolean deferred = counterMode == CounterMode.STRIPED;
+        if (leaderboardProperties.ranking() == LeaderboardRanking.APPROXIMATE) {
+            return new ApproximateRanking(leaderboardProperties.trackedTeams(), sketchBounds, deferred,
+                    teams.values());
+        }
+        return new LeaderboardIndex(deferred);
+    }
+
+    private void createGroupLevels() {
+        for (GroupLevel level : GroupLevel.values()) {
+            groups.put(level, new ConcurrentHashMap<>());
+            groupIndexes.put(level, new LeaderboardIndex(counterMode == CounterMode.STRIPED));
+        }
+    }
+
+    /**
+     * The namespace of the given tenant, created on first use. It offers this whole API over teams
+     * and groups that are separate from the default namespace and from every other tenant, limited
+     * by the tenant's quota. Its changes reach this service's listeners tagged with the tenant.
+     */
+    public TeamStepService tenant(String tenantId) {
+        TeamStepService tenant = tenants().get(requireTenantId(tenantId));
+        return tenant != null ? tenant : createTenant(tenantId, true);
+    }
+
+    /**
+     * Like {@link #tenant(String)}, but throws {@link TenantNotFoundException} instead of creating
+     * the namespace.
+     */
+    public TeamStepService existingTenant(String tenantId) {
+        TeamStepService tenant = tenants().get(requireTenantId(tenantId));
+        if (tenant == null) {
+            throw new TenantNotFoundException(tenantId);
+        }
+        return tenant;
+    }
+
+    private TeamStepService createTenant(String tenantId, boolean enforceQuota) {
+        quotaLock.lock();
+        try {
+            TeamStepService tenant = tenants.get(tenantId);
+            if (tenant == null) {
+                int maxTenants = tenantProperties.maxTenants();
+                if (enforceQuota && maxTenants > 0 && tenants.size() >= maxTenants) {
+                    quotaRejections.increment();
+                    throw new QuotaExceededException("Limit of " + maxTenants + " tenants reached");
+                }
+                tenant = new TeamStepService(this, tenantId, tenantProperties.quotaOf(tenantId));
+                tenants.put(tenantId, tenant);
+            }
+            return tenant;
+        } finally {
+            quotaLock.unlock();
+        }
+    }
+
+    private ConcurrentHashMap<String, TeamStepService> tenants() {
+        if (tenants == null) {
+            throw new IllegalStateException("Tenant namespaces cannot be nested");
+        }
+        return tenants;
+    }
+
+    private static String requireTenantId(String tenantId) {
+        if (tenantId == null || tenantId.trim().isEmpty()) {
+            throw new IllegalArgumentException("Tenant ID cannot be null or empty");
+        }
+        requireMaxLength(tenantId, "Tenant ID");
+        return tenantId;
+    }
+
+    private static void requireMaxLength(String id, String name) {
+        if (id != null && id.length() > MAX_ID_LENGTH) {
+            throw new IllegalArgumentException(name + " cannot be longer than " + MAX_ID_LENGTH + " characters");
+        }
+    }
 
     public void createTeam(String teamId) {
+        createTeam(teamId, null, null);
+    }
+
+    /**
+     * Creates a team that rolls up into the given department and/or company, either of which may be
+     * {@code null}. Groups are created on first use; a department keeps the company it was first
+     * created with, and naming a different one is rejected. Creating an existing team is a no-op.
+     * In a tenant namespace that already has its quota of teams, creating a new one throws
+     * {@link QuotaExceededException}.
+     */
+    public void createTeam(String teamId, String department, String company) {
+        importTeam(teamId, department, company, 0);
+    }
+
+    /**
+     * Creates a team like {@link #createTeam(String, String, String)} but starting from a lifetime
+     * total, as when moving teams over from another system. The total is not attributed to any day,
+     * so it is not part of windowed counts or history. Returns {@code false}, leaving the team as it
+     * is, if it already exists.
+     */
+    public boolean importTeam(String teamId, String department, String company, long stepCount) {
         if (teamId == null || teamId.trim().isEmpty()) {
             throw new IllegalArgumentException("Team ID cannot be null or empty");
         }
-        teams.putIfAbsent(teamId, new AtomicLong(0));
+        if (department != null && department.trim().isEmpty()) {
+            throw new IllegalArgumentException("Department cannot be empty");
+        }
+        if (company != null && company.trim().isEmpty()) {
+            throw new IllegalArgumentException("Company cannot be empty");
+        }
+        requireMaxLength(teamId, "Team ID");
+        requireMaxLength(department, "Department");
+        requireMaxLength(company, "Company");
+        if (stepCount < 0) {
+            throw new IllegalArgumentException("Steps must be non-negative");
+        }
+        if (teams.containsKey(teamId)) {
+            return false;
+        }
+        TeamGroup group = resolveGroup(department, company);
+        TeamCounter created = TeamCounter.create(teamId, generations.incrementAndGet(), counterMode, group);
+        created.add(stepCount);
+        if (!insert(teamId, created)) {
+            return false;
+        }
+        ranking.update(created);
+        rollUp(created, stepCount);
+        settleIfRemoved(created);
+        publish(TeamChange.created(teamId, created.getGeneration(), department, company));
+        if (stepCount > 0) {
+            publish(TeamChange.stepsAdded(teamId, created.getGeneration(), stepCount, stepCount));
+        }
+        return true;
+    }
+
+    /**
+     * Adds a new team unless one with the ID exists. With a team quota, the count is checked and
+     * the team added under a lock, so concurrent creates cannot overshoot it.
+     */
+    private boolean insert(String teamId, TeamCounter created) {
+        if (maxTeams == 0) {
+            return teams.putIfAbsent(teamId, created) == null;
+        }
+        quotaLock.lock();
+        try {
+            if (teams.containsKey(teamId)) {
+                return false;
+            }
+            if (teams.size() >= maxTeams) {
+                quotaRejections.increment();
+                throw new QuotaExceededException("Tenant " + tenantId + " has reached its limit of " + maxTeams
+                        + " teams");
+            }
+            teams.put(teamId, created);
+            return true;
+        } finally {
+            quotaLock.unlock();
+        }
     }
 
     public void removeTeam(String teamId) {
         if (teamId == null || teamId.trim().isEmpty()) {
             throw new IllegalArgumentException("Team ID cannot be null or empty");
         }
-        AtomicLong removed = teams.remove(teamId);
+        TeamCounter removed = teams.remove(teamId);
         if (removed == null) {
-            throw new TeamNotFoundException(teamId);
+            throw teamNotFound(teamId);
         }
+        removed.markRemoved();
+        ranking.update(removed);
+        long stepCount = removed.drain();
+        rollUp(removed, -stepCount);
+        publish(TeamChange.removed(teamId, removed.getGeneration(), stepCount));
     }
 
     public void addSteps(String teamId, Long steps) {
@@ -41,37 +349,665 @@ public class TeamStepService {
             throw new IllegalArgumentException("Steps must be non-negative");
         }
         
-        AtomicLong stepCount = teams.get(teamId);
+        TeamCounter stepCount = teams.get(teamId);
         if (stepCount == null) {
-            throw new TeamNotFoundException(teamId);
+            throw teamNotFound(teamId);
         }
+        acquire(1);
         
-        stepCount.addAndGet(steps);
+        stepCount.add(steps);
+        stepCount.buckets().add(calendar.today(), steps);
+        recordHistory(stepCount, steps);
+        ranking.update(stepCount);
+        rollUp(stepCount, steps);
+        settleIfRemoved(stepCount);
+        stepUpdates.increment();
+        stepsAdded.add(steps);
+        if (!changeListeners.isEmpty()) {
+            publish(TeamChange.stepsAdded(teamId, stepCount.getGeneration(), steps, stepCount.get()));
+        }
+    }
+
+    /**
+     * Adds steps unless a submission with the same idempotency key was already applied to the team
+     * within the dedup window. Returns false for such a repeat, which changes nothing. Invalid
+     * submissions are rejected before the key is recorded, so they can be retried with it.
+     */
+    public boolean addSteps(String teamId, Long steps, String idempotencyKey) {
+        if (idempotencyKey == null) {
+            addSteps(teamId, steps);
+            return true;
+        }
+        if (steps == null || steps < 0) {
+            throw new IllegalArgumentException("Steps must be non-negative");
+        }
+        requireTeam(teamId);
+        if (!claimIdempotencyKey(teamId, idempotencyKey)) {
+            return false;
+        }
+        try {
+            addSteps(teamId, steps);
+        } catch (RuntimeException e) {
+            releaseIdempotencyKey(teamId, idempotencyKey);
+            throw e;
+        }
+        return true;
+    }
+
+    /**
+     * Records the idempotency key for the team and returns true, or returns false and counts a
+     * duplicate if the key was already recorded within the dedup window.
+     */
+    public boolean claimIdempotencyKey(String teamId, String idempotencyKey) {
+        if (idempotencyKey.isEmpty() || idempotencyKey.length() > IdempotencyCache.MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException(
+                    "Idempotency key must be 1 to " + IdempotencyCache.MAX_KEY_LENGTH + " characters");
+        }
+        if (idempotencyCache.claim(idempotencyScope(teamId), idempotencyKey)) {
+            return true;
+        }
+        duplicateSubmissions.increment();
+        return false;
+    }
+
+    public void releaseIdempotencyKey(String teamId, String idempotencyKey) {
+        idempotencyCache.release(idempotencyScope(teamId), idempotencyKey);
+    }
+
+    /**
+     * Tenants share the idempotency cache, so their keys are recorded against the tenant and team.
+     */
+    private String idempotencyScope(String teamId) {
+        return tenantId == null ? teamId : tenantId + '\0' + teamId;
+    }
+
+    /**
+     * Applies many step submissions at once. Entries for the same team are summed first so each
+     * counter is touched once; the result list mirrors the input order.
+     */
+    public List<BatchStepsResult> addStepsBatch(List<TeamStepsEntry> entries) {
+        if (entries == null) {
+            throw new IllegalArgumentException("Entries cannot be null");
+        }
+        Map<String, Long> stepsByTeam = new LinkedHashMap<>();
+        for (TeamStepsEntry entry : entries) {
+            if (entry == null || entry.getTeamId() == null || entry.getTeamId().trim().isEmpty()) {
+                throw new IllegalArgumentException("Team ID cannot be null or empty");
+            }
+            if (entry.getSteps() == null || entry.getSteps() < 0) {
+                throw new IllegalArgumentException("Steps must be non-negative");
+            }
+            stepsByTeam.merge(entry.getTeamId(), entry.getSteps(), Long::sum);
+        }
+        acquire(stepsByTeam.size());
+
+        Map<String, BatchStepsResult> resultsByTeam = new HashMap<>();
+        long today = calendar.today();
+        stepsByTeam.forEach((teamId, steps) -> {
+            TeamCounter stepCount = addCoalesced(teamId, steps, today);
+            resultsByTeam.put(teamId, stepCount == null
+                    ? new BatchStepsResult(teamId, BatchStepsResult.Status.TEAM_NOT_FOUND, null)
+                    : new BatchStepsResult(teamId, BatchStepsResult.Status.APPLIED, stepCount.get()));
+        });
+
+        List<BatchStepsResult> results = new ArrayList<>(entries.size());
+        for (TeamStepsEntry entry : entries) {
+            results.add(resultsByTeam.get(entry.getTeamId()));
+        }
+        return results;
+    }
+
+    /**
+     * Applies a step total that was already validated and summed for the given generation of the
+     * team, and returns false if that generation was removed in the meantime, even if a team was
+     * created again under the same ID.
+     */
+    boolean addStepsCoalesced(String teamId, long generation, long steps) {
+        TeamCounter stepCount = teams.get(teamId);
+        if (stepCount == null || stepCount.getGeneration() != generation) {
+            return false;
+        }
+        addCoalesced(stepCount, steps, calendar.today());
+        return true;
+    }
+
+    private TeamCounter addCoalesced(String teamId, long steps, long today) {
+        TeamCounter stepCount = teams.get(teamId);
+        if (stepCount == null) {
+            teamsNotFound.increment();
+            return null;
+        }
+        addCoalesced(stepCount, steps, today);
+        return stepCount;
+    }
+
+    private void addCoalesced(TeamCounter stepCount, long steps, long today) {
+        String teamId = stepCount.getTeamId();
+        stepCount.add(steps);
+        stepCount.buckets().add(today, steps);
+        recordHistory(stepCount, steps);
+        ranking.update(stepCount);
+        rollUp(stepCount, steps);
+        settleIfRemoved(stepCount);
+        stepUpdates.increment();
+        stepsAdded.add(steps);
+        if (!changeListeners.isEmpty()) {
+            publish(TeamChange.stepsAdded(teamId, stepCount.getGeneration(), steps, stepCount.get()));
+        }
+    }
+
+    /**
+     * Throws the same exceptions as {@link #addSteps(String, Long)} would for the team, without
+     * changing it, and returns the team's generation. Used to validate submissions that are
+     * applied later.
+     */
+    public long requireTeam(String teamId) {
+        if (teamId == null || teamId.trim().isEmpty()) {
+            throw new IllegalArgumentException("Team ID cannot be null or empty");
+        }
+        TeamCounter stepCount = teams.get(teamId);
+        if (stepCount == null) {
+            throw teamNotFound(teamId);
+        }
+        return stepCount.getGeneration();
     }
 
     public TeamResponse getTeamSteps(String teamId) {
+        return getTeamSteps(teamId, StepWindow.ALL);
+    }
+
+    public TeamResponse getTeamSteps(String teamId, StepWindow window) {
         if (teamId == null || teamId.trim().isEmpty()) {
             throw new IllegalArgumentException("Team ID cannot be null or empty");
         }
         
-        AtomicLong stepCount = teams.get(teamId);
+        TeamCounter stepCount = teams.get(teamId);
         if (stepCount == null) {
-            throw new TeamNotFoundException(teamId);
+            throw teamNotFound(teamId);
         }
         
-        return new TeamResponse(teamId, stepCount.get());
+        long today = calendar.today();
+        return new TeamResponse(teamId, stepsIn(stepCount, window, calendar.firstDay(window, today), today));
+    }
+
+    /**
+     * Steps the team added per {@code step} from {@code from} (inclusive) to {@code to} (exclusive),
+     * one point per step including empty ones. {@code from} is rounded down to the history
+     * resolution. Older than the raw retention, history is kept per downsampled bucket and each
+     * bucket is credited to the step containing its start. Defaults: per day, for the 30 days up to
+     * the end of the current bucket.
+     */
+    public TeamHistoryResponse getTeamHistory(String teamId, Instant from, Instant to, Duration step) {
+        if (teamId == null || teamId.trim().isEmpty()) {
+            throw new IllegalArgumentException("Team ID cannot be null or empty");
+        }
+        if (historySettings == null) {
+            throw new IllegalArgumentException("Step history is disabled");
+        }
+        TeamCounter stepCount = teams.get(teamId);
+        if (stepCount == null) {
+            throw teamNotFound(teamId);
+        }
+        long resolution = historySettings.resolutionMillis();
+        long stepMillis = step == null ? Duration.ofDays(1).toMillis() : step.toMillis();
+        if (stepMillis <= 0 || stepMillis % resolution != 0) {
+            throw new IllegalArgumentException("Step must be a positive multiple of " + Duration.ofMillis(resolution));
+        }
+        long toMillis = to == null
+                ? (Math.floorDiv(calendar.millis(), resolution) + 1) * resolution
+                : to.toEpochMilli();
+        long fromMillis = from == null ? toMillis - Duration.ofDays(30).toMillis() : from.toEpochMilli();
+        fromMillis = Math.floorDiv(fromMillis, resolution) * resolution;
+        if (fromMillis >= toMillis) {
+            throw new IllegalArgumentException("From must be before to");
+        }
+        long pointCount = (toMillis - fromMillis + stepMillis - 1) / stepMillis;
+        if (pointCount > MAX_HISTORY_POINTS) {
+            throw new IllegalArgumentException("History range covers more than " + MAX_HISTORY_POINTS + " steps");
+        }
+
+        long[] steps = new long[(int) pointCount];
+        StepHistory history = stepCount.history();
+        if (history != null) {
+            long start = fromMillis;
+            history.forEach(fromMillis, toMillis, (bucketMillis, widthMillis, bucketSteps) ->
+                    steps[(int) ((bucketMillis - start) / stepMillis)] += bucketSteps);
+        }
+        List<HistoryPoint> points = new ArrayList<>(steps.length);
+        for (int i = 0; i < steps.length; i++) {
+            points.add(new HistoryPoint(Instant.ofEpochMilli(fromMillis + i * stepMillis), steps[i]));
+        }
+        return new TeamHistoryResponse(teamId, Instant.ofEpochMilli(fromMillis), Instant.ofEpochMilli(toMillis),
+                Duration.ofMillis(stepMillis).toString(), points);
     }
 
     public List<LeaderboardEntry> getLeaderboard() {
-        List<LeaderboardEntry> leaderboard = new ArrayList<>();
-        
+        return ranking.page(0, Integer.MAX_VALUE);
+    }
+
+    public List<LeaderboardEntry> getLeaderboard(int offset, int limit) {
+        return getLeaderboard(offset, limit, StepWindow.ALL);
+    }
+
+    /**
+     * Returns a page of the leaderboard for the given window. Lifetime totals come from the
+     * ranking, which in approximate mode only lists the top {@code trackedTeams} teams; day and
+     * week totals are summed from each team's daily buckets and ranked on demand, keeping only the
+     * top {@code offset + limit} entries.
+     */
+    public List<LeaderboardEntry> getLeaderboard(int offset, int limit, StepWindow window) {
+        if (offset < 0) {
+            throw new IllegalArgumentException("Offset must be non-negative");
+        }
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+        if (window == StepWindow.ALL) {
+            return ranking.page(offset, limit);
+        }
+        long today = calendar.today();
+        long firstDay = calendar.firstDay(window, today);
+        int keep = (int) Math.min((long) offset + limit, Integer.MAX_VALUE);
+        PriorityQueue<LeaderboardEntry> top = new PriorityQueue<>(RANKING.reversed());
         teams.forEach((teamId, stepCount) -> {
-            leaderboard.add(new LeaderboardEntry(teamId, stepCount.get()));
+            LeaderboardEntry entry = new LeaderboardEntry(teamId, stepsIn(stepCount, window, firstDay, today));
+            if (top.size() < keep) {
+                top.add(entry);
+            } else if (RANKING.compare(entry, top.peek()) < 0) {
+                top.poll();
+                top.add(entry);
+            }
         });
-        
-        leaderboard.sort(Comparator.comparing(LeaderboardEntry::getStepCount).reversed());
-        
-        return leaderboard;
+        List<LeaderboardEntry> ranked = new ArrayList<>(top);
+        ranked.sort(RANKING);
+        return offset >= ranked.size() ? new ArrayList<>() : new ArrayList<>(ranked.subList(offset, ranked.size()));
     }
-}
 
+    public List<LeaderboardEntry> getTopTeams(int limit) {
+        return getLeaderboard(0, limit);
+    }
+
+    /**
+     * Visits the whole team leaderboard in rank order without creating an entry per team.
+     */
+    int visitLeaderboard(LeaderboardIndex.EntryVisitor visitor) {
+        return ranking.forEach(0, Integer.MAX_VALUE, visitor);
+    }
+
+    public long getLeaderboardVersion() {
+        return ranking.version();
+    }
+
+    public TeamRankResponse getTeamRank(String teamId) {
+        return getTeamRank(teamId, StepWindow.ALL);
+    }
+
+    public TeamRankResponse getTeamRank(String teamId, StepWindow window) {
+        if (teamId == null || teamId.trim().isEmpty()) {
+            throw new IllegalArgumentException("Team ID cannot be null or empty");
+        }
+
+        TeamCounter stepCount = teams.get(teamId);
+        if (stepCount == null) {
+            throw teamNotFound(teamId);
+        }
+
+        if (window == StepWindow.ALL) {
+            TeamRanking.Rank rank = ranking.rank(stepCount);
+            return rankResponse(teamId, rank.stepCount(), rank.rank(), rank.totalTeams(), rank.approximate());
+        }
+        long today = calendar.today();
+        long firstDay = calendar.firstDay(window, today);
+        LeaderboardEntry team = new LeaderboardEntry(teamId, stepsIn(stepCount, window, firstDay, today));
+        int[] ahead = new int[1];
+        int[] total = new int[1];
+        teams.forEach((otherId, other) -> {
+            total[0]++;
+            if (RANKING.compare(new LeaderboardEntry(otherId, stepsIn(other, window, firstDay, today)), team) < 0) {
+                ahead[0]++;
+            }
+        });
+        return rankResponse(teamId, team.getStepCount(), ahead[0] + 1, total[0], false);
+    }
+
+    /**
+     * The percentile is the share of the other teams ranked below the team.
+     */
+    private static TeamRankResponse rankResponse(String teamId, long stepCount, int rank, int totalTeams,
+                                                 boolean approximate) {
+        double percentile = totalTeams <= 1 ? 100.0 : 100.0 * (totalTeams - rank) / (totalTeams - 1);
+        return new TeamRankResponse(teamId, stepCount, rank, totalTeams, percentile, approximate);
+    }
+
+    public GroupResponse getGroupSteps(GroupLevel level, String groupId) {
+        TeamGroup group = groupId == null ? null : groups.get(level).get(groupId);
+        if (group == null) {
+            throw new GroupNotFoundException(level == GroupLevel.COMPANY ? "Company" : "Department", groupId);
+        }
+        TeamGroup parent = group.getParent();
+        return new GroupResponse(groupId, parent == null ? null : parent.getId(), group.getCounter().get());
+    }
+
+    public List<LeaderboardEntry> getGroupLeaderboard(GroupLevel level, int offset, int limit) {
+        if (offset < 0) {
+            throw new IllegalArgumentException("Offset must be non-negative");
+        }
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+        return groupIndexes.get(level).page(offset, limit);
+    }
+
+    /**
+     * Streams the current state of every team, including its department and company, as
+     * {@link TeamChange.Type#STEPS_ADDED} changes carrying the team's total. The default namespace
+     * also streams the teams of every tenant, tagged with their tenant. Iteration does not block
+     * writers, and each change can later be re-applied with {@link #apply(TeamChange)}.
+     */
+    public void forEachTeam(Consumer<TeamChange> action) {
+        teams.forEach((teamId, stepCount) -> {
+            TeamGroup department = groupAt(stepCount.getGroup(), GroupLevel.DEPARTMENT);
+            TeamGroup company = groupAt(stepCount.getGroup(), GroupLevel.COMPANY);
+            action.accept(TeamChange.state(teamId, stepCount.getGeneration(), stepCount.get(),
+                    department == null ? null : department.getId(), company == null ? null : company.getId())
+                    .withTenant(tenantId));
+        });
+        if (tenants != null) {
+            tenants.values().forEach(tenant -> tenant.forEachTeam(action));
+        }
+    }
+
+    /**
+     * Number of teams in this namespace, not counting those of tenants.
+     */
+    public int getTeamCount() {
+        return teams.size();
+    }
+
+    public String getTenantId() {
+        return tenantId;
+    }
+
+    public int getTenantCount() {
+        return tenants == null ? 0 : tenants.size();
+    }
+
+    /**
+     * Team limit of this namespace, or zero when it has none.
+     */
+    public int getMaxTeams() {
+        return maxTeams;
+    }
+
+    /**
+     * Step updates allowed per second in this namespace, or zero when unlimited.
+     */
+    public int getMaxUpdatesPerSecond() {
+        return maxUpdatesPerSecond;
+    }
+
+    /**
+     * Requests rejected, across all tenants, for exceeding a team, tenant or ingestion rate quota.
+     */
+    public long getQuotaRejectionCount() {
+        return quotaRejections.sum();
+    }
+
+    /**
+     * Number of step updates applied to a team, counting each team in a batch once.
+     */
+    public long getStepUpdateCount() {
+        return stepUpdates.sum();
+    }
+
+    public long getStepsAddedTotal() {
+        return stepsAdded.sum();
+    }
+
+    public long getDuplicateSubmissionCount() {
+        return duplicateSubmissions.sum();
+    }
+
+    public int getIdempotencyKeyCount() {
+        return idempotencyCache.size();
+    }
+
+    public long getTeamNotFoundCount() {
+        return teamsNotFound.sum();
+    }
+
+    public void addChangeListener(TeamChangeListener listener) {
+        changeListeners.add(listener);
+    }
+
+    /**
+     * Applies a change recorded elsewhere (journal replay, snapshot restore) without notifying
+     * listeners. Changes are idempotent and may arrive out of order within a team's generation;
+     * changes for a generation that has already been removed are ignored. Callers must not run
+     * this concurrently with other mutations of the same team. Changes tagged with a tenant are
+     * applied to its namespace, which is created regardless of quotas.
+     */
+    public void apply(TeamChange change) {
+        if (change.tenant() != null && tenants != null) {
+            TeamStepService tenant = tenants.get(change.tenant());
+            (tenant != null ? tenant : createTenant(change.tenant(), false)).apply(change);
+            return;
+        }
+        String teamId = change.teamId();
+        long generation = change.generation();
+        generations.accumulateAndGet(generation, Math::max);
+
+        TeamCounter current = teams.get(teamId);
+        if (change.type() == TeamChange.Type.REMOVED) {
+            recordRemoval(teamId, generation);
+            if (current != null && current.getGeneration() <= generation) {
+                teams.remove(teamId);
+                current.markRemoved();
+                ranking.update(current);
+                rollUp(current, -current.drain());
+            }
+            return;
+        }
+
+        Long removedGeneration = removedGenerations.get(teamId);
+        if (removedGeneration != null && removedGeneration >= generation) {
+            return;
+        }
+        if (current == null || current.getGeneration() < generation) {
+            if (current != null) {
+                current.markRemoved();
+                ranking.update(current);
+                rollUp(current, -current.drain());
+            }
+            TeamGroup group = resolveGroup(change.department(), change.company());
+            current = TeamCounter.create(teamId, generation, counterMode, group);
+            teams.put(teamId, current);
+            if (removedGeneration != null) {
+                removedGenerations.remove(teamId, removedGeneration);
+            }
+        } else if (current.getGeneration() > generation) {
+            return;
+        }
+        rollUp(current, current.raiseTo(change.stepCount()));
+        ranking.update(current);
+    }
+
+    /**
+     * Remembers a removed generation so changes to it that arrive late do not bring the team back.
+     * Such changes trail the removal by no more than the writes in flight when it happened, so only
+     * the latest {@value #MAX_REMOVAL_MARKERS} removals are kept; a marker is also dropped as soon as
+     * a newer generation of the team is created.
+     */
+    private void recordRemoval(String teamId, long generation) {
+        removedGenerations.merge(teamId, generation, Math::max);
+        removalOrder.add(Map.entry(teamId, generation));
+        if (removals.incrementAndGet() > MAX_REMOVAL_MARKERS) {
+            Map.Entry<String, Long> oldest = removalOrder.poll();
+            if (oldest != null) {
+                removals.decrementAndGet();
+                removedGenerations.remove(oldest.getKey(), oldest.getValue());
+            }
+        }
+    }
+
+    /**
+     * Takes step updates from the tenant's ingestion allowance, or throws
+     * {@link TooManyRequestsException} saying when to retry.
+     */
+    private void acquire(int updates) {
+        if (rateLimiter == null) {
+            return;
+        }
+        long waitNanos = rateLimiter.tryAcquire(updates);
+        if (waitNanos > 0) {
+            quotaRejections.increment();
+            throw new TooManyRequestsException("Tenant " + tenantId + " is limited to " + maxUpdatesPerSecond
+                    + " step updates per second", Duration.ofNanos(waitNanos));
+        }
+    }
+
+    private void recordHistory(TeamCounter stepCount, long steps) {
+        if (historySettings != null) {
+            stepCount.history(historySettings).add(calendar.millis(), steps);
+        }
+    }
+
+    private static StepHistory.Settings historySettings(HistoryProperties properties) {
+        if (!properties.enabled()) {
+            return null;
+        }
+        long resolution = properties.resolution().toMillis();
+        long downsampled = properties.downsampledResolution().toMillis();
+        if (resolution < Duration.ofMinutes(1).toMillis() || downsampled % resolution != 0) {
+            throw new IllegalArgumentException(
+                    "History resolution must be at least a minute and divide the downsampled resolution");
+        }
+        if (properties.retention().compareTo(properties.rawRetention()) < 0) {
+            throw new IllegalArgumentException("History retention must not be shorter than the raw retention");
+        }
+        return new StepHistory.Settings(resolution, properties.rawRetention().toMillis() / resolution,
+                Math.toIntExact(downsampled / resolution), properties.retention().toMillis() / resolution);
+    }
+
+    private TeamGroup resolveGroup(String department, String company) {
+        TeamGroup parent = company == null ? null : groups.get(GroupLevel.COMPANY)
+                .computeIfAbsent(company, id -> newGroup(GroupLevel.COMPANY, id, null));
+        if (department == null) {
+            return parent;
+        }
+        TeamGroup group = groups.get(GroupLevel.DEPARTMENT)
+                .computeIfAbsent(department, id -> newGroup(GroupLevel.DEPARTMENT, id, parent));
+        if (parent != null && group.getParent() != parent) {
+            String owner = group.getParent() == null ? "no company" : "company " + group.getParent().getId();
+            throw new IllegalArgumentException("Department " + department + " belongs to " + owner);
+        }
+        return group;
+    }
+
+    private TeamGroup newGroup(GroupLevel level, String groupId, TeamGroup parent) {
+        TeamGroup group = new TeamGroup(level, TeamCounter.create(groupId, 0, counterMode), parent);
+        groupIndexes.get(level).update(group.getCounter());
+        return group;
+    }
+
+    /**
+     * Adds {@code steps} (negative when a team leaves) to every group above the team.
+     */
+    private void rollUp(TeamCounter stepCount, long steps) {
+        if (steps == 0) {
+            return;
+        }
+        for (TeamGroup group = stepCount.getGroup(); group != null; group = group.getParent()) {
+            group.getCounter().add(steps);
+            groupIndexes.get(group.getLevel()).update(group.getCounter());
+        }
+    }
+
+    /**
+     * Takes back from the groups whatever a concurrent removal did not see. The removal drains the
+     * counter after marking it removed, so steps added after the drain stay in the counter and the
+     * writer that added them finds the mark here; every step is rolled up and taken back once.
+     */
+    private void settleIfRemoved(TeamCounter stepCount) {
+        if (stepCount.isRemoved()) {
+            rollUp(stepCount, -stepCount.drain());
+        }
+    }
+
+    private static TeamGroup groupAt(TeamGroup group, GroupLevel level) {
+        while (group != null && group.getLevel() != level) {
+            group = group.getParent();
+        }
+        return group;
+    }
+
+    private static long stepsIn(TeamCounter stepCount, StepWindow window, long firstDay, long today) {
+        return window == StepWindow.ALL ? stepCount.get() : stepCount.buckets().sum(firstDay, today);
+    }
+
+    private TeamNotFoundException teamNotFound(String teamId) {
+        teamsNotFound.increment();
+        return new TeamNotFoundException(teamId);
+    }
+
+    private void publish(TeamChange change) {
+        TeamChange tagged = change.withTenant(tenantId);
+        for (TeamChangeListener listener : changeListeners) {
+            listener.onChange(tagged);
+        }
+    }
+
+    /**
+     * Settings of a {@link TeamStepService}, each defaulting to the value of the matching
+     * {@code teams.*} property when not set.
+     */
+    public static final class Options {
+
+        private CounterMode counterMode = CounterMode.ATOMIC;
+        private Clock clock = Clock.system(ZoneOffset.UTC);
+        private DayOfWeek firstDayOfWeek = DayOfWeek.MONDAY;
+        private IdempotencyProperties idempotency = DEFAULT_IDEMPOTENCY;
+        private HistoryProperties history = DEFAULT_HISTORY;
+        private TenantProperties tenants = DEFAULT_TENANTS;
+        private LeaderboardProperties leaderboard = DEFAULT_LEADERBOARD;
+
+        public Options counters(CounterProperties counterProperties) {
+            this.counterMode = counterProperties.mode();
+            return this;
+        }
+
+        public Options window(WindowProperties windowProperties) {
+            this.clock = Clock.system(windowProperties.zone());
+            this.firstDayOfWeek = windowProperties.firstDayOfWeek();
+            return this;
+        }
+
+        /**
+         * Replaces the clock of the window calendar; the week still starts on the configured day.
+         */
+        Options clock(Clock clock) {
+            this.clock = clock;
+            return this;
+        }
+
+        public Options idempotency(IdempotencyProperties idempotencyProperties) {
+            this.idempotency = idempotencyProperties;
+            return this;
+        }
+
+        public Options history(HistoryProperties historyProperties) {
+            this.history = historyProperties;
+            return this;
+        }
+
+        public Options tenants(TenantProperties tenantProperties) {
+            this.tenants = tenantProperties;
+            return this;
+        }
+
+        public Options leaderboard(LeaderboardProperties leaderboardProperties) {
+            this.leaderboard = leaderboardProperties;
+            return this;
+        }
+    }
+}
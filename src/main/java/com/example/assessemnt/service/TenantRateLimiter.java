@@ -0,0 +1,53 @@
+package com.example.assessemnt.service;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Limits a tenant to {@code perSecond} step updates a second, with bursts of up to a second's worth.
+ * It keeps the time at which the allowance would be fully used up (the generic cell rate
+ * algorithm), so acquiring is a single CAS and there is no refill thread or lock.
+ */
+final class TenantRateLimiter {
+
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final LongSupplier nanoTime;
+    private final AtomicLong exhaustedAt;
+
+    TenantRateLimiter(int perSecond) {
+        this(perSecond, System::nanoTime);
+    }
+
+    TenantRateLimiter(int perSecond, LongSupplier nanoTime) {
+        if (perSecond < 1) {
+            throw new IllegalArgumentException("Rate must be positive");
+        }
+        this.intervalNanos = TimeUnit.SECONDS.toNanos(1) / perSecond;
+        this.burstNanos = intervalNanos * perSecond;
+        this.nanoTime = nanoTime;
+        this.exhaustedAt = new AtomicLong(nanoTime.getAsLong());
+    }
+
+    /**
+     * Takes {@code permits} updates from the allowance and returns zero, or returns how many
+     * nanoseconds to wait before that many are available, taking nothing. A request for more than
+     * a second's worth is let through once the allowance is full, and later requests wait it off.
+     */
+    long tryAcquire(int permits) {
+        long cost = intervalNanos * permits;
+        while (true) {
+            long now = nanoTime.getAsLong();
+            long current = exhaustedAt.get();
+            long next = Math.max(current - now, 0) + now + cost;
+            long overdraw = next - now - Math.max(burstNanos, cost);
+            if (overdraw > 0) {
+                return overdraw;
+            }
+            if (exhaustedAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+}
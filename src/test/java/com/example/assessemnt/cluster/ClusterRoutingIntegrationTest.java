@@ -0,0 +1,252 @@
+package com.example.assessemnt.cluster;
+
+import com.example.assessemnt.AssessemntApplication;
+import com.example.assessemnt.dto.LeaderboardEntry;
+import com.example.assessemnt.service.TeamStepService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs three nodes on localhost and talks to each of them over HTTP.
+ */
+class ClusterRoutingIntegrationTest {
+
+    private static final String SECRET = "test-secret";
+    private static final List<ConfigurableApplicationContext> contexts = new ArrayList<>();
+    private static final List<URI> nodes = new ArrayList<>();
+    private static final HttpClient client = HttpClient.newHttpClient();
+
+    @BeforeAll
+    static void startCluster() throws IOException {
+        for (int i = 0; i < 3; i++) {
+            try (ServerSocket socket = new ServerSocket(0)) {
+                nodes.add(URI.create("http://localhost:" + socket.getLocalPort()));
+            }
+        }
+        String members = nodes.stream().map(URI::toString).collect(Collectors.joining(","));
+        for (URI node : nodes) {
+            contexts.add(new SpringApplicationBuilder(AssessemntApplication.class).run(
+                    "--server.port=" + node.getPort(),
+                    "--teams.cluster.enabled=true",
+                    "--teams.cluster.self=" + node,
+                    "--teams.cluster.nodes=" + members,
+                    "--teams.cluster.secret=" + SECRET,
+                    "--spring.jmx.enabled=false"));
+        }
+    }
+
+    @AfterAll
+    static void stopCluster() {
+        contexts.forEach(ConfigurableApplicationContext::close);
+    }
+
+    @Test
+    void teamRequests_ShouldReachOwnerFromAnyNode() throws Exception {
+        // Given
+        assertEquals(200, send(nodes.get(0), "PUT", "/api/teams/routed", null).statusCode());
+
+        // When
+        send(nodes.get(1), "POST", "/api/teams/routed/steps", "{\"steps\":40}");
+        send(nodes.get(2), "POST", "/api/teams/routed/steps", "{\"steps\":2}");
+
+        // Then
+        for (URI node : nodes) {
+            HttpResponse<String> response = send(node, "GET", "/api/teams/routed", null);
+            assertEquals(200, response.statusCode());
+            assertTrue(response.body().contains("\"stepCount\":42"), response.body());
+        }
+        assertEquals(404, send(nodes.get(1), "GET", "/api/teams/missing", null).statusCode());
+    }
+
+    @Test
+    void leaderboard_ShouldMergeAllPartitions() throws Exception {
+        // Given
+        for (int i = 0; i < 12; i++) {
+            send(nodes.get(i % 3), "PUT", "/api/teams/board-" + i, null);
+            send(nodes.get(i % 3), "POST", "/api/teams/board-" + i + "/steps", "{\"steps\":" + (100_000 + i) + "}");
+        }
+
+        // When
+        HttpResponse<String> response = send(nodes.get(1), "GET", "/api/teams/leaderboard?offset=1&limit=2", null);
+
+        // Then
+        assertEquals(200, response.statusCode());
+        assertEquals("[{\"teamId\":\"board-10\",\"stepCount\":100010},"
+                + "{\"teamId\":\"board-9\",\"stepCount\":100009}]", response.body());
+    }
+
+    @Test
+    void batch_ShouldSplitByOwnerAndKeepInputOrder() throws Exception {
+        // Given
+        for (int i = 0; i < 6; i++) {
+            send(nodes.get(0), "PUT", "/api/teams/batch-" + i, null);
+        }
+        StringBuilder body = new StringBuilder("[");
+        for (int i = 0; i < 6; i++) {
+            body.append(i == 0 ? "" : ",").append("{\"teamId\":\"batch-").append(i).append("\",\"steps\":").append(i + 1).append('}');
+        }
+        body.append(",{\"teamId\":\"batch-missing\",\"steps\":1}]");
+
+        // When
+        HttpResponse<String> response = send(nodes.get(2), "POST", "/api/teams/steps:batch", body.toString());
+
+        // Then
+        assertEquals(200, response.statusCode());
+        for (int i = 0; i < 6; i++) {
+            assertTrue(response.body().contains("\"teamId\":\"batch-" + i + "\""), response.body());
+        }
+        assertTrue(response.body().indexOf("batch-0") < response.body().indexOf("batch-5"));
+        assertTrue(response.body().contains("batch-missing"));
+        HttpResponse<String> team = send(nodes.get(1), "GET", "/api/teams/batch-5", null);
+        assertTrue(team.body().contains("\"stepCount\":6"), team.body());
+    }
+
+    @Test
+    void forwardedHeader_WithoutClusterSecret_ShouldBeRejected() throws Exception {
+        // Given
+        send(nodes.get(0), "PUT", "/api/teams/guarded", null);
+        URI notOwner = nodes.stream()
+                .filter(node -> !node.equals(contexts.get(0).getBean(ClusterRoutingInterceptor.class).ownerOf("guarded")))
+                .findFirst().orElseThrow();
+
+        // When
+        HttpResponse<String> spoofed = client.send(HttpRequest.newBuilder(notOwner.resolve("/api/teams/guarded"))
+                .header(ClusterRoutingInterceptor.FORWARDED_HEADER, "client")
+                .header(ClusterRoutingInterceptor.SECRET_HEADER, "guess")
+                .PUT(HttpRequest.BodyPublishers.noBody())
+                .build(), HttpResponse.BodyHandlers.ofString());
+
+        // Then
+        assertEquals(403, spoofed.statusCode());
+        assertEquals(200, send(notOwner, "GET", "/api/teams/guarded", null).statusCode());
+    }
+
+    @Test
+    void bulkImport_InClusterMode_ShouldBeRejected() throws Exception {
+        // When
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(nodes.get(0).resolve("/api/teams:import"))
+                .header("Content-Type", "application/x-ndjson")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"teamId\":\"imported\",\"stepCount\":5}\n"))
+                .build(), HttpResponse.BodyHandlers.ofString());
+
+        // Then
+        assertEquals(409, response.statusCode());
+        assertEquals(404, send(nodes.get(0), "GET", "/api/teams/imported", null).statusCode());
+    }
+
+    @Test
+    void tenantRoutes_InClusterMode_ShouldBeRejected() throws Exception {
+        // When
+        HttpResponse<String> response = send(nodes.get(1), "PUT", "/api/tenants/acme/teams/Engineering", null);
+
+        // Then
+        assertEquals(409, response.statusCode());
+        assertEquals(409, send(nodes.get(1), "GET", "/api/tenants/acme", null).statusCode());
+    }
+
+    @Test
+    void nodeLocalReads_InClusterMode_ShouldBeRejected() throws Exception {
+        // Given
+        assertEquals(200, send(nodes.get(0), "PUT", "/api/teams/ranked?department=Platform&company=Acme", null)
+                .statusCode());
+
+        // Then
+        for (URI node : nodes) {
+            assertEquals(409, send(node, "GET", "/api/teams/ranked/rank", null).statusCode());
+            assertEquals(409, send(node, "GET", "/api/teams/leaderboard/stream", null).statusCode());
+            assertEquals(409, send(node, "GET", "/api/departments/Platform", null).statusCode());
+            assertEquals(409, send(node, "GET", "/api/departments/leaderboard", null).statusCode());
+            assertEquals(409, send(node, "GET", "/api/companies/Acme", null).statusCode());
+            assertEquals(409, send(node, "GET", "/api/companies/leaderboard", null).statusCode());
+        }
+        assertEquals(200, send(nodes.get(1), "GET", "/api/teams/ranked", null).statusCode());
+    }
+
+    @Test
+    void batch_WithUnreachableOwner_ShouldReportItsEntriesAndApplyTheRest() throws Exception {
+        // Given
+        URI live;
+        URI dead;
+        try (ServerSocket first = new ServerSocket(0); ServerSocket second = new ServerSocket(0)) {
+            live = URI.create("http://localhost:" + first.getLocalPort());
+            dead = URI.create("http://localhost:" + second.getLocalPort());
+        }
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(AssessemntApplication.class).run(
+                "--server.port=" + live.getPort(),
+                "--teams.cluster.enabled=true",
+                "--teams.cluster.self=" + live,
+                "--teams.cluster.nodes=" + live + "," + dead,
+                "--teams.cluster.secret=" + SECRET,
+                "--spring.jmx.enabled=false");
+        try {
+            ClusterRoutingInterceptor routing = context.getBean(ClusterRoutingInterceptor.class);
+            TeamStepService service = context.getBean(TeamStepService.class);
+            List<String> teams = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                teams.add("split-" + i);
+            }
+            List<String> local = teams.stream().filter(id -> routing.ownerOf(id).equals(live)).toList();
+            assertTrue(local.size() > 0 && local.size() < teams.size());
+            local.forEach(service::createTeam);
+            String body = teams.stream().map(id -> "{\"teamId\":\"" + id + "\",\"steps\":5}")
+                    .collect(Collectors.joining(",", "[", "]"));
+
+            // When
+            HttpResponse<String> response = send(live, "POST", "/api/teams/steps:batch", body);
+
+            // Then
+            assertEquals(200, response.statusCode());
+            assertEquals("true", response.headers().firstValue(ClusterRoutingInterceptor.PARTIAL_HEADER).orElse(null));
+            for (String id : teams) {
+                String status = routing.ownerOf(id).equals(live) ? "APPLIED" : "NODE_UNAVAILABLE";
+                assertTrue(response.body().contains("\"teamId\":\"" + id + "\",\"status\":\"" + status + "\""),
+                        response.body());
+            }
+            for (String id : local) {
+                assertTrue(send(live, "GET", "/api/teams/" + id, null).body().contains("\"stepCount\":5"));
+            }
+        } finally {
+            context.close();
+        }
+    }
+
+    @Test
+    void merge_ShouldInterleavePartitionsByRank() {
+        // Given
+        List<List<LeaderboardEntry>> partitions = List.of(
+                List.of(new LeaderboardEntry("A", 90L), new LeaderboardEntry("D", 10L)),
+                List.of(new LeaderboardEntry("B", 50L), new LeaderboardEntry("C", 50L)),
+                List.of());
+
+        // When
+        List<LeaderboardEntry> page = ClusterRoutingInterceptor.merge(partitions, 1, 3);
+
+        // Then
+        assertEquals(List.of("B", "C"), page.stream().map(LeaderboardEntry::getTeamId).toList());
+    }
+
+    private static HttpResponse<String> send(URI node, String method, String path, String json) throws Exception {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(node.resolve(path));
+        if (json == null) {
+            builder.method(method, HttpRequest.BodyPublishers.noBody());
+        } else {
+            builder.method(method, HttpRequest.BodyPublishers.ofString(json)).header("Content-Type", "application/json");
+        }
+        return client.send(builder.build(), HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.assessemnt.cluster;
+
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConsistentHashRingTest {
+
+    private static final URI NODE_A = URI.create("http://localhost:8081");
+    private static final URI NODE_B = URI.create("http://localhost:8082");
+    private static final URI NODE_C = URI.create("http://localhost:8083");
+    private static final URI NODE_D = URI.create("http://localhost:8084");
+
+    @Test
+    void ownerOf_ShouldBeStableAcrossInstances() {
+        // Given
+        ConsistentHashRing first = new ConsistentHashRing(List.of(NODE_A, NODE_B, NODE_C), 128);
+        ConsistentHashRing second = new ConsistentHashRing(List.of(NODE_C, NODE_A, NODE_B), 128);
+
+        // When & Then
+        for (int i = 0; i < 1_000; i++) {
+            assertEquals(first.ownerOf("team-" + i), second.ownerOf("team-" + i));
+        }
+    }
+
+    @Test
+    void ownerOf_ShouldSpreadTeamsAcrossNodes() {
+        // Given
+        ConsistentHashRing ring = new ConsistentHashRing(List.of(NODE_A, NODE_B, NODE_C), 128);
+        Map<URI, Integer> owned = new HashMap<>();
+
+        // When
+        for (int i = 0; i < 30_000; i++) {
+            owned.merge(ring.ownerOf("team-" + i), 1, Integer::sum);
+        }
+
+        // Then
+        assertEquals(3, owned.size());
+        owned.values().forEach(count -> assertTrue(count > 7_000 && count < 13_000, "Unbalanced: " + owned));
+    }
+
+    @Test
+    void ownerOf_WhenNodeAdded_ShouldOnlyMoveTeamsToNewNode() {
+        // Given
+        ConsistentHashRing before = new ConsistentHashRing(List.of(NODE_A, NODE_B, NODE_C), 128);
+        ConsistentHashRing after = new ConsistentHashRing(List.of(NODE_A, NODE_B, NODE_C, NODE_D), 128);
+        int moved = 0;
+
+        // When
+        for (int i = 0; i < 20_000; i++) {
+            URI previous = before.ownerOf("team-" + i);
+            URI current = after.ownerOf("team-" + i);
+            if (!previous.equals(current)) {
+                assertEquals(NODE_D, current);
+                moved++;
+            }
+        }
+
+        // Then
+        assertTrue(moved > 3_000 && moved < 7_000, "Moved " + moved);
+    }
+
+    @Test
+    void constructor_WithNoNodes_ShouldThrowException() {
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> new ConsistentHashRing(List.of(), 128));
+    }
+}
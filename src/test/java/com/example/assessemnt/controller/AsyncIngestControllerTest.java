@@ -0,0 +1,65 @@
+package com.example.assessemnt.controller;
+
+import com.example.assessemnt.service.StepIngestQueue;
+import com.example.assessemnt.service.TeamStepService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = "teams.ingest.enabled=true")
+class AsyncIngestControllerTest {
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private TeamStepService teamStepService;
+
+    @Autowired
+    private StepIngestQueue stepIngestQueue;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+    }
+
+    @Test
+    void addSteps_ShouldReturn202AndApplyLater() throws Exception {
+        // Given
+        teamStepService.createTeam("AsyncTeam");
+
+        // When
+        mockMvc.perform(post("/api/teams/{teamId}/steps", "AsyncTeam")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"steps\": 250}"))
+                .andExpect(status().isAccepted());
+
+        // Then
+        assertTrue(stepIngestQueue.awaitApplied(Duration.ofSeconds(5)));
+        mockMvc.perform(get("/api/teams/{teamId}", "AsyncTeam"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.stepCount").value(250));
+    }
+
+    @Test
+    void addSteps_WithUnknownTeam_ShouldStillReturn404() throws Exception {
+        // When & Then
+        mockMvc.perform(post("/api/teams/{teamId}/steps", "MissingAsyncTeam")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"steps\": 250}"))
+                .andExpect(status().isNotFound());
+    }
+}
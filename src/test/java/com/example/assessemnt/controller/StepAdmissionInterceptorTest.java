@@ -0,0 +1,91 @@
+package com.example.assessemnt.controller;
+
+import com.example.assessemnt.config.AdmissionProperties;
+import com.example.assessemnt.exception.TooManyRequestsException;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StepAdmissionInterceptorTest {
+
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+    @Test
+    void preHandle_WhenPermitsExhausted_ShouldRejectWithRetryAfter() throws Exception {
+        // Given
+        StepAdmissionInterceptor interceptor = interceptor(1, Duration.ZERO);
+        MockHttpServletRequest first = new MockHttpServletRequest();
+        assertTrue(interceptor.preHandle(first, response, null));
+
+        // When
+        TooManyRequestsException ex = assertThrows(TooManyRequestsException.class,
+                () -> interceptor.preHandle(new MockHttpServletRequest(), response, null));
+
+        // Then
+        assertEquals(Duration.ofSeconds(2), ex.getRetryAfter());
+        assertEquals(0, interceptor.getAvailablePermits());
+    }
+
+    @Test
+    void afterCompletion_ShouldReleasePermitOfAdmittedRequest() throws Exception {
+        // Given
+        StepAdmissionInterceptor interceptor = interceptor(1, Duration.ZERO);
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        interceptor.preHandle(request, response, null);
+
+        // When
+        interceptor.afterCompletion(request, response, null, null);
+        interceptor.afterCompletion(request, response, null, null);
+
+        // Then
+        assertEquals(1, interceptor.getAvailablePermits());
+    }
+
+    @Test
+    void afterCompletion_ForRejectedRequest_ShouldNotReleasePermit() throws Exception {
+        // Given
+        StepAdmissionInterceptor interceptor = interceptor(1, Duration.ZERO);
+        interceptor.preHandle(new MockHttpServletRequest(), response, null);
+        MockHttpServletRequest rejected = new MockHttpServletRequest();
+        assertThrows(TooManyRequestsException.class, () -> interceptor.preHandle(rejected, response, null));
+
+        // When
+        interceptor.afterCompletion(rejected, response, null, null);
+
+        // Then
+        assertEquals(0, interceptor.getAvailablePermits());
+    }
+
+    @Test
+    void preHandle_WithMaxWait_ShouldAdmitOnceAPermitFreesUp() throws Exception {
+        // Given
+        StepAdmissionInterceptor interceptor = interceptor(1, Duration.ofSeconds(5));
+        MockHttpServletRequest first = new MockHttpServletRequest();
+        interceptor.preHandle(first, response, null);
+        Thread releaser = Thread.ofVirtual().start(() -> {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            interceptor.afterCompletion(first, response, null, null);
+        });
+
+        // When
+        boolean admitted = interceptor.preHandle(new MockHttpServletRequest(), response, null);
+
+        // Then
+        releaser.join();
+        assertTrue(admitted);
+        assertEquals(0, interceptor.getAvailablePermits());
+    }
+
+    private static StepAdmissionInterceptor interceptor(int maxConcurrent, Duration maxWait) {
+        return new StepAdmissionInterceptor(
+                new AdmissionProperties(true, maxConcurrent, maxWait, Duration.ofSeconds(2)));
+    }
+}
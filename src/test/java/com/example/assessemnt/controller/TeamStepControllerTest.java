@@ -1,15 +1,28 @@
 package com.example.assessemnt.controller;
 
+import com.example.assessemnt.dto.AddStepsRequest;
+import com.example.assessemnt.dto.LeaderboardEntry;
 import com.example.assessemnt.service.TeamStepService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
+import tools.jackson.dataformat.cbor.CBORMapper;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -22,6 +35,11 @@ class TeamStepControllerTest {
     @Autowired
     private TeamStepService teamStepService;
 
+    @Autowired
+    private StepAdmissionInterceptor stepAdmissionInterceptor;
+
+    private final CBORMapper cborMapper = CBORMapper.builder().build();
+
     private MockMvc mockMvc;
 
     @BeforeEach
@@ -138,6 +156,108 @@ class TeamStepControllerTest {
                 .andExpect(jsonPath("$.error").value("Team not found: NonExistent"));
     }
 
+    @Test
+    void getTeamSteps_WithDayWindow_ShouldReturnTodaysSteps() throws Exception {
+        // Given
+        teamStepService.createTeam("WindowTeam");
+        teamStepService.addSteps("WindowTeam", 250L);
+
+        // When & Then
+        mockMvc.perform(get("/api/teams/{teamId}", "WindowTeam").param("window", "day"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.stepCount").value(250));
+        mockMvc.perform(get("/api/teams/leaderboard").param("window", "week").param("limit", "1000"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.teamId == 'WindowTeam')].stepCount").value(250));
+
+        // Clean up
+        teamStepService.removeTeam("WindowTeam");
+    }
+
+    @Test
+    void getTeamHistory_ShouldReturnStepsPerStep() throws Exception {
+        // Given
+        teamStepService.createTeam("HistoryTeam");
+        teamStepService.addSteps("HistoryTeam", 70L);
+
+        // When & Then
+        mockMvc.perform(get("/api/teams/{teamId}/history", "HistoryTeam").param("step", "PT1H")
+                        .param("from", Instant.now().minusSeconds(7200).toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.step").value("PT1H"))
+                .andExpect(jsonPath("$.points.length()").value(3))
+                .andExpect(jsonPath("$.points[2].steps").value(70));
+        mockMvc.perform(get("/api/teams/{teamId}/history", "HistoryTeam").param("step", "PT90M"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Step must be a positive multiple of PT1H"));
+
+        // Clean up
+        teamStepService.removeTeam("HistoryTeam");
+    }
+
+    @Test
+    void tenantRoutes_ShouldBeIsolatedFromDefaultTeams() throws Exception {
+        // Given
+        mockMvc.perform(put("/api/tenants/controller-acme/teams/Engineering").param("company", "Acme"))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/api/tenants/controller-acme/teams/Engineering/steps")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"steps\":123}"))
+                .andExpect(status().isOk());
+
+        // When & Then
+        mockMvc.perform(get("/api/tenants/controller-acme/teams/Engineering"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.stepCount").value(123));
+        mockMvc.perform(get("/api/tenants/controller-acme/teams/leaderboard"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].teamId").value("Engineering"));
+        mockMvc.perform(get("/api/tenants/controller-acme"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.teamCount").value(1))
+                .andExpect(jsonPath("$.maxTeams").value(10000));
+        mockMvc.perform(get("/api/teams/leaderboard").param("offset", "0"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(not(containsString("\"stepCount\":123"))));
+        mockMvc.perform(get("/api/tenants/controller-unknown/teams/Engineering"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.error").value("Tenant not found: controller-unknown"));
+    }
+
+    @Test
+    void importAndExportTeams_ShouldStreamNdjson() throws Exception {
+        // Given
+        String ndjson = "{\"teamId\":\"ImportedTeam\",\"stepCount\":900,\"company\":\"ImportCo\"}\n"
+                + "not json\n";
+
+        // When & Then
+        mockMvc.perform(post("/api/teams:import").contentType(MediaType.APPLICATION_NDJSON).content(ndjson))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(1))
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.errors[0].line").value(2));
+        MvcResult export = mockMvc.perform(get("/api/teams:export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(export))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(containsString(
+                        "{\"teamId\":\"ImportedTeam\",\"stepCount\":900,\"company\":\"ImportCo\"}\n")));
+
+        // Clean up
+        teamStepService.removeTeam("ImportedTeam");
+    }
+
+    @Test
+    void getLeaderboard_WithUnknownWindow_ShouldReturn400() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/api/teams/leaderboard").param("window", "month"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Unknown window: month"));
+    }
+
     @Test
     void getLeaderboard_ShouldReturn200WithSortedList() throws Exception {
         // Given - use unique team names to avoid conflicts
@@ -176,4 +296,336 @@ class TeamStepControllerTest {
         mockMvc.perform(get("/api/teams/leaderboard"))
                 .andExpect(status().isOk());
     }
+
+    @Test
+    void getLeaderboard_WithLimit_ShouldReturnTopTeamsOnly() throws Exception {
+        // Given
+        teamStepService.createTeam("PagedTeam1");
+        teamStepService.createTeam("PagedTeam2");
+        teamStepService.addSteps("PagedTeam1", 1_000_000_000L);
+        teamStepService.addSteps("PagedTeam2", 999_999_999L);
+
+        // When & Then
+        mockMvc.perform(get("/api/teams/leaderboard").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].teamId").value("PagedTeam1"))
+                .andExpect(jsonPath("$[1].teamId").value("PagedTeam2"));
+
+        mockMvc.perform(get("/api/teams/leaderboard").param("offset", "1").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].teamId").value("PagedTeam2"));
+
+        // Clean up
+        teamStepService.removeTeam("PagedTeam1");
+        teamStepService.removeTeam("PagedTeam2");
+    }
+
+    @Test
+    void getLeaderboard_WithInvalidLimit_ShouldReturn400() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/api/teams/leaderboard").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getTeamRank_ShouldReturn200WithRank() throws Exception {
+        // Given
+        teamStepService.createTeam("RankedTeam");
+        teamStepService.addSteps("RankedTeam", 2_000_000_000L);
+
+        // When & Then
+        mockMvc.perform(get("/api/teams/{teamId}/rank", "RankedTeam"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.teamId").value("RankedTeam"))
+                .andExpect(jsonPath("$.stepCount").value(2_000_000_000L))
+                .andExpect(jsonPath("$.rank").value(1));
+
+        // Clean up
+        teamStepService.removeTeam("RankedTeam");
+    }
+
+    @Test
+    void getTeamRank_WithNonExistentTeam_ShouldReturn404() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/api/teams/{teamId}/rank", "NonExistent"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.error").value("Team not found: NonExistent"));
+    }
+
+    @Test
+    void getLeaderboard_ShouldReturnETag() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/api/teams/leaderboard"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    void getLeaderboard_WithMatchingIfNoneMatch_ShouldReturn304() throws Exception {
+        // Given
+        String etag = mockMvc.perform(get("/api/teams/leaderboard"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        // When & Then
+        mockMvc.perform(get("/api/teams/leaderboard").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void getLeaderboard_AfterStepsAdded_ShouldReturnNewETag() throws Exception {
+        // Given
+        teamStepService.createTeam("ETagTeam");
+        String etag = mockMvc.perform(get("/api/teams/leaderboard"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        // When
+        teamStepService.addSteps("ETagTeam", 100L);
+
+        // Then
+        mockMvc.perform(get("/api/teams/leaderboard").header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.teamId == 'ETagTeam')].stepCount").value(100));
+
+        // Clean up
+        teamStepService.removeTeam("ETagTeam");
+    }
+
+    @Test
+    void addStepsBatch_ShouldApplyStepsAndReturnPerItemResults() throws Exception {
+        // Given
+        teamStepService.createTeam("BatchTeam1");
+        teamStepService.createTeam("BatchTeam2");
+        String requestBody = """
+                [
+                  {"teamId": "BatchTeam1", "steps": 100},
+                  {"teamId": "BatchTeam2", "steps": 200},
+                  {"teamId": "BatchTeam1", "steps": 50},
+                  {"teamId": "NonExistent", "steps": 10}
+                ]
+                """;
+
+        // When & Then
+        mockMvc.perform(post("/api/teams/steps:batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(requestBody))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(4))
+                .andExpect(jsonPath("$[0].status").value("APPLIED"))
+                .andExpect(jsonPath("$[0].stepCount").value(150))
+                .andExpect(jsonPath("$[1].stepCount").value(200))
+                .andExpect(jsonPath("$[2].teamId").value("BatchTeam1"))
+                .andExpect(jsonPath("$[3].status").value("TEAM_NOT_FOUND"));
+
+        // Clean up
+        teamStepService.removeTeam("BatchTeam1");
+        teamStepService.removeTeam("BatchTeam2");
+    }
+
+    @Test
+    void addStepsBatch_WithNegativeSteps_ShouldReturn400() throws Exception {
+        // Given
+        String requestBody = "[{\"teamId\": \"Engineering\", \"steps\": -5}]";
+
+        // When & Then
+        mockMvc.perform(post("/api/teams/steps:batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(requestBody))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$['entries[0].steps']").value("Steps cannot be negative"));
+    }
+
+    @Test
+    void addStepsBatch_WithEmptyBatch_ShouldReturn400() throws Exception {
+        // When & Then
+        mockMvc.perform(post("/api/teams/steps:batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void streamLeaderboard_ShouldSendSnapshotEvent() throws Exception {
+        // Given
+        teamStepService.createTeam("StreamTeam");
+        teamStepService.addSteps("StreamTeam", 3_000_000_000L);
+
+        // When & Then
+        mockMvc.perform(get("/api/teams/leaderboard/stream").accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andExpect(content().string(containsString("event:snapshot")))
+                .andExpect(content().string(containsString("StreamTeam")));
+
+        // Clean up
+        teamStepService.removeTeam("StreamTeam");
+    }
+
+    @Test
+    void addSteps_WhenAdmissionLimitReached_ShouldReturn429WithRetryAfter() throws Exception {
+        // Given
+        teamStepService.createTeam("AdmissionTeam");
+        List<MockHttpServletRequest> held = new ArrayList<>();
+        try {
+            while (stepAdmissionInterceptor.getAvailablePermits() > 0) {
+                MockHttpServletRequest request = new MockHttpServletRequest();
+                stepAdmissionInterceptor.preHandle(request, new MockHttpServletResponse(), null);
+                held.add(request);
+            }
+
+            // When & Then
+            mockMvc.perform(post("/api/teams/{teamId}/steps", "AdmissionTeam")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"steps\": 100}"))
+                    .andExpect(status().isTooManyRequests())
+                    .andExpect(header().string("Retry-After", "1"))
+                    .andExpect(jsonPath("$.error").exists());
+        } finally {
+            held.forEach(request -> stepAdmissionInterceptor.afterCompletion(
+                    request, new MockHttpServletResponse(), null, null));
+        }
+
+        mockMvc.perform(post("/api/teams/{teamId}/steps", "AdmissionTeam")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"steps\": 100}"))
+                .andExpect(status().isOk());
+
+        // Clean up
+        teamStepService.removeTeam("AdmissionTeam");
+    }
+
+    @Test
+    void createTeam_WithDepartmentAndCompany_ShouldRollUpSteps() throws Exception {
+        // Given
+        mockMvc.perform(put("/api/teams/{teamId}", "RollupTeam")
+                        .param("department", "RollupDepartment")
+                        .param("company", "RollupCompany"))
+                .andExpect(status().isOk());
+
+        // When
+        mockMvc.perform(post("/api/teams/{teamId}/steps", "RollupTeam")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"steps\": 1200}"))
+                .andExpect(status().isOk());
+
+        // Then
+        mockMvc.perform(get("/api/departments/{departmentId}", "RollupDepartment"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.groupId").value("RollupDepartment"))
+                .andExpect(jsonPath("$.parentId").value("RollupCompany"))
+                .andExpect(jsonPath("$.stepCount").value(1200));
+        mockMvc.perform(get("/api/companies/leaderboard"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.teamId == 'RollupCompany')].stepCount").value(1200));
+
+        // Clean up
+        teamStepService.removeTeam("RollupTeam");
+    }
+
+    @Test
+    void createTeam_WithTooLongDepartment_ShouldReturn400() throws Exception {
+        // When & Then
+        mockMvc.perform(put("/api/teams/{teamId}", "LongDepartmentTeam")
+                        .param("department", "d".repeat(TeamStepService.MAX_ID_LENGTH + 1)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Department cannot be longer than 256 characters"));
+        mockMvc.perform(get("/api/teams/{teamId}", "LongDepartmentTeam"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void getDepartment_WithUnknownDepartment_ShouldReturn404() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/api/departments/{departmentId}", "NoSuchDepartment"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.error").value("Department not found: NoSuchDepartment"));
+    }
+
+    @Test
+    void addSteps_WithRepeatedIdempotencyKey_ShouldNotDoubleCount() throws Exception {
+        // Given
+        teamStepService.createTeam("RetryTeam");
+        mockMvc.perform(post("/api/teams/{teamId}/steps", "RetryTeam")
+                        .header("Idempotency-Key", "a1b2c3")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"steps\": 100}"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Idempotent-Replayed"));
+
+        // When & Then
+        mockMvc.perform(post("/api/teams/{teamId}/steps", "RetryTeam")
+                        .header("Idempotency-Key", "a1b2c3")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"steps\": 100}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Idempotent-Replayed", "true"));
+        mockMvc.perform(get("/api/teams/{teamId}", "RetryTeam"))
+                .andExpect(jsonPath("$.stepCount").value(100));
+
+        // Clean up
+        teamStepService.removeTeam("RetryTeam");
+    }
+
+    @Test
+    void addSteps_WithCborBody_ShouldApplySteps() throws Exception {
+        // Given
+        teamStepService.createTeam("CborTeam");
+        byte[] body = cborMapper.writeValueAsBytes(new AddStepsRequest(700L));
+
+        // When
+        mockMvc.perform(post("/api/teams/{teamId}/steps", "CborTeam")
+                        .contentType(MediaType.APPLICATION_CBOR)
+                        .content(body))
+                .andExpect(status().isOk());
+
+        // Then
+        assertEquals(700L, teamStepService.getTeamSteps("CborTeam").getStepCount());
+
+        // Clean up
+        teamStepService.removeTeam("CborTeam");
+    }
+
+    @Test
+    void addSteps_WithInvalidCborBody_ShouldReturn400() throws Exception {
+        // When & Then
+        teamStepService.createTeam("CborTeam");
+        mockMvc.perform(post("/api/teams/{teamId}/steps", "CborTeam")
+                        .contentType(MediaType.APPLICATION_CBOR)
+                        .content(cborMapper.writeValueAsBytes(new AddStepsRequest(-5L))))
+                .andExpect(status().isBadRequest());
+
+        // Clean up
+        teamStepService.removeTeam("CborTeam");
+    }
+
+    @Test
+    void getLeaderboard_AcceptingCbor_ShouldReturnCborBody() throws Exception {
+        // Given
+        teamStepService.createTeam("CborTeam");
+        teamStepService.addSteps("CborTeam", 5_000_000L);
+
+        // When
+        byte[] cached = mockMvc.perform(get("/api/teams/leaderboard").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andExpect(header().string("Vary", containsString("Accept")))
+                .andReturn().getResponse().getContentAsByteArray();
+        byte[] paged = mockMvc.perform(get("/api/teams/leaderboard?limit=1").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        // Then
+        LeaderboardEntry[] leaderboard = cborMapper.readValue(cached, LeaderboardEntry[].class);
+        LeaderboardEntry[] page = cborMapper.readValue(paged, LeaderboardEntry[].class);
+        assertEquals("CborTeam", leaderboard[0].getTeamId());
+        assertEquals("CborTeam", page[0].getTeamId());
+        assertEquals(5_000_000L, page[0].getStepCount());
+        mockMvc.perform(get("/api/teams/leaderboard"))
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON));
+
+        // Clean up
+        teamStepService.removeTeam("CborTeam");
+    }
 }
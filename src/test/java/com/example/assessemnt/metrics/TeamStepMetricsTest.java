@@ -0,0 +1,101 @@
+package com.example.assessemnt.metrics;
+
+import com.example.assessemnt.config.AdmissionProperties;
+import com.example.assessemnt.config.LeaderboardProperties;
+import com.example.assessemnt.controller.LeaderboardStreamPublisher;
+import com.example.assessemnt.controller.StepAdmissionInterceptor;
+import com.example.assessemnt.exception.TeamNotFoundException;
+import com.example.assessemnt.persistence.StepJournal;
+import com.example.assessemnt.persistence.StepSnapshotter;
+import com.example.assessemnt.replication.ReplicaFollower;
+import com.example.assessemnt.replication.ReplicationLog;
+import com.example.assessemnt.service.LeaderboardRanking;
+import com.example.assessemnt.service.LeaderboardSnapshotCache;
+import com.example.assessemnt.service.StepIngestQueue;
+import com.example.assessemnt.service.TeamStepService;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TeamStepMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private TeamStepService teamStepService;
+    private LeaderboardSnapshotCache leaderboardSnapshotCache;
+
+    @BeforeEach
+    void setUp() {
+        teamStepService = new TeamStepService();
+        LeaderboardProperties leaderboardProperties = new LeaderboardProperties(Duration.ZERO, Duration.ofSeconds(1), 20,
+                LeaderboardRanking.EXACT, 1000, 0.01);
+        JsonMapper jsonMapper = JsonMapper.builder().build();
+        leaderboardSnapshotCache = new LeaderboardSnapshotCache(teamStepService, jsonMapper, leaderboardProperties);
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        new TeamStepMetrics(teamStepService, leaderboardSnapshotCache,
+                new StepAdmissionInterceptor(new AdmissionProperties(true, 8, Duration.ZERO, Duration.ofSeconds(1))),
+                new LeaderboardStreamPublisher(teamStepService, jsonMapper, leaderboardProperties),
+                beanFactory.getBeanProvider(StepJournal.class), beanFactory.getBeanProvider(StepSnapshotter.class),
+                beanFactory.getBeanProvider(StepIngestQueue.class), beanFactory.getBeanProvider(ReplicationLog.class),
+                beanFactory.getBeanProvider(ReplicaFollower.class))
+                .bindTo(registry);
+    }
+
+    @Test
+    void bindTo_ShouldReportTeamCountAndStepThroughput() {
+        // Given
+        teamStepService.createTeam("Engineering");
+        teamStepService.createTeam("Sales");
+
+        // When
+        teamStepService.addSteps("Engineering", 1000L);
+        teamStepService.addSteps("Sales", 500L);
+
+        // Then
+        assertEquals(2.0, registry.get("teams.count").gauge().value());
+        assertEquals(2.0, registry.get("teams.steps.updates").functionCounter().count());
+        assertEquals(1500.0, registry.get("teams.steps.added").functionCounter().count());
+        assertEquals(8.0, registry.get("teams.admission.available").gauge().value());
+    }
+
+    @Test
+    void bindTo_ShouldCountMissingTeams() {
+        // When
+        assertThrows(TeamNotFoundException.class, () -> teamStepService.addSteps("Unknown", 10L));
+        assertThrows(TeamNotFoundException.class, () -> teamStepService.getTeamSteps("Unknown"));
+
+        // Then
+        assertEquals(2.0, registry.get("teams.not.found").functionCounter().count());
+    }
+
+    @Test
+    void bindTo_ShouldReportLeaderboardBuilds() {
+        // Given
+        teamStepService.createTeam("Engineering");
+        teamStepService.addSteps("Engineering", 1000L);
+
+        // When
+        leaderboardSnapshotCache.current();
+        leaderboardSnapshotCache.current();
+
+        // Then
+        FunctionTimer builds = registry.get("teams.leaderboard.build").functionTimer();
+        assertEquals(1.0, builds.count());
+        assertEquals(1.0, registry.get("teams.leaderboard.size").gauge().value());
+        assertTrue(registry.get("teams.leaderboard.body").gauge().value() > 0);
+    }
+
+    @Test
+    void bindTo_WithoutPersistence_ShouldNotRegisterPersistenceMeters() {
+        // Then
+        assertNull(registry.find("teams.journal.size").gauge());
+        assertNull(registry.find("teams.snapshot.size").gauge());
+        assertNull(registry.find("teams.ingest.depth").gauge());
+    }
+}
@@ -0,0 +1,195 @@
+package com.example.assessemnt.persistence;
+
+import com.example.assessemnt.config.JournalProperties;
+import com.example.assessemnt.dto.LeaderboardEntry;
+import com.example.assessemnt.exception.TeamNotFoundException;
+import com.example.assessemnt.service.GroupLevel;
+import com.example.assessemnt.service.TeamStepService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StepJournalTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void restart_ShouldRestoreTeamsFromJournal() throws Exception {
+        // Given
+        TeamStepService before = new TeamStepService();
+        StepJournal journal = openJournal(before, JournalDurability.PER_REQUEST);
+        before.createTeam("Engineering");
+        before.createTeam("Sales");
+        before.createTeam("Marketing");
+        before.addSteps("Engineering", 5000L);
+        before.addSteps("Sales", 3000L);
+        before.addSteps("Engineering", 1000L);
+        before.removeTeam("Marketing");
+        journal.close();
+
+        // When
+        TeamStepService after = new TeamStepService();
+        openJournal(after, JournalDurability.PER_REQUEST).close();
+
+        // Then
+        assertEquals(6000L, after.getTeamSteps("Engineering").getStepCount());
+        assertEquals(3000L, after.getTeamSteps("Sales").getStepCount());
+        assertThrows(TeamNotFoundException.class, () -> after.getTeamSteps("Marketing"));
+        List<LeaderboardEntry> leaderboard = after.getLeaderboard();
+        assertEquals("Engineering", leaderboard.get(0).getTeamId());
+    }
+
+    @Test
+    void restart_WithRecreatedTeam_ShouldOnlyKeepLatestGeneration() throws Exception {
+        // Given
+        TeamStepService before = new TeamStepService();
+        StepJournal journal = openJournal(before, JournalDurability.INTERVAL);
+        before.createTeam("Engineering");
+        before.addSteps("Engineering", 5000L);
+        before.removeTeam("Engineering");
+        before.createTeam("Engineering");
+        before.addSteps("Engineering", 10L);
+        journal.close();
+
+        // When
+        TeamStepService after = new TeamStepService();
+        openJournal(after, JournalDurability.INTERVAL).close();
+
+        // Then
+        assertEquals(10L, after.getTeamSteps("Engineering").getStepCount());
+    }
+
+    @Test
+    void restart_ShouldRestoreDepartmentAndCompanyTotals() throws Exception {
+        // Given
+        TeamStepService before = new TeamStepService();
+        StepJournal journal = openJournal(before, JournalDurability.PER_REQUEST);
+        before.createTeam("Backend", "Platform", "Acme");
+        before.createTeam("Sales", null, "Acme");
+        before.addSteps("Backend", 700L);
+        before.addSteps("Sales", 300L);
+        journal.close();
+
+        // When
+        TeamStepService after = new TeamStepService();
+        openJournal(after, JournalDurability.PER_REQUEST).close();
+
+        // Then
+        assertEquals(700L, after.getGroupSteps(GroupLevel.DEPARTMENT, "Platform").getStepCount());
+        assertEquals(1000L, after.getGroupSteps(GroupLevel.COMPANY, "Acme").getStepCount());
+    }
+
+    @Test
+    void restart_ShouldRestoreTenantTeamsIntoTheirNamespaces() throws Exception {
+        // Given
+        TeamStepService before = new TeamStepService();
+        StepJournal journal = openJournal(before, JournalDurability.PER_REQUEST);
+        before.createTeam("Engineering");
+        before.addSteps("Engineering", 10L);
+        before.tenant("acme").createTeam("Engineering", null, "Acme");
+        before.tenant("acme").addSteps("Engineering", 700L);
+        before.tenant("globex").createTeam("Sales");
+        before.tenant("globex").removeTeam("Sales");
+        journal.close();
+
+        // When
+        TeamStepService after = new TeamStepService();
+        openJournal(after, JournalDurability.PER_REQUEST).close();
+
+        // Then
+        assertEquals(10L, after.getTeamSteps("Engineering").getStepCount());
+        assertEquals(700L, after.existingTenant("acme").getTeamSteps("Engineering").getStepCount());
+        assertEquals(700L, after.existingTenant("acme").getGroupSteps(GroupLevel.COMPANY, "Acme").getStepCount());
+        assertEquals(0, after.existingTenant("globex").getTeamCount());
+        assertEquals(1, after.getTeamCount());
+    }
+
+    @Test
+    void restart_WithTornTail_ShouldRecoverCompleteRecordsAndKeepAppending() throws Exception {
+        // Given
+        TeamStepService before = new TeamStepService();
+        StepJournal journal = openJournal(before, JournalDurability.ASYNC);
+        before.createTeam("Engineering");
+        before.addSteps("Engineering", 5000L);
+        journal.close();
+        Files.write(journalPath(), new byte[]{0, 0, 0, 40, 1, 2}, StandardOpenOption.APPEND);
+
+        // When
+        TeamStepService recovered = new TeamStepService();
+        StepJournal reopened = openJournal(recovered, JournalDurability.ASYNC);
+        recovered.addSteps("Engineering", 1L);
+        reopened.close();
+        TeamStepService after = new TeamStepService();
+        openJournal(after, JournalDurability.ASYNC).close();
+
+        // Then
+        assertEquals(5001L, after.getTeamSteps("Engineering").getStepCount());
+    }
+
+    @Test
+    void restart_AfterConcurrentWritesOverflowingTheBuffer_ShouldRestoreEveryStep() throws Exception {
+        // Given
+        TeamStepService before = new TeamStepService();
+        StepJournal journal = openJournal(before, JournalDurability.ASYNC);
+        for (int team = 0; team < 4; team++) {
+            before.createTeam("Team" + team);
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<?>> writers = new ArrayList<>();
+        for (int team = 0; team < 4; team++) {
+            String teamId = "Team" + team;
+            writers.add(executor.submit(() -> {
+                for (int i = 0; i < 5_000; i++) {
+                    before.addSteps(teamId, 1L);
+                }
+            }));
+        }
+        for (Future<?> writer : writers) {
+            writer.get();
+        }
+        executor.shutdown();
+        journal.close();
+
+        // When
+        TeamStepService after = new TeamStepService();
+        openJournal(after, JournalDurability.ASYNC).close();
+
+        // Then
+        for (int team = 0; team < 4; team++) {
+            assertEquals(5_000L, after.getTeamSteps("Team" + team).getStepCount());
+        }
+    }
+
+    @Test
+    void open_WithJournalOfAnotherFormat_ShouldRefuseToReplay() throws Exception {
+        // Given
+        Files.write(journalPath(), new byte[]{0, 0, 0, 17, 1, 2, 3, 4, 0, 0, 0, 0, 0, 0, 0, 0, 1});
+
+        // When & Then
+        assertThrows(IOException.class, () -> openJournal(new TeamStepService(), JournalDurability.ASYNC));
+    }
+
+    private StepJournal openJournal(TeamStepService service, JournalDurability durability) throws Exception {
+        StepJournal journal = new StepJournal(service,
+                new JournalProperties(true, journalPath(), durability, Duration.ofMillis(5)), (StepSnapshotter) null);
+        journal.open();
+        return journal;
+    }
+
+    private Path journalPath() {
+        return directory.resolve("teams.journal");
+    }
+}
@@ -0,0 +1,227 @@
+package com.example.assessemnt.persistence;
+
+import com.example.assessemnt.config.JournalProperties;
+import com.example.assessemnt.config.SnapshotProperties;
+import com.example.assessemnt.exception.TeamNotFoundException;
+import com.example.assessemnt.service.GroupLevel;
+import com.example.assessemnt.service.TeamStepService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StepSnapshotterTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void restart_ShouldRestoreTeamsFromSnapshot() throws Exception {
+        // Given
+        TeamStepService before = new TeamStepService();
+        before.createTeam("Engineering");
+        before.createTeam("Sales");
+        before.addSteps("Engineering", 5000L);
+        before.addSteps("Sales", 300L);
+        StepSnapshotter snapshotter = newSnapshotter(before, null);
+        snapshotter.start();
+        snapshotter.snapshot();
+        snapshotter.stop();
+
+        // When
+        TeamStepService after = new TeamStepService();
+        StepSnapshotter restored = newSnapshotter(after, null);
+        restored.start();
+        restored.stop();
+
+        // Then
+        assertEquals(5000L, after.getTeamSteps("Engineering").getStepCount());
+        assertEquals(300L, after.getTeamSteps("Sales").getStepCount());
+        assertEquals("Engineering", after.getLeaderboard().get(0).getTeamId());
+        assertTrue(snapshotter.getLastSnapshotBytes() > 0);
+    }
+
+    @Test
+    void restart_ShouldRestoreTeamHierarchyFromSnapshot() throws Exception {
+        // Given
+        TeamStepService before = new TeamStepService();
+        before.createTeam("Backend", "Platform", "Acme");
+        before.createTeam("Frontend", "Platform", null);
+        before.addSteps("Backend", 400L);
+        before.addSteps("Frontend", 100L);
+        StepSnapshotter snapshotter = newSnapshotter(before, null);
+        snapshotter.start();
+        snapshotter.snapshot();
+        snapshotter.stop();
+
+        // When
+        TeamStepService after = new TeamStepService();
+        StepSnapshotter restored = newSnapshotter(after, null);
+        restored.start();
+        restored.stop();
+
+        // Then
+        assertEquals(500L, after.getGroupSteps(GroupLevel.DEPARTMENT, "Platform").getStepCount());
+        assertEquals(500L, after.getGroupSteps(GroupLevel.COMPANY, "Acme").getStepCount());
+    }
+
+    @Test
+    void restart_ShouldRestoreTenantTeamsFromSnapshot() throws Exception {
+        // Given
+        TeamStepService before = new TeamStepService();
+        before.createTeam("Engineering");
+        before.tenant("acme").createTeam("Engineering", "Platform", null);
+        before.tenant("acme").addSteps("Engineering", 250L);
+        StepSnapshotter snapshotter = newSnapshotter(before, null);
+        snapshotter.start();
+        snapshotter.snapshot();
+        snapshotter.stop();
+
+        // When
+        TeamStepService after = new TeamStepService();
+        StepSnapshotter restored = newSnapshotter(after, null);
+        restored.start();
+        restored.stop();
+
+        // Then
+        assertEquals(0L, after.getTeamSteps("Engineering").getStepCount());
+        assertEquals(250L, after.existingTenant("acme").getTeamSteps("Engineering").getStepCount());
+        assertEquals(250L, after.existingTenant("acme").getGroupSteps(GroupLevel.DEPARTMENT, "Platform")
+                .getStepCount());
+    }
+
+    @Test
+    void restart_ShouldApplyJournalTailAfterSnapshot() throws Exception {
+        // Given
+        TeamStepService before = new TeamStepService();
+        StepJournal[] journal = new StepJournal[1];
+        StepSnapshotter snapshotter = newSnapshotter(before, journal);
+        snapshotter.start();
+        journal[0] = newJournal(before, snapshotter);
+        journal[0].open();
+        before.createTeam("Engineering");
+        before.createTeam("Marketing");
+        before.addSteps("Engineering", 5000L);
+        snapshotter.snapshot();
+        before.addSteps("Engineering", 1000L);
+        before.removeTeam("Marketing");
+        before.createTeam("Sales");
+        journal[0].close();
+        snapshotter.stop();
+
+        // When
+        TeamStepService after = new TeamStepService();
+        StepJournal[] reopenedJournal = new StepJournal[1];
+        StepSnapshotter restored = newSnapshotter(after, reopenedJournal);
+        restored.start();
+        reopenedJournal[0] = newJournal(after, restored);
+        reopenedJournal[0].open();
+        after.createTeam("Support");
+        reopenedJournal[0].close();
+        restored.stop();
+
+        // Then
+        assertTrue(restored.getRestoredJournalOffset() > 0);
+        assertEquals(6000L, after.getTeamSteps("Engineering").getStepCount());
+        assertEquals(0L, after.getTeamSteps("Sales").getStepCount());
+        assertThrows(TeamNotFoundException.class, () -> after.getTeamSteps("Marketing"));
+        assertEquals(3, after.getTeamCount());
+    }
+
+    @Test
+    void snapshot_ShouldRollJournalAndDeleteCoveredSegments() throws Exception {
+        // Given
+        TeamStepService before = new TeamStepService();
+        StepJournal[] journal = new StepJournal[1];
+        StepSnapshotter snapshotter = newSnapshotter(before, journal);
+        snapshotter.start();
+        journal[0] = newJournal(before, snapshotter);
+        journal[0].open();
+        before.createTeam("Engineering");
+        before.addSteps("Engineering", 5000L);
+        snapshotter.snapshot();
+        before.addSteps("Engineering", 1000L);
+        before.createTeam("Sales");
+
+        // When
+        snapshotter.snapshot();
+        before.addSteps("Sales", 250L);
+        journal[0].close();
+        snapshotter.stop();
+
+        // Then
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(List.of("teams.journal", "teams.snapshot"),
+                    files.map(file -> file.getFileName().toString()).sorted().toList());
+        }
+        TeamStepService after = new TeamStepService();
+        StepJournal[] reopenedJournal = new StepJournal[1];
+        StepSnapshotter restored = newSnapshotter(after, reopenedJournal);
+        restored.start();
+        reopenedJournal[0] = newJournal(after, restored);
+        reopenedJournal[0].open();
+        reopenedJournal[0].close();
+        restored.stop();
+        assertEquals(6000L, after.getTeamSteps("Engineering").getStepCount());
+        assertEquals(250L, after.getTeamSteps("Sales").getStepCount());
+    }
+
+    @Test
+    void restart_WithCorruptSnapshot_ShouldFail() throws Exception {
+        // Given
+        TeamStepService before = new TeamStepService();
+        before.createTeam("Engineering");
+        StepSnapshotter snapshotter = newSnapshotter(before, null);
+        snapshotter.start();
+        snapshotter.snapshot();
+        snapshotter.stop();
+        byte[] bytes = Files.readAllBytes(snapshotPath());
+        bytes[bytes.length - 1] ^= 1;
+        Files.write(snapshotPath(), bytes);
+
+        // Then
+        StepSnapshotter restored = newSnapshotter(new TeamStepService(), null);
+        assertThrows(IOException.class, restored::start);
+    }
+
+    @Test
+    void varLong_ShouldRoundTrip() throws Exception {
+        // Given
+        long[] values = {0, 1, 127, 128, 300, Integer.MAX_VALUE, Long.MAX_VALUE};
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        for (long value : values) {
+            StepSnapshotter.writeVarLong(out, value);
+        }
+
+        // Then
+        ByteArrayInputStream in = new ByteArrayInputStream(out.toByteArray());
+        for (long value : values) {
+            assertEquals(value, StepSnapshotter.readVarLong(in));
+        }
+    }
+
+    private StepSnapshotter newSnapshotter(TeamStepService service, StepJournal[] journal) {
+        return new StepSnapshotter(service, new SnapshotProperties(true, snapshotPath(), Duration.ofHours(1)),
+                () -> journal == null ? null : journal[0]);
+    }
+
+    private StepJournal newJournal(TeamStepService service, StepSnapshotter snapshotter) {
+        return new StepJournal(service, new JournalProperties(true, directory.resolve("teams.journal"),
+                JournalDurability.INTERVAL, Duration.ofMillis(5)), snapshotter);
+    }
+
+    private Path snapshotPath() {
+        return directory.resolve("teams.snapshot");
+    }
+}
@@ -0,0 +1,183 @@
+package com.example.assessemnt.replication;
+
+import com.example.assessemnt.AssessemntApplication;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs a leader and two followers on localhost. The leader takes a write before the followers
+ * start, so they begin from its snapshot and then follow its change log.
+ */
+class ReplicationIntegrationTest {
+
+    private static final List<ConfigurableApplicationContext> contexts = new ArrayList<>();
+    private static final List<URI> followers = new ArrayList<>();
+    private static final HttpClient client = HttpClient.newHttpClient();
+    private static URI leader;
+
+    @BeforeAll
+    static void startNodes() throws Exception {
+        leader = freeAddress();
+        contexts.add(new SpringApplicationBuilder(AssessemntApplication.class).run(
+                "--server.port=" + leader.getPort(),
+                "--teams.replication.role=leader",
+                "--spring.jmx.enabled=false"));
+        send(leader, "PUT", "/api/teams/early?department=Platform&company=Acme", null);
+        send(leader, "POST", "/api/teams/early/steps", "{\"steps\":5}");
+        for (int i = 0; i < 2; i++) {
+            URI follower = freeAddress();
+            followers.add(follower);
+            contexts.add(new SpringApplicationBuilder(AssessemntApplication.class).run(
+                    "--server.port=" + follower.getPort(),
+                    "--teams.replication.role=follower",
+                    "--teams.replication.leader=" + leader,
+                    "--teams.replication.poll-wait=200ms",
+                    "--teams.replication.retry-delay=100ms",
+                    "--spring.jmx.enabled=false"));
+        }
+    }
+
+    @AfterAll
+    static void stopNodes() {
+        contexts.forEach(ConfigurableApplicationContext::close);
+    }
+
+    @Test
+    void followers_ShouldServeTeamsWrittenBeforeAndAfterTheyStarted() throws Exception {
+        // Given
+        send(leader, "PUT", "/api/teams/late", null);
+        send(leader, "POST", "/api/teams/late/steps", "{\"steps\":40}");
+        send(leader, "POST", "/api/teams/late/steps", "{\"steps\":2}");
+
+        // When / Then
+        for (URI follower : followers) {
+            await(follower, "/api/teams/late", body -> body.contains("\"stepCount\":42"));
+            HttpResponse<String> early = send(follower, "GET", "/api/teams/early", null);
+            assertTrue(early.body().contains("\"stepCount\":5"), early.body());
+            HttpResponse<String> company = send(follower, "GET", "/api/companies/Acme", null);
+            assertTrue(company.body().contains("\"stepCount\":5"), company.body());
+        }
+    }
+
+    @Test
+    void followers_ShouldReplicateRemovals() throws Exception {
+        // Given
+        send(leader, "PUT", "/api/teams/leaving", null);
+        await(followers.get(0), "/api/teams/leaving", body -> body.contains("\"teamId\":\"leaving\""));
+
+        // When
+        send(leader, "DELETE", "/api/teams/leaving", null);
+
+        // Then
+        for (URI follower : followers) {
+            await(follower, "/api/teams/leaderboard", body -> !body.contains("\"leaving\""));
+            assertEquals(404, send(follower, "GET", "/api/teams/leaving", null).statusCode());
+        }
+    }
+
+    @Test
+    void followers_ShouldReplicateTenantTeams() throws Exception {
+        // Given
+        send(leader, "PUT", "/api/tenants/acme/teams/early", null);
+        send(leader, "POST", "/api/tenants/acme/teams/early/steps", "{\"steps\":9}");
+
+        // When / Then
+        for (URI follower : followers) {
+            await(follower, "/api/tenants/acme/teams/early", body -> body.contains("\"stepCount\":9"));
+            HttpResponse<String> own = send(follower, "GET", "/api/teams/early", null);
+            assertTrue(own.body().contains("\"stepCount\":5"), own.body());
+        }
+        assertEquals(307, send(followers.get(0), "PUT", "/api/tenants/acme/teams/other", null).statusCode());
+    }
+
+    @Test
+    void follower_ShouldRedirectWritesToLeader() throws Exception {
+        // When
+        HttpResponse<String> response = send(followers.get(1), "POST", "/api/teams/early/steps?source=replica",
+                "{\"steps\":1}");
+
+        // Then
+        assertEquals(307, response.statusCode());
+        assertEquals(leader.resolve("/api/teams/early/steps?source=replica").toString(),
+                response.headers().firstValue("Location").orElseThrow());
+    }
+
+    @Test
+    void follower_ShouldRedirectWindowedAndHistoryReadsToLeader() throws Exception {
+        // When
+        HttpResponse<String> windowed = send(followers.get(0), "GET", "/api/teams/leaderboard?window=day", null);
+        HttpResponse<String> history = send(followers.get(0), "GET", "/api/tenants/acme/teams/early/history", null);
+        HttpResponse<String> total = send(followers.get(0), "GET", "/api/teams/early?window=all", null);
+
+        // Then
+        assertEquals(307, windowed.statusCode());
+        assertEquals(leader.resolve("/api/teams/leaderboard?window=day").toString(),
+                windowed.headers().firstValue("Location").orElseThrow());
+        assertEquals(307, history.statusCode());
+        assertEquals(200, total.statusCode());
+    }
+
+    @Test
+    void status_ShouldReportFollowerPositionAndLag() throws Exception {
+        // Given
+        send(leader, "PUT", "/api/teams/status-check", null);
+        String leaderStatus = send(leader, "GET", "/api/replication/status", null).body();
+        assertTrue(leaderStatus.contains("\"role\":\"LEADER\""), leaderStatus);
+        long leaderSequence = Long.parseLong(leaderStatus.replaceAll(".*\"sequence\":(\\d+).*", "$1"));
+
+        // When
+        String followerStatus = await(followers.get(0), "/api/replication/status", body ->
+                Long.parseLong(body.replaceAll(".*\"sequence\":(\\d+).*", "$1")) >= leaderSequence);
+
+        // Then
+        assertTrue(followerStatus.contains("\"role\":\"FOLLOWER\""), followerStatus);
+        long lagMillis = Long.parseLong(followerStatus.replaceAll(".*\"lagMillis\":(\\d+).*", "$1"));
+        assertTrue(lagMillis < 5_000, followerStatus);
+        assertEquals(404, send(followers.get(0), "GET", "/api/replication/snapshot", null).statusCode());
+    }
+
+    private static String await(URI node, String path, Predicate<String> condition) throws Exception {
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        String body;
+        do {
+            body = send(node, "GET", path, null).body();
+            if (condition.test(body)) {
+                return body;
+            }
+            Thread.sleep(20);
+        } while (System.nanoTime() < deadline);
+        fail("Condition not met on " + node + path + ": " + body);
+        return body;
+    }
+
+    private static URI freeAddress() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return URI.create("http://localhost:" + socket.getLocalPort());
+        }
+    }
+
+    private static HttpResponse<String> send(URI node, String method, String path, String json) throws Exception {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(node.resolve(path));
+        if (json == null) {
+            builder.method(method, HttpRequest.BodyPublishers.noBody());
+        } else {
+            builder.method(method, HttpRequest.BodyPublishers.ofString(json)).header("Content-Type", "application/json");
+        }
+        return client.send(builder.build(), HttpResponse.BodyHandlers.ofString());
+    }
+}
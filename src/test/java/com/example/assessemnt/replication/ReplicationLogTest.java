@@ -0,0 +1,132 @@
+package com.example.assessemnt.replication;
+
+import com.example.assessemnt.config.ReplicationProperties;
+import com.example.assessemnt.dto.ReplicatedChange;
+import com.example.assessemnt.dto.ReplicationBatch;
+import com.example.assessemnt.service.GroupLevel;
+import com.example.assessemnt.service.TeamChange;
+import com.example.assessemnt.service.TeamStepService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplicationLogTest {
+
+    private TeamStepService teamStepService;
+    private ReplicationLog replicationLog;
+
+    @BeforeEach
+    void setUp() {
+        teamStepService = new TeamStepService();
+        replicationLog = new ReplicationLog(teamStepService, properties(4));
+        replicationLog.start();
+    }
+
+    @Test
+    void changesAfter_ShouldNumberChangesInOrder() throws Exception {
+        // Given
+        teamStepService.createTeam("Engineering", "Platform", "Acme");
+        teamStepService.addSteps("Engineering", 40L);
+        teamStepService.removeTeam("Engineering");
+
+        // When
+        ReplicationBatch batch = replicationLog.changesAfter(replicationLog.getEpoch(), 1, 10, 0);
+
+        // Then
+        assertEquals(3, batch.getSequence());
+        List<ReplicatedChange> changes = batch.getChanges();
+        assertEquals(2, changes.size());
+        assertEquals(2, changes.get(0).getSequence());
+        assertEquals(TeamChange.Type.STEPS_ADDED, changes.get(0).getType());
+        assertEquals(40, changes.get(0).getStepCount());
+        assertEquals(TeamChange.Type.REMOVED, changes.get(1).getType());
+    }
+
+    @Test
+    void changesAfter_ShouldRespectLimit() throws Exception {
+        // Given
+        teamStepService.createTeam("Engineering");
+        teamStepService.addSteps("Engineering", 1L);
+        teamStepService.addSteps("Engineering", 2L);
+
+        // When
+        ReplicationBatch batch = replicationLog.changesAfter(replicationLog.getEpoch(), 0, 2, 0);
+
+        // Then
+        assertEquals(2, batch.getSequence());
+        assertEquals(2, batch.getChanges().size());
+    }
+
+    @Test
+    void changesAfter_WhenOverwrittenOrOtherEpoch_ShouldReturnNull() throws Exception {
+        // Given
+        teamStepService.createTeam("Engineering");
+        for (int i = 0; i < 5; i++) {
+            teamStepService.addSteps("Engineering", 1L);
+        }
+
+        // When / Then
+        assertNull(replicationLog.changesAfter(replicationLog.getEpoch(), 1, 10, 0));
+        assertNotNull(replicationLog.changesAfter(replicationLog.getEpoch(), 2, 10, 0));
+        assertNull(replicationLog.changesAfter(replicationLog.getEpoch(), 7, 10, 0));
+        assertNull(replicationLog.changesAfter("previous-run", 2, 10, 0));
+    }
+
+    @Test
+    void changesAfter_WhenCaughtUp_ShouldWaitForNextChange() throws Exception {
+        // Given
+        teamStepService.createTeam("Engineering");
+        CompletableFuture<ReplicationBatch> pending = CompletableFuture.supplyAsync(() -> {
+            try {
+                return replicationLog.changesAfter(replicationLog.getEpoch(), 1, 10, 10_000);
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        // When
+        Thread.sleep(100);
+        teamStepService.addSteps("Engineering", 7L);
+
+        // Then
+        ReplicationBatch batch = pending.get();
+        assertEquals(1, batch.getChanges().size());
+        assertEquals(7, batch.getChanges().getFirst().getStepCount());
+    }
+
+    @Test
+    void snapshot_ShouldRecreateLeaderStateOnAnotherService() {
+        // Given
+        teamStepService.createTeam("Engineering", "Platform", "Acme");
+        teamStepService.createTeam("Sales");
+        teamStepService.addSteps("Engineering", 100L);
+        teamStepService.addSteps("Sales", 50L);
+        TeamStepService replica = new TeamStepService();
+
+        // When
+        ReplicationBatch snapshot = replicationLog.snapshot();
+        snapshot.getChanges().forEach(team -> replica.apply(ReplicationLog.change(team)));
+
+        // Then
+        assertEquals(4, snapshot.getSequence());
+        assertEquals(ranking(teamStepService), ranking(replica));
+        assertEquals(100, replica.getGroupSteps(GroupLevel.COMPANY, "Acme").getStepCount());
+    }
+
+    private static List<String> ranking(TeamStepService service) {
+        return service.getLeaderboard().stream()
+                .map(entry -> entry.getTeamId() + "=" + entry.getStepCount())
+                .toList();
+    }
+
+    private static ReplicationProperties properties(int logCapacity) {
+        return new ReplicationProperties(ReplicationRole.LEADER, URI.create("http://localhost"), logCapacity, 100,
+                Duration.ofSeconds(1), Duration.ofSeconds(1), Duration.ofMillis(100));
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.assessemnt.service;
+
+import com.example.assessemnt.config.CounterProperties;
+import com.example.assessemnt.config.LeaderboardProperties;
+import com.example.assessemnt.dto.LeaderboardEntry;
+import com.example.assessemnt.dto.TeamRankResponse;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ApproximateRankingTest {
+
+    private static final double ACCURACY = 0.01;
+
+    @Test
+    void lowerBounds_ShouldKeepEveryRangeWithinTheRelativeAccuracy() {
+        // When
+        long[] bounds = StepCountSketch.lowerBounds(ACCURACY);
+
+        // Then
+        assertEquals(0L, bounds[0]);
+        assertEquals(1L, bounds[1]);
+        for (int i = 1; i < bounds.length - 1; i++) {
+            assertTrue(bounds[i + 1] > bounds[i]);
+            assertTrue(bounds[i + 1] - 1 <= bounds[i] * (1 + ACCURACY) || bounds[i + 1] == bounds[i] + 1);
+        }
+        assertTrue(bounds.length < 5000, "ranges: " + bounds.length);
+        assertThrows(IllegalArgumentException.class, () -> StepCountSketch.lowerBounds(0));
+        assertThrows(IllegalArgumentException.class, () -> StepCountSketch.lowerBounds(1));
+    }
+
+    @Test
+    void getLeaderboard_ShouldListTrackedTeamsInExactOrder() {
+        // Given
+        TeamStepService exact = new TeamStepService();
+        TeamStepService approximate = approximate(CounterMode.ATOMIC, 10);
+        addRandomSteps(500, exact, approximate);
+
+        // When
+        List<LeaderboardEntry> leaderboard = approximate.getLeaderboard();
+
+        // Then
+        assertEquals(10, leaderboard.size());
+        assertEquals(ids(exact.getLeaderboard(0, 10)), ids(leaderboard));
+        assertEquals(ids(exact.getLeaderboard(3, 4)), ids(approximate.getLeaderboard(3, 4)));
+        assertEquals(List.of(), approximate.getLeaderboard(10, 5));
+    }
+
+    @Test
+    void getTeamRank_ShouldBeExactForTrackedTeamsAndBoundedForOthers() {
+        // Given
+        TeamStepService exact = new TeamStepService();
+        TeamStepService approximate = approximate(CounterMode.ATOMIC, 20);
+        long[] counts = addRandomSteps(2000, exact, approximate);
+
+        for (int team = 0; team < counts.length; team++) {
+            // When
+            TeamRankResponse expected = exact.getTeamRank(id(team));
+            TeamRankResponse actual = approximate.getTeamRank(id(team));
+
+            // Then
+            assertEquals(expected.getStepCount(), actual.getStepCount());
+            assertEquals(2000, actual.getTotalTeams());
+            if (expected.getRank() <= 20) {
+                assertFalse(actual.getApproximate());
+                assertEquals(expected.getRank(), actual.getRank());
+            } else {
+                assertTrue(actual.getApproximate());
+                assertTrue(actual.getRank() > 20);
+                long count = counts[team];
+                long similar = Arrays.stream(counts)
+                        .filter(other -> other >= count / (1 + ACCURACY) && other <= count * (1 + ACCURACY))
+                        .count();
+                assertTrue(Math.abs(actual.getRank() - expected.getRank()) <= similar,
+                        id(team) + " ranked " + actual.getRank() + ", exactly " + expected.getRank());
+            }
+            assertEquals(expected.getPercentile(), actual.getPercentile(), 100.0 * counts.length / 2000);
+        }
+    }
+
+    @Test
+    void removeTeam_FromTrackedTeams_ShouldRefillFromRemainingTeams() {
+        // Given
+        TeamStepService service = approximate(CounterMode.STRIPED, 3);
+        for (int team = 0; team < 6; team++) {
+            service.createTeam(id(team));
+            service.addSteps(id(team), (team + 1) * 10L);
+        }
+
+        // When
+        service.removeTeam(id(5));
+        service.removeTeam(id(3));
+
+        // Then
+        assertEquals(List.of(id(4), id(2), id(1)), ids(service.getLeaderboard()));
+        assertEquals(4, service.getTeamRank(id(0)).getRank());
+        assertEquals(4, service.getTeamRank(id(0)).getTotalTeams());
+        assertEquals(0.0, service.getTeamRank(id(0)).getPercentile());
+        assertEquals(100.0, service.getTeamRank(id(4)).getPercentile());
+    }
+
+    @Test
+    void tenant_ShouldUseTheRootRankingMode() {
+        // Given
+        TeamStepService tenant = approximate(CounterMode.ATOMIC, 2).tenant("acme");
+        for (int team = 0; team < 5; team++) {
+            tenant.createTeam(id(team));
+            tenant.addSteps(id(team), team * 100L);
+        }
+
+        // When & Then
+        assertEquals(List.of(id(4), id(3)), ids(tenant.getLeaderboard()));
+        assertTrue(tenant.getTeamRank(id(1)).getApproximate());
+        assertEquals(4, tenant.getTeamRank(id(1)).getRank());
+    }
+
+    private static long[] addRandomSteps(int teamCount, TeamStepService... services) {
+        Random random = new Random(42);
+        long[] counts = new long[teamCount];
+        for (int team = 0; team < teamCount; team++) {
+            for (TeamStepService service : services) {
+                service.createTeam(id(team));
+            }
+        }
+        for (int i = 0; i < teamCount * 5; i++) {
+            int team = random.nextInt(teamCount);
+            long steps = 1 + random.nextInt(10_000);
+            counts[team] += steps;
+            for (TeamStepService service : services) {
+                service.addSteps(id(team), steps);
+            }
+        }
+        return counts;
+    }
+
+    private static TeamStepService approximate(CounterMode mode, int trackedTeams) {
+        return new TeamStepService(new TeamStepService.Options()
+                .counters(new CounterProperties(mode))
+                .leaderboard(new LeaderboardProperties(Duration.ZERO, Duration.ofSeconds(1), 20,
+                        LeaderboardRanking.APPROXIMATE, trackedTeams, ACCURACY)));
+    }
+
+    private static List<String> ids(List<LeaderboardEntry> entries) {
+        return entries.stream().map(LeaderboardEntry::getTeamId).toList();
+    }
+
+    private static String id(int team) {
+        return "team-" + team;
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.assessemnt.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotencyCacheTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final IdempotencyCache cache = new IdempotencyCache(TimeUnit.MINUTES.toNanos(10), 1024, now::get);
+
+    @Test
+    void claim_WithRepeatedKey_ShouldOnlySucceedOnce() {
+        // When & Then
+        assertTrue(cache.claim("Engineering", "key-1"));
+        assertFalse(cache.claim("Engineering", "key-1"));
+        assertTrue(cache.claim("Sales", "key-1"));
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    void claim_AfterTtl_ShouldSucceedAgain() {
+        // Given
+        cache.claim("Engineering", "key-1");
+
+        // When
+        now.addAndGet(TimeUnit.MINUTES.toNanos(10) + 1);
+
+        // Then
+        assertTrue(cache.claim("Engineering", "key-1"));
+    }
+
+    @Test
+    void claim_BeyondCapacity_ShouldStayBounded() {
+        // When
+        for (int i = 0; i < 100_000; i++) {
+            cache.claim("Engineering", "key-" + i);
+        }
+
+        // Then
+        assertTrue(cache.size() <= 1024, "Size " + cache.size());
+        assertFalse(cache.claim("Engineering", "key-99999"));
+    }
+
+    @Test
+    void release_ShouldAllowKeyToBeClaimedAgain() {
+        // Given
+        cache.claim("Engineering", "key-1");
+
+        // When
+        cache.release("Engineering", "key-1");
+
+        // Then
+        assertTrue(cache.claim("Engineering", "key-1"));
+    }
+}
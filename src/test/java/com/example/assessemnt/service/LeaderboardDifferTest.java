@@ -0,0 +1,78 @@
+package com.example.assessemnt.service;
+
+import com.example.assessemnt.dto.LeaderboardEntry;
+import com.example.assessemnt.dto.LeaderboardUpdate;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LeaderboardDifferTest {
+
+    private final LeaderboardDiffer differ = new LeaderboardDiffer();
+
+    @Test
+    void diff_FirstLeaderboard_ShouldListAllTeams() {
+        // When
+        LeaderboardUpdate update = differ.diff(List.of(
+                new LeaderboardEntry("Engineering", 5000L),
+                new LeaderboardEntry("Sales", 3000L)));
+
+        // Then
+        assertEquals(1L, update.getSequence());
+        assertEquals(2, update.getChanges().size());
+        assertEquals(1, update.getChanges().get(0).getRank());
+        assertEquals(5000L, update.getChanges().get(0).getStepDelta());
+        assertTrue(update.getRemoved().isEmpty());
+    }
+
+    @Test
+    void diff_WithoutChanges_ShouldReturnNull() {
+        // Given
+        differ.diff(List.of(new LeaderboardEntry("Engineering", 5000L)));
+
+        // Then
+        assertNull(differ.diff(List.of(new LeaderboardEntry("Engineering", 5000L))));
+    }
+
+    @Test
+    void diff_ShouldOnlyListChangedRanksAndScores() {
+        // Given
+        differ.diff(List.of(
+                new LeaderboardEntry("Engineering", 5000L),
+                new LeaderboardEntry("Sales", 3000L),
+                new LeaderboardEntry("Marketing", 1000L)));
+
+        // When
+        LeaderboardUpdate update = differ.diff(List.of(
+                new LeaderboardEntry("Sales", 6000L),
+                new LeaderboardEntry("Engineering", 5000L),
+                new LeaderboardEntry("Support", 2000L)));
+
+        // Then
+        assertEquals(2L, update.getSequence());
+        assertEquals(3, update.getChanges().size());
+        assertEquals("Sales", update.getChanges().get(0).getTeamId());
+        assertEquals(3000L, update.getChanges().get(0).getStepDelta());
+        assertEquals("Engineering", update.getChanges().get(1).getTeamId());
+        assertEquals(0L, update.getChanges().get(1).getStepDelta());
+        assertEquals(2, update.getChanges().get(1).getRank());
+        assertEquals("Support", update.getChanges().get(2).getTeamId());
+        assertEquals(List.of("Marketing"), update.getRemoved());
+    }
+
+    @Test
+    void current_ShouldDescribeLastLeaderboard() {
+        // Given
+        differ.diff(List.of(new LeaderboardEntry("Engineering", 5000L)));
+
+        // When
+        LeaderboardUpdate current = differ.current();
+
+        // Then
+        assertEquals(1L, current.getSequence());
+        assertEquals("Engineering", current.getChanges().get(0).getTeamId());
+        assertEquals(5000L, current.getChanges().get(0).getStepCount());
+    }
+}
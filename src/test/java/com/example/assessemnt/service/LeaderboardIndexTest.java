@@ -0,0 +1,39 @@
+package com.example.assessemnt.service;
+
+import com.example.assessemnt.dto.LeaderboardEntry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LeaderboardIndexTest {
+
+    @Test
+    void update_WhenRemovedGenerationIsReindexedAfterRecreate_ShouldKeepRecreatedTeam() {
+        // Given
+        LeaderboardIndex index = new LeaderboardIndex();
+        TeamCounter removed = TeamCounter.create("Engineering", 1, CounterMode.ATOMIC);
+        TeamCounter other = TeamCounter.create("Sales", 2, CounterMode.ATOMIC);
+        removed.add(100);
+        other.add(50);
+        index.update(removed);
+        index.update(other);
+
+        // When
+        TeamCounter recreated = TeamCounter.create("Engineering", 3, CounterMode.ATOMIC);
+        recreated.add(100);
+        index.update(recreated);
+        removed.markRemoved();
+        index.update(removed);
+
+        // Then
+        List<LeaderboardEntry> page = index.page(0, 10);
+        assertEquals(List.of("Engineering", "Sales"), page.stream().map(LeaderboardEntry::getTeamId).toList());
+        assertEquals(100L, page.get(0).getStepCount());
+        assertEquals(2, index.size());
+        assertEquals(1, index.rank(recreated).rank());
+        assertEquals(2, index.rank(other).rank());
+        assertEquals(List.of("Sales"), index.page(1, 10).stream().map(LeaderboardEntry::getTeamId).toList());
+    }
+}
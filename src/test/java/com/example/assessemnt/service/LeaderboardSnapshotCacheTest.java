@@ -0,0 +1,85 @@
+package com.example.assessemnt.service;
+
+import com.example.assessemnt.config.LeaderboardProperties;
+import com.example.assessemnt.service.LeaderboardSnapshotCache.LeaderboardSnapshot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LeaderboardSnapshotCacheTest {
+
+    private TeamStepService teamStepService;
+
+    @BeforeEach
+    void setUp() {
+        teamStepService = new TeamStepService();
+        teamStepService.createTeam("Engineering");
+        teamStepService.addSteps("Engineering", 5000L);
+    }
+
+    @Test
+    void current_ShouldSerialiseLeaderboard() {
+        // Given
+        LeaderboardSnapshotCache cache = cacheWithStaleness(Duration.ZERO);
+
+        // When
+        LeaderboardSnapshot snapshot = cache.current();
+
+        // Then
+        assertEquals("[{\"teamId\":\"Engineering\",\"stepCount\":5000}]",
+                new String(snapshot.body(), StandardCharsets.UTF_8));
+        assertNotNull(snapshot.etag());
+    }
+
+    @Test
+    void current_WithoutChanges_ShouldReuseSnapshot() {
+        // Given
+        LeaderboardSnapshotCache cache = cacheWithStaleness(Duration.ZERO);
+        LeaderboardSnapshot first = cache.current();
+
+        // When
+        LeaderboardSnapshot second = cache.current();
+
+        // Then
+        assertSame(first, second);
+    }
+
+    @Test
+    void current_AfterChangeWithZeroStaleness_ShouldRebuild() {
+        // Given
+        LeaderboardSnapshotCache cache = cacheWithStaleness(Duration.ZERO);
+        LeaderboardSnapshot first = cache.current();
+
+        // When
+        teamStepService.addSteps("Engineering", 1L);
+        LeaderboardSnapshot second = cache.current();
+
+        // Then
+        assertNotEquals(first.etag(), second.etag());
+        assertTrue(new String(second.body(), StandardCharsets.UTF_8).contains("5001"));
+    }
+
+    @Test
+    void current_AfterChangeWithinStalenessWindow_ShouldServeCachedSnapshot() {
+        // Given
+        LeaderboardSnapshotCache cache = cacheWithStaleness(Duration.ofHours(1));
+        LeaderboardSnapshot first = cache.current();
+
+        // When
+        teamStepService.addSteps("Engineering", 1L);
+        LeaderboardSnapshot second = cache.current();
+
+        // Then
+        assertSame(first, second);
+    }
+
+    private LeaderboardSnapshotCache cacheWithStaleness(Duration maxStaleness) {
+        return new LeaderboardSnapshotCache(teamStepService, new JsonMapper(), new LeaderboardProperties(maxStaleness, Duration.ofSeconds(1), 20,
+                LeaderboardRanking.EXACT, 1000, 0.01));
+    }
+}
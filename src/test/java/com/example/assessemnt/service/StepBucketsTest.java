@@ -0,0 +1,85 @@
+package com.example.assessemnt.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedClass;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ParameterizedClass
+@MethodSource("variants")
+class StepBucketsTest {
+
+    private final Supplier<StepBuckets> factory;
+    private StepBuckets buckets;
+
+    StepBucketsTest(Supplier<StepBuckets> factory) {
+        this.factory = factory;
+    }
+
+    static Stream<Arguments> variants() {
+        return Stream.of(
+                Arguments.argumentSet("packed", (Supplier<StepBuckets>) StepBuckets.Packed::new),
+                Arguments.argumentSet("striped", (Supplier<StepBuckets>) StepBuckets.Striped::new));
+    }
+
+    @BeforeEach
+    void setUp() {
+        buckets = factory.get();
+    }
+
+    @Test
+    void sum_ShouldOnlyCountDaysInRange() {
+        // Given
+        buckets.add(20_000, 100);
+        buckets.add(20_001, 20);
+        buckets.add(20_001, 5);
+        buckets.add(20_003, 7);
+
+        // Then
+        assertEquals(25, buckets.sum(20_001, 20_001));
+        assertEquals(132, buckets.sum(20_000, 20_003));
+        assertEquals(0, buckets.sum(20_004, 20_005));
+    }
+
+    @Test
+    void add_ShouldResetSlotOfExpiredDay() {
+        // Given
+        buckets.add(20_000, 100);
+
+        // When
+        buckets.add(20_007, 3);
+
+        // Then
+        assertEquals(0, buckets.sum(20_000, 20_000));
+        assertEquals(3, buckets.sum(20_001, 20_007));
+    }
+
+    @Test
+    void add_ForOlderDayThanSlot_ShouldCountTowardsNewerDay() {
+        // Given
+        buckets.add(20_007, 3);
+
+        // When
+        buckets.add(20_000, 100);
+
+        // Then
+        assertEquals(103, buckets.sum(20_007, 20_007));
+    }
+
+    @Test
+    void add_WithHugeCount_ShouldNotCorruptDay() {
+        // When
+        buckets.add(20_000, Long.MAX_VALUE / 2);
+        buckets.add(20_000, Long.MAX_VALUE / 2);
+
+        // Then
+        assertTrue(buckets.sum(20_000, 20_000) > 0);
+        assertEquals(0, buckets.sum(20_001, 20_006));
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.assessemnt.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StepHistoryTest {
+
+    private static final long HOUR = Duration.ofHours(1).toMillis();
+    private static final long DAY = Duration.ofDays(1).toMillis();
+    private static final long START = Instant.parse("2024-05-15T00:00:00Z").toEpochMilli();
+
+    // hourly for two days, daily up to ten days
+    private final StepHistory history = new StepHistory(new StepHistory.Settings(HOUR, 48, 24, 240));
+
+    @Test
+    void add_ShouldSumStepsPerBucket() {
+        // Given
+        history.add(START + 5, 10);
+        history.add(START + HOUR - 1, 5);
+        history.add(START + 3 * HOUR, 7);
+
+        // When
+        List<long[]> buckets = visit(START, START + DAY);
+
+        // Then
+        assertEquals(2, buckets.size());
+        assertArrayEquals(new long[] {START, HOUR, 15}, buckets.get(0));
+        assertArrayEquals(new long[] {START + 3 * HOUR, HOUR, 7}, buckets.get(1));
+    }
+
+    @Test
+    void forEach_ShouldOnlyVisitBucketsStartingInRange() {
+        // Given
+        for (int hour = 0; hour < 200; hour++) {
+            history.add(START + hour * HOUR, hour + 1);
+        }
+
+        // When
+        List<long[]> buckets = visit(START + 150 * HOUR, START + 153 * HOUR);
+
+        // Then
+        assertEquals(3, buckets.size());
+        assertEquals(151, buckets.get(0)[2]);
+        assertEquals(153, buckets.get(2)[2]);
+    }
+
+    @Test
+    void add_ShouldDownsampleOldBucketsAndDropExpiredOnes() {
+        // Given - one step per hour for twenty days
+        for (int hour = 0; hour < 20 * 24; hour++) {
+            history.add(START + hour * HOUR, 1);
+        }
+
+        // When
+        List<long[]> buckets = visit(START, START + 20 * DAY);
+
+        // Then
+        long total = buckets.stream().mapToLong(bucket -> bucket[2]).sum();
+        long[] oldest = buckets.getFirst();
+        assertTrue(oldest[0] >= START + 9 * DAY, "kept " + Instant.ofEpochMilli(oldest[0]));
+        assertEquals(DAY, oldest[1]);
+        assertEquals(24, oldest[2]);
+        assertEquals(HOUR, buckets.getLast()[1]);
+        assertEquals((20 * DAY - oldest[0] + START) / HOUR, total);
+        assertTrue(history.encodedBytes() < 1024, history.encodedBytes() + " bytes");
+    }
+
+    @Test
+    void add_ConcurrentWritersAcrossBuckets_ShouldNotLoseSteps() throws Exception {
+        // Given
+        int threads = 4;
+        int perThread = 20_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+
+        // When
+        for (int t = 0; t < threads; t++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < perThread; i++) {
+                    history.add(START + (i / 1_000) * HOUR, 1);
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        // Then
+        long total = visit(START, START + DAY).stream().mapToLong(bucket -> bucket[2]).sum();
+        assertEquals((long) threads * perThread, total);
+    }
+
+    @Test
+    void add_StepsAboveBucketCapacity_ShouldBeKept() {
+        // Given
+        history.add(START, 1L << 40);
+        history.add(START, 3);
+
+        // When
+        long total = visit(START, START + HOUR).stream().mapToLong(bucket -> bucket[2]).sum();
+
+        // Then
+        assertEquals((1L << 40) + 3, total);
+    }
+
+    private List<long[]> visit(long from, long to) {
+        List<long[]> buckets = new ArrayList<>();
+        history.forEach(from, to, (startMillis, widthMillis, steps) ->
+                buckets.add(new long[] {startMillis, widthMillis, steps}));
+        return buckets;
+    }
+}
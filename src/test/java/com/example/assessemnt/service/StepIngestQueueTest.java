@@ -0,0 +1,185 @@
+package com.example.assessemnt.service;
+
+import com.example.assessemnt.config.IngestProperties;
+import com.example.assessemnt.exception.TeamNotFoundException;
+import com.example.assessemnt.exception.TooManyRequestsException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StepIngestQueueTest {
+
+    private TeamStepService teamStepService;
+    private StepIngestQueue queue;
+
+    @BeforeEach
+    void setUp() {
+        teamStepService = new TeamStepService();
+        teamStepService.createTeam("Engineering");
+        teamStepService.createTeam("Sales");
+        queue = new StepIngestQueue(teamStepService, new IngestProperties(true, 1024, 256, Duration.ofSeconds(1)));
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        queue.stop();
+    }
+
+    @Test
+    void submit_ShouldApplyStepsInBackground() {
+        // Given
+        queue.start();
+
+        // When
+        queue.submit("Engineering", 100L);
+        queue.submit("Engineering", 50L);
+        queue.submit("Sales", 10L);
+
+        // Then
+        assertTrue(queue.awaitApplied(Duration.ofSeconds(5)));
+        assertEquals(150L, teamStepService.getTeamSteps("Engineering").getStepCount());
+        assertEquals(10L, teamStepService.getTeamSteps("Sales").getStepCount());
+        assertEquals(3, queue.getAppliedCount());
+        assertEquals(0, queue.getDepth());
+    }
+
+    @Test
+    void submit_BeforeApplierRuns_ShouldCoalesceIntoOneBatch() {
+        // Given
+        for (int i = 0; i < 200; i++) {
+            queue.submit(i % 2 == 0 ? "Engineering" : "Sales", 1L);
+        }
+        assertEquals(200, queue.getDepth());
+
+        // When
+        queue.start();
+
+        // Then
+        assertTrue(queue.awaitApplied(Duration.ofSeconds(5)));
+        assertEquals(100L, teamStepService.getTeamSteps("Engineering").getStepCount());
+        assertEquals(100L, teamStepService.getTeamSteps("Sales").getStepCount());
+        assertEquals(1, queue.getBatchCount());
+        assertEquals(2, teamStepService.getStepUpdateCount());
+    }
+
+    @Test
+    void submit_FromManyThreads_ShouldApplyEverySubmission() throws InterruptedException {
+        // Given
+        queue.start();
+        List<Thread> producers = new ArrayList<>();
+
+        // When
+        for (int t = 0; t < 4; t++) {
+            Thread producer = new Thread(() -> {
+                for (int i = 0; i < 5_000; i++) {
+                    while (true) {
+                        try {
+                            queue.submit("Engineering", 1L);
+                            break;
+                        } catch (TooManyRequestsException e) {
+                            Thread.onSpinWait();
+                        }
+                    }
+                }
+            });
+            producers.add(producer);
+            producer.start();
+        }
+        for (Thread producer : producers) {
+            producer.join();
+        }
+
+        // Then
+        assertTrue(queue.awaitApplied(Duration.ofSeconds(10)));
+        assertEquals(20_000L, teamStepService.getTeamSteps("Engineering").getStepCount());
+        assertTrue(queue.getBatchCount() <= 20_000);
+    }
+
+    @Test
+    void submit_WhenQueueFull_ShouldThrowTooManyRequests() {
+        // Given
+        queue = new StepIngestQueue(teamStepService, new IngestProperties(true, 4, 256, Duration.ofSeconds(2)));
+        for (int i = 0; i < 4; i++) {
+            queue.submit("Engineering", 1L);
+        }
+
+        // When
+        TooManyRequestsException exception =
+                assertThrows(TooManyRequestsException.class, () -> queue.submit("Engineering", 1L));
+
+        // Then
+        assertEquals(Duration.ofSeconds(2), exception.getRetryAfter());
+        assertEquals(1, queue.getRejectedCount());
+        assertEquals(4, queue.getDepth());
+    }
+
+    @Test
+    void submit_WithUnknownTeam_ShouldThrowException() {
+        // When & Then
+        assertThrows(TeamNotFoundException.class, () -> queue.submit("Unknown", 1L));
+        assertThrows(IllegalArgumentException.class, () -> queue.submit("Engineering", -1L));
+        assertEquals(0, queue.getAcceptedCount());
+    }
+
+    @Test
+    void submit_WhenTeamRemovedBeforeApply_ShouldDropSubmission() {
+        // Given
+        queue.submit("Sales", 10L);
+
+        // When
+        teamStepService.removeTeam("Sales");
+        queue.start();
+
+        // Then
+        assertTrue(queue.awaitApplied(Duration.ofSeconds(5)));
+        assertEquals(1, queue.getDroppedCount());
+    }
+
+    @Test
+    void submit_WhenTeamRecreatedBeforeApply_ShouldNotAddStepsToNewTeam() {
+        // Given
+        queue.submit("Sales", 10L);
+        queue.submit("Sales", 5L);
+        teamStepService.removeTeam("Sales");
+        teamStepService.createTeam("Sales");
+        queue.submit("Sales", 7L);
+
+        // When
+        queue.start();
+
+        // Then
+        assertTrue(queue.awaitApplied(Duration.ofSeconds(5)));
+        assertEquals(7L, teamStepService.getTeamSteps("Sales").getStepCount());
+        assertEquals(2, queue.getDroppedCount());
+        assertEquals(1, queue.getAppliedCount());
+    }
+
+    @Test
+    void submit_WhenApplyingOneTeamFails_ShouldApplyOtherTeamsAndCountFailure() {
+        // Given
+        teamStepService.addChangeListener(change -> {
+            if (change.teamId().equals("Sales")) {
+                throw new IllegalStateException("listener failed");
+            }
+        });
+        queue.submit("Sales", 10L);
+        queue.submit("Sales", 5L);
+        queue.submit("Engineering", 100L);
+
+        // When
+        queue.start();
+
+        // Then
+        assertTrue(queue.awaitApplied(Duration.ofSeconds(5)));
+        assertEquals(100L, teamStepService.getTeamSteps("Engineering").getStepCount());
+        assertEquals(1, queue.getAppliedCount());
+        assertEquals(2, queue.getFailedCount());
+        assertEquals(0, queue.getDroppedCount());
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.assessemnt.service;
+
+import com.example.assessemnt.dto.TeamImportResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TeamBulkTransferTest {
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+    private TeamStepService teamStepService;
+    private TeamBulkTransfer teamBulkTransfer;
+
+    @BeforeEach
+    void setUp() {
+        teamStepService = new TeamStepService();
+        teamBulkTransfer = new TeamBulkTransfer(teamStepService, jsonMapper);
+    }
+
+    @Test
+    void importTeams_ShouldCreateTeamsWithStartingTotals() throws Exception {
+        // Given
+        String ndjson = """
+                {"teamId":"Engineering","stepCount":1500,"department":"Platform","company":"Acme"}
+                {"teamId":"Sales"}
+
+                {"teamId":"Support","stepCount":20,"company":"Acme"}
+                """;
+
+        // When
+        TeamImportResult result = teamBulkTransfer.importTeams(stream(ndjson));
+
+        // Then
+        assertEquals(3, result.getCreated());
+        assertEquals(0, result.getFailed());
+        assertEquals(1500L, teamStepService.getTeamSteps("Engineering").getStepCount());
+        assertEquals(0L, teamStepService.getTeamSteps("Sales").getStepCount());
+        assertEquals(1520L, teamStepService.getGroupSteps(GroupLevel.COMPANY, "Acme").getStepCount());
+        assertEquals("Engineering", teamStepService.getLeaderboard().getFirst().getTeamId());
+        assertEquals(0L, teamStepService.getTeamSteps("Engineering", StepWindow.DAY).getStepCount());
+    }
+
+    @Test
+    void importTeams_Repeated_ShouldLeaveExistingTeamsUnchanged() throws Exception {
+        // Given
+        teamBulkTransfer.importTeams(stream("{\"teamId\":\"Engineering\",\"stepCount\":100}\n"));
+        teamStepService.addSteps("Engineering", 5L);
+
+        // When
+        TeamImportResult result = teamBulkTransfer.importTeams(stream(
+                "{\"teamId\":\"Engineering\",\"stepCount\":100}\n{\"teamId\":\"Sales\",\"stepCount\":7}\n"));
+
+        // Then
+        assertEquals(1, result.getCreated());
+        assertEquals(1, result.getExisting());
+        assertEquals(105L, teamStepService.getTeamSteps("Engineering").getStepCount());
+    }
+
+    @Test
+    void importTeams_InvalidLines_ShouldBeReportedAndSkipped() throws Exception {
+        // Given
+        String ndjson = """
+                {"teamId":"Engineering","stepCount":10}
+                {"teamId":"Broken",
+                {"teamId":"Negative","stepCount":-1}
+                {"stepCount":3}
+                null
+                {"teamId":"Sales","stepCount":2}
+                """;
+
+        // When
+        TeamImportResult result = teamBulkTransfer.importTeams(stream(ndjson));
+
+        // Then
+        assertEquals(2, result.getCreated());
+        assertEquals(4, result.getFailed());
+        assertEquals(List.of(2L, 3L, 4L, 5L), result.getErrors().stream().map(error -> error.getLine()).toList());
+        assertEquals("Steps must be non-negative", result.getErrors().get(1).getError());
+        assertEquals(2, teamStepService.getTeamCount());
+    }
+
+    @Test
+    void importTeams_ShouldNotifyChangeListeners() throws Exception {
+        // Given
+        List<TeamChange> changes = new ArrayList<>();
+        teamStepService.addChangeListener(changes::add);
+
+        // When
+        teamBulkTransfer.importTeams(stream("{\"teamId\":\"Engineering\",\"stepCount\":40,\"company\":\"Acme\"}\n"));
+
+        // Then
+        assertEquals(List.of(TeamChange.Type.CREATED, TeamChange.Type.STEPS_ADDED),
+                changes.stream().map(TeamChange::type).toList());
+        assertEquals("Acme", changes.getFirst().company());
+        assertEquals(40, changes.getLast().stepCount());
+    }
+
+    @Test
+    void exportTeams_ShouldWriteOneLinePerTeamThatImportsBack() throws Exception {
+        // Given
+        teamStepService.createTeam("Engineering", "Platform", "Acme");
+        teamStepService.createTeam("Sales");
+        teamStepService.addSteps("Engineering", 300L);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        long exported = teamBulkTransfer.exportTeams(out);
+        TeamStepService copy = new TeamStepService();
+        TeamImportResult result = new TeamBulkTransfer(copy, jsonMapper)
+                .importTeams(new ByteArrayInputStream(out.toByteArray()));
+
+        // Then
+        String ndjson = out.toString(StandardCharsets.UTF_8);
+        assertEquals(2, exported);
+        assertEquals(2, ndjson.lines().count());
+        assertTrue(ndjson.endsWith("\n"));
+        assertTrue(ndjson.contains("{\"teamId\":\"Sales\",\"stepCount\":0}"), ndjson);
+        assertEquals(2, result.getCreated());
+        assertEquals(300L, copy.getTeamSteps("Engineering").getStepCount());
+        assertEquals("Acme", copy.getGroupSteps(GroupLevel.DEPARTMENT, "Platform").getParentId());
+    }
+
+    @Test
+    void exportTeams_OfTenant_ShouldOnlyWriteItsTeamsAndImportIntoAnother() throws Exception {
+        // Given
+        teamStepService.createTeam("Engineering");
+        teamStepService.tenant("acme").createTeam("Sales", null, "Acme");
+        teamStepService.tenant("acme").addSteps("Sales", 70L);
+        teamStepService.tenant("globex").createTeam("Support");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        long exported = teamBulkTransfer.exportTeams(teamStepService.existingTenant("acme"), out);
+        TeamImportResult result = teamBulkTransfer.importTeams(teamStepService.tenant("initech"),
+                new ByteArrayInputStream(out.toByteArray()));
+
+        // Then
+        assertEquals(1, exported);
+        assertEquals("{\"teamId\":\"Sales\",\"stepCount\":70,\"company\":\"Acme\"}\n",
+                out.toString(StandardCharsets.UTF_8));
+        assertEquals(1, result.getCreated());
+        assertEquals(70L, teamStepService.existingTenant("initech").getTeamSteps("Sales").getStepCount());
+        assertEquals(1, teamStepService.getTeamCount());
+    }
+
+    private static ByteArrayInputStream stream(String ndjson) {
+        return new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,22 +1,58 @@
 package com.example.assessemnt.service;
 
+import com.example.assessemnt.config.CounterProperties;
+import com.example.assessemnt.config.LeaderboardProperties;
+import com.example.assessemnt.dto.BatchStepsResult;
+import com.example.assessemnt.dto.GroupResponse;
 import com.example.assessemnt.dto.LeaderboardEntry;
+import com.example.assessemnt.dto.TeamRankResponse;
 import com.example.assessemnt.dto.TeamResponse;
+import com.example.assessemnt.dto.TeamStepsEntry;
+import com.example.assessemnt.exception.GroupNotFoundException;
 import com.example.assessemnt.exception.TeamNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedClass;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+@ParameterizedClass
+@MethodSource("variants")
 class TeamStepServiceTest {
 
+    private final TeamStepService.Options options;
     private TeamStepService teamStepService;
 
+    TeamStepServiceTest(TeamStepService.Options options) {
+        this.options = options;
+    }
+
+    static Stream<Arguments> variants() {
+        return Stream.of(
+                Arguments.argumentSet("atomic", new TeamStepService.Options()),
+                Arguments.argumentSet("striped", new TeamStepService.Options()
+                        .counters(new CounterProperties(CounterMode.STRIPED))),
+                Arguments.argumentSet("approximate", new TeamStepService.Options()
+                        .leaderboard(new LeaderboardProperties(Duration.ZERO, Duration.ofSeconds(1), 20,
+                                LeaderboardRanking.APPROXIMATE, 1000, 0.01))));
+    }
+
     @BeforeEach
     void setUp() {
-        teamStepService = new TeamStepService();
+        teamStepService = new TeamStepService(options);
     }
 
     @Test
@@ -57,6 +93,26 @@ class TeamStepServiceTest {
         });
     }
 
+    @Test
+    void createTeam_WithTooLongIds_ShouldThrowExceptionWithoutChanges() {
+        // Given
+        String tooLong = "x".repeat(TeamStepService.MAX_ID_LENGTH + 1);
+        List<TeamChange> changes = new ArrayList<>();
+        teamStepService.addChangeListener(changes::add);
+
+        // Then
+        assertThrows(IllegalArgumentException.class, () -> teamStepService.createTeam(tooLong));
+        assertThrows(IllegalArgumentException.class,
+                () -> teamStepService.createTeam("Engineering", tooLong, null));
+        assertThrows(IllegalArgumentException.class,
+                () -> teamStepService.createTeam("Engineering", null, tooLong));
+        assertThrows(IllegalArgumentException.class, () -> teamStepService.tenant(tooLong));
+        assertEquals(0, teamStepService.getTeamCount());
+        assertTrue(changes.isEmpty());
+        teamStepService.createTeam("x".repeat(TeamStepService.MAX_ID_LENGTH));
+        assertEquals(1, teamStepService.getTeamCount());
+    }
+
     @Test
     void createTeam_WithWhitespaceTeamId_ShouldThrowException() {
         // Then
@@ -161,6 +217,58 @@ class TeamStepServiceTest {
         });
     }
 
+    @Test
+    void addStepsBatch_ShouldCoalesceEntriesPerTeam() {
+        // Given
+        teamStepService.createTeam("Engineering");
+        teamStepService.createTeam("Sales");
+
+        // When
+        List<BatchStepsResult> results = teamStepService.addStepsBatch(List.of(
+                new TeamStepsEntry("Engineering", 1000L),
+                new TeamStepsEntry("Sales", 300L),
+                new TeamStepsEntry("Engineering", 500L)));
+
+        // Then
+        assertEquals(3, results.size());
+        assertEquals("Engineering", results.get(0).getTeamId());
+        assertEquals(BatchStepsResult.Status.APPLIED, results.get(0).getStatus());
+        assertEquals(1500L, results.get(0).getStepCount());
+        assertEquals(300L, results.get(1).getStepCount());
+        assertEquals(1500L, results.get(2).getStepCount());
+        assertEquals(1500L, teamStepService.getTeamSteps("Engineering").getStepCount());
+        assertEquals("Engineering", teamStepService.getLeaderboard().get(0).getTeamId());
+    }
+
+    @Test
+    void addStepsBatch_WithNonExistentTeam_ShouldReportItAndApplyOthers() {
+        // Given
+        teamStepService.createTeam("Engineering");
+
+        // When
+        List<BatchStepsResult> results = teamStepService.addStepsBatch(List.of(
+                new TeamStepsEntry("NonExistent", 1000L),
+                new TeamStepsEntry("Engineering", 200L)));
+
+        // Then
+        assertEquals(BatchStepsResult.Status.TEAM_NOT_FOUND, results.get(0).getStatus());
+        assertNull(results.get(0).getStepCount());
+        assertEquals(BatchStepsResult.Status.APPLIED, results.get(1).getStatus());
+        assertEquals(200L, teamStepService.getTeamSteps("Engineering").getStepCount());
+    }
+
+    @Test
+    void addStepsBatch_WithInvalidEntry_ShouldRejectWholeBatch() {
+        // Given
+        teamStepService.createTeam("Engineering");
+
+        // Then
+        assertThrows(IllegalArgumentException.class, () -> teamStepService.addStepsBatch(List.of(
+                new TeamStepsEntry("Engineering", 200L),
+                new TeamStepsEntry("Engineering", -1L))));
+        assertEquals(0L, teamStepService.getTeamSteps("Engineering").getStepCount());
+    }
+
     @Test
     void getTeamSteps_ShouldReturnCorrectStepCount() {
         // Given
@@ -256,6 +364,461 @@ class TeamStepServiceTest {
         assertEquals(1000L, leaderboard.get(1).getStepCount());
     }
 
+    @Test
+    void getLeaderboard_WithTiedScores_ShouldOrderByTeamId() {
+        // Given
+        teamStepService.createTeam("TeamB");
+        teamStepService.createTeam("TeamA");
+        teamStepService.addSteps("TeamB", 1000L);
+        teamStepService.addSteps("TeamA", 1000L);
+
+        // When
+        List<LeaderboardEntry> leaderboard = teamStepService.getLeaderboard();
+
+        // Then
+        assertEquals("TeamA", leaderboard.get(0).getTeamId());
+        assertEquals("TeamB", leaderboard.get(1).getTeamId());
+    }
+
+    @Test
+    void getLeaderboard_ShouldReflectLaterStepUpdates() {
+        // Given
+        teamStepService.createTeam("Engineering");
+        teamStepService.createTeam("Sales");
+        teamStepService.addSteps("Engineering", 5000L);
+        teamStepService.addSteps("Sales", 3000L);
+
+        // When
+        teamStepService.addSteps("Sales", 4000L);
+
+        // Then
+        List<LeaderboardEntry> leaderboard = teamStepService.getLeaderboard();
+        assertEquals(2, leaderboard.size());
+        assertEquals("Sales", leaderboard.get(0).getTeamId());
+        assertEquals(7000L, leaderboard.get(0).getStepCount());
+        assertEquals("Engineering", leaderboard.get(1).getTeamId());
+    }
+
+    @Test
+    void getLeaderboard_ShouldNotContainRemovedTeams() {
+        // Given
+        teamStepService.createTeam("Engineering");
+        teamStepService.createTeam("Sales");
+        teamStepService.addSteps("Sales", 3000L);
+
+        // When
+        teamStepService.removeTeam("Sales");
+
+        // Then
+        List<LeaderboardEntry> leaderboard = teamStepService.getLeaderboard();
+        assertEquals(1, leaderboard.size());
+        assertEquals("Engineering", leaderboard.get(0).getTeamId());
+    }
+
+    @Test
+    void concurrentAddSteps_ShouldKeepSingleLeaderboardEntryPerTeam() throws InterruptedException {
+        // Given
+        teamStepService.createTeam("Engineering");
+        teamStepService.createTeam("Sales");
+        int numberOfThreads = 8;
+        int stepsPerThread = 1000;
+        Thread[] threads = new Thread[numberOfThreads];
+
+        // When
+        for (int i = 0; i < numberOfThreads; i++) {
+            String teamId = i % 2 == 0 ? "Engineering" : "Sales";
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < stepsPerThread; j++) {
+                    teamStepService.addSteps(teamId, 1L);
+                }
+            });
+            threads[i].start();
+        }
+
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        // Then
+        List<LeaderboardEntry> leaderboard = teamStepService.getLeaderboard();
+        assertEquals(2, leaderboard.size());
+        assertEquals(4000L, leaderboard.get(0).getStepCount());
+        assertEquals(4000L, leaderboard.get(1).getStepCount());
+    }
+
+    @Test
+    void getLeaderboard_WithOffsetAndLimit_ShouldReturnPage() {
+        // Given
+        for (int i = 1; i <= 5; i++) {
+            teamStepService.createTeam("Team" + i);
+            teamStepService.addSteps("Team" + i, i * 100L);
+        }
+
+        // When
+        List<LeaderboardEntry> page = teamStepService.getLeaderboard(1, 2);
+
+        // Then
+        assertEquals(2, page.size());
+        assertEquals("Team4", page.get(0).getTeamId());
+        assertEquals("Team3", page.get(1).getTeamId());
+    }
+
+    @Test
+    void getLeaderboard_WithOffsetBeyondSize_ShouldReturnEmptyList() {
+        // Given
+        teamStepService.createTeam("Engineering");
+
+        // When
+        List<LeaderboardEntry> page = teamStepService.getLeaderboard(5, 10);
+
+        // Then
+        assertTrue(page.isEmpty());
+    }
+
+    @Test
+    void getLeaderboard_WithInvalidPaging_ShouldThrowException() {
+        // Then
+        assertThrows(IllegalArgumentException.class, () -> teamStepService.getLeaderboard(-1, 10));
+        assertThrows(IllegalArgumentException.class, () -> teamStepService.getLeaderboard(0, 0));
+    }
+
+    @Test
+    void getTopTeams_ShouldReturnHighestTeamsOnly() {
+        // Given
+        teamStepService.createTeam("Engineering");
+        teamStepService.createTeam("Sales");
+        teamStepService.createTeam("Marketing");
+        teamStepService.addSteps("Engineering", 5000L);
+        teamStepService.addSteps("Sales", 3000L);
+        teamStepService.addSteps("Marketing", 2000L);
+
+        // When
+        List<LeaderboardEntry> top = teamStepService.getTopTeams(2);
+
+        // Then
+        assertEquals(2, top.size());
+        assertEquals("Engineering", top.get(0).getTeamId());
+        assertEquals("Sales", top.get(1).getTeamId());
+    }
+
+    @Test
+    void getTeamRank_ShouldReturnPositionInLeaderboard() {
+        // Given
+        teamStepService.createTeam("Engineering");
+        teamStepService.createTeam("Sales");
+        teamStepService.createTeam("Marketing");
+        teamStepService.addSteps("Engineering", 5000L);
+        teamStepService.addSteps("Sales", 3000L);
+        teamStepService.addSteps("Marketing", 2000L);
+
+        // When
+        TeamRankResponse response = teamStepService.getTeamRank("Sales");
+
+        // Then
+        assertEquals("Sales", response.getTeamId());
+        assertEquals(3000L, response.getStepCount());
+        assertEquals(2, response.getRank());
+        assertEquals(3, response.getTotalTeams());
+    }
+
+    @Test
+    void getTeamRank_WithNonExistentTeam_ShouldThrowException() {
+        // Then
+        assertThrows(TeamNotFoundException.class, () -> {
+            teamStepService.getTeamRank("NonExistent");
+        });
+    }
+
+    @Test
+    void leaderboard_ShouldMatchSortedTeamsAfterRandomOperations() {
+        // Given
+        Random random = new Random(42);
+        Map<String, Long> expected = new HashMap<>();
+
+        // When
+        for (int i = 0; i < 5000; i++) {
+            String teamId = "Team" + random.nextInt(200);
+            int operation = random.nextInt(10);
+            if (operation == 0) {
+                teamStepService.createTeam(teamId);
+                expected.putIfAbsent(teamId, 0L);
+            } else if (operation == 1 && expected.containsKey(teamId)) {
+                teamStepService.removeTeam(teamId);
+                expected.remove(teamId);
+            } else if (expected.containsKey(teamId)) {
+                long steps = random.nextInt(50);
+                teamStepService.addSteps(teamId, steps);
+                expected.merge(teamId, steps, Long::sum);
+            }
+        }
+
+        // Then
+        List<Map.Entry<String, Long>> sorted = new ArrayList<>(expected.entrySet());
+        sorted.sort(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()));
+        List<LeaderboardEntry> leaderboard = teamStepService.getLeaderboard();
+        assertEquals(sorted.size(), leaderboard.size());
+        for (int i = 0; i < sorted.size(); i++) {
+            assertEquals(sorted.get(i).getKey(), leaderboard.get(i).getTeamId());
+            assertEquals(sorted.get(i).getValue(), leaderboard.get(i).getStepCount());
+            assertEquals(i + 1, teamStepService.getTeamRank(sorted.get(i).getKey()).getRank());
+        }
+        assertEquals(sorted.subList(10, 20).stream().map(Map.Entry::getKey).toList(),
+                teamStepService.getLeaderboard(10, 10).stream().map(LeaderboardEntry::getTeamId).toList());
+    }
+
+    @Test
+    void leaderboard_WithCountsAcrossManyRanges_ShouldPageAndRankExactly() {
+        // Given
+        Random random = new Random(7);
+        Map<String, Long> expected = new HashMap<>();
+        for (int i = 0; i < 600; i++) {
+            String teamId = "Team" + i;
+            long steps = random.nextInt(4) == 0 ? random.nextInt(100) : random.nextInt(2_000_000);
+            teamStepService.createTeam(teamId);
+            teamStepService.addSteps(teamId, steps);
+            expected.put(teamId, steps);
+        }
+        teamStepService.removeTeam("Team0");
+        expected.remove("Team0");
+
+        // When
+        List<Map.Entry<String, Long>> sorted = new ArrayList<>(expected.entrySet());
+        sorted.sort(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()));
+
+        // Then
+        for (int offset = 0; offset <= sorted.size(); offset += 7) {
+            List<String> page = teamStepService.getLeaderboard(offset, 5).stream()
+                    .map(LeaderboardEntry::getTeamId).toList();
+            assertEquals(sorted.subList(offset, Math.min(offset + 5, sorted.size())).stream()
+                    .map(Map.Entry::getKey).toList(), page);
+        }
+        for (int i = 0; i < sorted.size(); i++) {
+            assertEquals(i + 1, teamStepService.getTeamRank(sorted.get(i).getKey()).getRank());
+        }
+    }
+
+    @Test
+    void addSteps_FromManyThreads_ShouldLeaveLeaderboardOrdered() throws Exception {
+        // Given
+        for (int i = 0; i < 50; i++) {
+            teamStepService.createTeam("Team" + i);
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> writers = new ArrayList<>();
+
+        // When
+        for (int thread = 0; thread < 8; thread++) {
+            int seed = thread;
+            writers.add(executor.submit(() -> {
+                Random random = new Random(seed);
+                for (int i = 0; i < 5000; i++) {
+                    teamStepService.addSteps("Team" + random.nextInt(50), (long) random.nextInt(1000));
+                    if (i % 100 == 0) {
+                        teamStepService.getLeaderboard(10, 10);
+                    }
+                }
+            }));
+        }
+        for (Future<?> writer : writers) {
+            writer.get();
+        }
+        executor.shutdown();
+
+        // Then
+        List<LeaderboardEntry> leaderboard = teamStepService.getLeaderboard();
+        assertEquals(50, leaderboard.size());
+        for (int i = 0; i < leaderboard.size(); i++) {
+            LeaderboardEntry entry = leaderboard.get(i);
+            assertEquals(teamStepService.getTeamSteps(entry.getTeamId()).getStepCount(), entry.getStepCount());
+            assertEquals(i + 1, teamStepService.getTeamRank(entry.getTeamId()).getRank());
+            if (i > 0) {
+                assertTrue(leaderboard.get(i - 1).getStepCount() >= entry.getStepCount());
+            }
+        }
+    }
+
+    @Test
+    void removeTeam_WhileStepsAreAdded_ShouldKeepGroupTotalsExact() throws Exception {
+        // Given
+        teamStepService.createTeam("Steady", "Platform", "Acme");
+        teamStepService.addSteps("Steady", 5L);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        // When
+        for (int round = 0; round < 200; round++) {
+            String teamId = "Team" + round;
+            teamStepService.createTeam(teamId, "Platform", "Acme");
+            List<Future<?>> writers = new ArrayList<>();
+            for (int thread = 0; thread < 3; thread++) {
+                writers.add(executor.submit(() -> {
+                    try {
+                        for (int i = 0; i < 200; i++) {
+                            teamStepService.addSteps(teamId, 1L);
+                        }
+                    } catch (TeamNotFoundException e) {
+                        // removed mid-way
+                    }
+                }));
+            }
+            writers.add(executor.submit(() -> teamStepService.removeTeam(teamId)));
+            for (Future<?> writer : writers) {
+                writer.get();
+            }
+        }
+        executor.shutdown();
+
+        // Then
+        assertEquals(5L, teamStepService.getGroupSteps(GroupLevel.DEPARTMENT, "Platform").getStepCount());
+        assertEquals(5L, teamStepService.getGroupSteps(GroupLevel.COMPANY, "Acme").getStepCount());
+    }
+
+    @Test
+    void changeListener_ShouldReceiveMutations() {
+        // Given
+        List<TeamChange> changes = new ArrayList<>();
+        teamStepService.addChangeListener(changes::add);
+
+        // When
+        teamStepService.createTeam("Engineering");
+        teamStepService.createTeam("Engineering");
+        teamStepService.addSteps("Engineering", 1000L);
+        teamStepService.removeTeam("Engineering");
+
+        // Then
+        assertEquals(3, changes.size());
+        assertEquals(TeamChange.Type.CREATED, changes.get(0).type());
+        assertEquals(TeamChange.Type.STEPS_ADDED, changes.get(1).type());
+        assertEquals(1000L, changes.get(1).steps());
+        assertEquals(1000L, changes.get(1).stepCount());
+        assertEquals(TeamChange.Type.REMOVED, changes.get(2).type());
+        assertEquals(changes.get(0).generation(), changes.get(2).generation());
+    }
+
+    @Test
+    void apply_ShouldBeIdempotentAndTolerateReordering() {
+        // When
+        teamStepService.apply(TeamChange.stepsAdded("Engineering", 1, 500L, 1500L));
+        teamStepService.apply(TeamChange.created("Engineering", 1));
+        teamStepService.apply(TeamChange.stepsAdded("Engineering", 1, 1000L, 1000L));
+        teamStepService.apply(TeamChange.stepsAdded("Engineering", 1, 500L, 1500L));
+
+        // Then
+        assertEquals(1500L, teamStepService.getTeamSteps("Engineering").getStepCount());
+        assertEquals(1500L, teamStepService.getLeaderboard().get(0).getStepCount());
+    }
+
+    @Test
+    void apply_ShouldIgnoreChangesForRemovedGeneration() {
+        // When
+        teamStepService.apply(TeamChange.created("Engineering", 1));
+        teamStepService.apply(TeamChange.removed("Engineering", 1, 0L));
+        teamStepService.apply(TeamChange.stepsAdded("Engineering", 1, 10L, 10L));
+
+        // Then
+        assertThrows(TeamNotFoundException.class, () -> teamStepService.getTeamSteps("Engineering"));
+
+        // When - a later generation may be created again
+        teamStepService.apply(TeamChange.created("Engineering", 2));
+        teamStepService.createTeam("Sales");
+        teamStepService.removeTeam("Engineering");
+
+        // Then
+        assertTrue(teamStepService.getLeaderboard().stream().noneMatch(e -> e.getTeamId().equals("Engineering")));
+    }
+
+    @Test
+    void addSteps_ShouldRollUpIntoDepartmentAndCompany() {
+        // Given
+        teamStepService.createTeam("Backend", "Platform", "Acme");
+        teamStepService.createTeam("Frontend", "Platform", null);
+        teamStepService.createTeam("Sales", "Revenue", "Acme");
+        teamStepService.createTeam("Board", null, "Acme");
+
+        // When
+        teamStepService.addSteps("Backend", 1000L);
+        teamStepService.addSteps("Frontend", 500L);
+        teamStepService.addStepsBatch(List.of(new TeamStepsEntry("Sales", 2000L), new TeamStepsEntry("Board", 5L)));
+
+        // Then
+        GroupResponse platform = teamStepService.getGroupSteps(GroupLevel.DEPARTMENT, "Platform");
+        assertEquals(1500L, platform.getStepCount());
+        assertEquals("Acme", platform.getParentId());
+        assertEquals(2000L, teamStepService.getGroupSteps(GroupLevel.DEPARTMENT, "Revenue").getStepCount());
+        assertEquals(3505L, teamStepService.getGroupSteps(GroupLevel.COMPANY, "Acme").getStepCount());
+    }
+
+    @Test
+    void getGroupLeaderboard_ShouldRankGroupsOfEachLevel() {
+        // Given
+        teamStepService.createTeam("Backend", "Platform", "Acme");
+        teamStepService.createTeam("Sales", "Revenue", "Acme");
+        teamStepService.createTeam("Support", "Care", "Globex");
+        teamStepService.addSteps("Backend", 1000L);
+        teamStepService.addSteps("Sales", 3000L);
+        teamStepService.addSteps("Support", 3500L);
+
+        // When
+        List<LeaderboardEntry> departments = teamStepService.getGroupLeaderboard(GroupLevel.DEPARTMENT, 0, 10);
+        List<LeaderboardEntry> companies = teamStepService.getGroupLeaderboard(GroupLevel.COMPANY, 0, 1);
+
+        // Then
+        assertEquals(List.of("Care", "Revenue", "Platform"),
+                departments.stream().map(LeaderboardEntry::getTeamId).toList());
+        assertEquals(1, companies.size());
+        assertEquals("Acme", companies.get(0).getTeamId());
+        assertEquals(4000L, companies.get(0).getStepCount());
+    }
+
+    @Test
+    void removeTeam_ShouldSubtractItsStepsFromGroups() {
+        // Given
+        teamStepService.createTeam("Backend", "Platform", "Acme");
+        teamStepService.createTeam("Frontend", "Platform", "Acme");
+        teamStepService.addSteps("Backend", 1000L);
+        teamStepService.addSteps("Frontend", 500L);
+
+        // When
+        teamStepService.removeTeam("Backend");
+
+        // Then
+        assertEquals(500L, teamStepService.getGroupSteps(GroupLevel.DEPARTMENT, "Platform").getStepCount());
+        assertEquals(500L, teamStepService.getGroupLeaderboard(GroupLevel.COMPANY, 0, 1).get(0).getStepCount());
+    }
+
+    @Test
+    void createTeam_WithDepartmentOfAnotherCompany_ShouldThrowException() {
+        // Given
+        teamStepService.createTeam("Backend", "Platform", "Acme");
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class,
+                () -> teamStepService.createTeam("Frontend", "Platform", "Globex"));
+        assertThrows(TeamNotFoundException.class, () -> teamStepService.getTeamSteps("Frontend"));
+    }
+
+    @Test
+    void getGroupSteps_WithUnknownGroup_ShouldThrowException() {
+        // When & Then
+        assertThrows(GroupNotFoundException.class,
+                () -> teamStepService.getGroupSteps(GroupLevel.COMPANY, "Nobody"));
+    }
+
+    @Test
+    void apply_ShouldRestoreGroupTotals() {
+        // When
+        teamStepService.apply(TeamChange.created("Backend", 1, "Platform", "Acme"));
+        teamStepService.apply(TeamChange.stepsAdded("Backend", 1, 300L, 300L));
+        teamStepService.apply(TeamChange.state("Frontend", 2, 200L, "Platform", "Acme"));
+        teamStepService.apply(TeamChange.stepsAdded("Backend", 1, 300L, 300L));
+
+        // Then
+        assertEquals(500L, teamStepService.getGroupSteps(GroupLevel.COMPANY, "Acme").getStepCount());
+        List<TeamChange> state = new ArrayList<>();
+        teamStepService.forEachTeam(state::add);
+        assertTrue(state.stream().allMatch(change -> "Platform".equals(change.department())
+                && "Acme".equals(change.company())));
+    }
+
     @Test
     void concurrentAddSteps_ShouldNotLoseSteps() throws InterruptedException {
         // Given
@@ -282,5 +845,46 @@ class TeamStepServiceTest {
         TeamResponse response = teamStepService.getTeamSteps("Engineering");
         assertEquals((long) numberOfThreads * stepsPerThread, response.getStepCount());
     }
-}
 
+    @Test
+    void addSteps_WithRepeatedIdempotencyKey_ShouldApplyOnce() {
+        // Given
+        teamStepService.createTeam("Engineering");
+
+        // When
+        boolean first = teamStepService.addSteps("Engineering", 100L, "retry-1");
+        boolean second = teamStepService.addSteps("Engineering", 100L, "retry-1");
+
+        // Then
+        assertTrue(first);
+        assertFalse(second);
+        assertEquals(100L, teamStepService.getTeamSteps("Engineering").getStepCount());
+        assertEquals(1, teamStepService.getDuplicateSubmissionCount());
+    }
+
+    @Test
+    void addSteps_WithIdempotencyKeyForMissingTeam_ShouldNotRecordKey() {
+        // Given
+        assertThrows(TeamNotFoundException.class, () -> teamStepService.addSteps("Engineering", 100L, "retry-1"));
+        teamStepService.createTeam("Engineering");
+
+        // When
+        boolean applied = teamStepService.addSteps("Engineering", 100L, "retry-1");
+
+        // Then
+        assertTrue(applied);
+        assertEquals(100L, teamStepService.getTeamSteps("Engineering").getStepCount());
+    }
+
+    @Test
+    void getTeamSteps_WithUnknownTeam_ShouldThrowWithoutStackTrace() {
+        // When
+        TeamNotFoundException exception =
+                assertThrows(TeamNotFoundException.class, () -> teamStepService.getTeamSteps("Deleted"));
+
+        // Then
+        assertEquals("Team not found: Deleted", exception.getMessage());
+        assertEquals("Deleted", exception.getTeamId());
+        assertEquals(0, exception.getStackTrace().length);
+    }
+}
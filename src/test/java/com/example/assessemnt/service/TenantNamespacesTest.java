@@ -0,0 +1,156 @@
+package com.example.assessemnt.service;
+
+import com.example.assessemnt.config.TenantProperties;
+import com.example.assessemnt.config.TenantQuota;
+import com.example.assessemnt.dto.TeamStepsEntry;
+import com.example.assessemnt.exception.QuotaExceededException;
+import com.example.assessemnt.exception.TeamNotFoundException;
+import com.example.assessemnt.exception.TenantNotFoundException;
+import com.example.assessemnt.exception.TooManyRequestsException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TenantNamespacesTest {
+
+    @Test
+    void tenant_ShouldKeepTeamsAndLeaderboardsSeparate() {
+        // Given
+        TeamStepService service = new TeamStepService();
+        service.createTeam("Engineering");
+        service.addSteps("Engineering", 10L);
+        service.tenant("acme").createTeam("Engineering");
+        service.tenant("acme").createTeam("Sales");
+        service.tenant("acme").addSteps("Engineering", 500L);
+        service.tenant("globex").createTeam("Support");
+
+        // When & Then
+        assertEquals(10L, service.getTeamSteps("Engineering").getStepCount());
+        assertEquals(500L, service.tenant("acme").getTeamSteps("Engineering").getStepCount());
+        assertEquals(List.of("Engineering", "Sales"),
+                service.tenant("acme").getLeaderboard().stream().map(entry -> entry.getTeamId()).toList());
+        assertEquals(List.of("Support"),
+                service.tenant("globex").getLeaderboard().stream().map(entry -> entry.getTeamId()).toList());
+        assertEquals(1, service.getLeaderboard().size());
+        assertThrows(TeamNotFoundException.class, () -> service.tenant("globex").getTeamSteps("Engineering"));
+        assertEquals(2, service.getTenantCount());
+        assertEquals(510L, service.getStepsAddedTotal());
+    }
+
+    @Test
+    void existingTenant_WhenUnknown_ShouldThrow() {
+        // Given
+        TeamStepService service = new TeamStepService();
+
+        // When & Then
+        assertThrows(TenantNotFoundException.class, () -> service.existingTenant("acme"));
+        assertThrows(IllegalArgumentException.class, () -> service.tenant(" "));
+        assertThrows(IllegalStateException.class, () -> service.tenant("acme").tenant("nested"));
+    }
+
+    @Test
+    void createTeam_AtTeamQuota_ShouldBeRejected() {
+        // Given
+        TeamStepService service = withTenants(new TenantProperties(10, 2, 0,
+                Map.of("big", new TenantQuota(3, null))));
+        TeamStepService small = service.tenant("small");
+        small.createTeam("A");
+        small.createTeam("B");
+
+        // When & Then
+        assertThrows(QuotaExceededException.class, () -> small.createTeam("C"));
+        small.createTeam("A");
+        small.removeTeam("B");
+        small.createTeam("C");
+        service.tenant("big").createTeam("A");
+        service.tenant("big").createTeam("B");
+        service.tenant("big").createTeam("C");
+        assertEquals(3, service.tenant("big").getMaxTeams());
+        assertEquals(1, service.getQuotaRejectionCount());
+    }
+
+    @Test
+    void tenant_BeyondTenantLimit_ShouldBeRejected() {
+        // Given
+        TeamStepService service = withTenants(new TenantProperties(2, 0, 0, null));
+        service.tenant("acme");
+        service.tenant("globex");
+
+        // When & Then
+        assertThrows(QuotaExceededException.class, () -> service.tenant("initech"));
+        service.apply(TeamChange.created("Sales", 1).withTenant("initech"));
+        assertEquals(1, service.existingTenant("initech").getTeamCount());
+    }
+
+    @Test
+    void addSteps_OverIngestionRate_ShouldThrowTooManyRequests() {
+        // Given
+        TeamStepService service = withTenants(new TenantProperties(10, 0, 3, null));
+        TeamStepService tenant = service.tenant("acme");
+        tenant.createTeam("Engineering");
+        tenant.createTeam("Sales");
+        tenant.addSteps("Engineering", 1L);
+
+        // When
+        tenant.addStepsBatch(List.of(new TeamStepsEntry("Engineering", 1L),
+                new TeamStepsEntry("Sales", 1L)));
+        TooManyRequestsException rejected = assertThrows(TooManyRequestsException.class,
+                () -> tenant.addSteps("Engineering", 1L, "key-1"));
+
+        // Then
+        assertTrue(rejected.getRetryAfter().toMillis() > 0);
+        assertEquals(2L, tenant.getTeamSteps("Engineering").getStepCount());
+        assertEquals(1, service.getQuotaRejectionCount());
+    }
+
+    @Test
+    void addSteps_WithSameIdempotencyKeyInAnotherTenant_ShouldApply() {
+        // Given
+        TeamStepService service = new TeamStepService();
+        service.createTeam("Engineering");
+        service.tenant("acme").createTeam("Engineering");
+        service.addSteps("Engineering", 5L, "key-1");
+
+        // When
+        boolean applied = service.tenant("acme").addSteps("Engineering", 5L, "key-1");
+
+        // Then
+        assertTrue(applied);
+        assertFalse(service.tenant("acme").addSteps("Engineering", 5L, "key-1"));
+        assertEquals(5L, service.tenant("acme").getTeamSteps("Engineering").getStepCount());
+    }
+
+    @Test
+    void changes_ShouldCarryTenantAndApplyToTheSameNamespace() {
+        // Given
+        TeamStepService service = new TeamStepService();
+        List<TeamChange> changes = new ArrayList<>();
+        service.addChangeListener(changes::add);
+        service.tenant("acme").createTeam("Engineering", "Platform", null);
+        service.tenant("acme").addSteps("Engineering", 40L);
+        service.createTeam("Sales");
+
+        // When
+        TeamStepService copy = new TeamStepService();
+        changes.forEach(copy::apply);
+        List<TeamChange> state = new ArrayList<>();
+        copy.forEachTeam(state::add);
+
+        // Then
+        assertEquals(List.of("acme", "acme", "default"),
+                changes.stream().map(change -> change.tenant() == null ? "default" : change.tenant()).toList());
+        assertEquals(40L, copy.existingTenant("acme").getTeamSteps("Engineering").getStepCount());
+        assertEquals(1, copy.getTeamCount());
+        assertEquals(2, state.size());
+        assertTrue(state.contains(TeamChange.state("Engineering", 1, 40L, "Platform", null).withTenant("acme")),
+                state.toString());
+    }
+
+    private static TeamStepService withTenants(TenantProperties tenantProperties) {
+        return new TeamStepService(new TeamStepService.Options().tenants(tenantProperties));
+    }
+}
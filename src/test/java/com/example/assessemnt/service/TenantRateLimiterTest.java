@@ -0,0 +1,44 @@
+package com.example.assessemnt.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TenantRateLimiterTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000_000L);
+    private final TenantRateLimiter limiter = new TenantRateLimiter(10, now::get);
+
+    @Test
+    void tryAcquire_WithinBurst_ShouldSucceedThenReportWait() {
+        // When & Then
+        assertEquals(0, limiter.tryAcquire(6));
+        assertEquals(0, limiter.tryAcquire(4));
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(100), limiter.tryAcquire(1));
+    }
+
+    @Test
+    void tryAcquire_AfterWaiting_ShouldSucceedAgain() {
+        // Given
+        limiter.tryAcquire(10);
+
+        // When
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(300));
+
+        // Then
+        assertEquals(0, limiter.tryAcquire(3));
+        assertTrue(limiter.tryAcquire(1) > 0);
+    }
+
+    @Test
+    void tryAcquire_MoreThanBurst_ShouldPassWhenFullAndThenBlock() {
+        // When & Then
+        assertEquals(0, limiter.tryAcquire(25));
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(1600), limiter.tryAcquire(1));
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(1600));
+        assertEquals(0, limiter.tryAcquire(1));
+    }
+}
@@ -0,0 +1,221 @@
+package com.example.assessemnt.service;
+
+import com.example.assessemnt.dto.HistoryPoint;
+import com.example.assessemnt.dto.LeaderboardEntry;
+import com.example.assessemnt.dto.TeamHistoryResponse;
+import com.example.assessemnt.dto.TeamRankResponse;
+import com.example.assessemnt.dto.TeamStepsEntry;
+import com.example.assessemnt.exception.TeamNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WindowedStepsTest {
+
+    // a Wednesday
+    private static final Instant START = Instant.parse("2024-05-15T10:00:00Z");
+
+    private MutableClock clock;
+    private TeamStepService teamStepService;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(START);
+        teamStepService = new TeamStepService(new TeamStepService.Options().clock(clock));
+    }
+
+    @Test
+    void getTeamSteps_DayWindow_ShouldOnlyCountToday() {
+        // Given
+        teamStepService.createTeam("Engineering");
+        teamStepService.addSteps("Engineering", 1000L);
+        clock.advance(Duration.ofDays(1));
+
+        // When
+        teamStepService.addSteps("Engineering", 300L);
+
+        // Then
+        assertEquals(300L, teamStepService.getTeamSteps("Engineering", StepWindow.DAY).getStepCount());
+        assertEquals(1300L, teamStepService.getTeamSteps("Engineering", StepWindow.WEEK).getStepCount());
+        assertEquals(1300L, teamStepService.getTeamSteps("Engineering", StepWindow.ALL).getStepCount());
+    }
+
+    @Test
+    void getTeamSteps_WeekWindow_ShouldResetOnFirstDayOfWeek() {
+        // Given
+        teamStepService.createTeam("Engineering");
+        teamStepService.addSteps("Engineering", 1000L);
+
+        // When - Wednesday to the following Monday
+        clock.advance(Duration.ofDays(5));
+        teamStepService.addSteps("Engineering", 200L);
+
+        // Then
+        assertEquals(200L, teamStepService.getTeamSteps("Engineering", StepWindow.WEEK).getStepCount());
+        assertEquals(1200L, teamStepService.getTeamSteps("Engineering", StepWindow.ALL).getStepCount());
+    }
+
+    @Test
+    void getTeamSteps_AfterBucketSlotIsReused_ShouldNotCountOldDay() {
+        // Given
+        teamStepService.createTeam("Engineering");
+        teamStepService.addSteps("Engineering", 1000L);
+
+        // When
+        clock.advance(Duration.ofDays(7));
+        teamStepService.addSteps("Engineering", 50L);
+
+        // Then
+        assertEquals(50L, teamStepService.getTeamSteps("Engineering", StepWindow.DAY).getStepCount());
+        assertEquals(50L, teamStepService.getTeamSteps("Engineering", StepWindow.WEEK).getStepCount());
+    }
+
+    @Test
+    void getLeaderboard_DayWindow_ShouldRankByTodaysSteps() {
+        // Given
+        teamStepService.createTeam("Engineering");
+        teamStepService.createTeam("Sales");
+        teamStepService.createTeam("Marketing");
+        teamStepService.addSteps("Engineering", 5000L);
+        clock.advance(Duration.ofDays(1));
+        teamStepService.addSteps("Sales", 300L);
+        teamStepService.addSteps("Marketing", 300L);
+        teamStepService.addSteps("Engineering", 100L);
+
+        // When
+        List<LeaderboardEntry> day = teamStepService.getLeaderboard(0, 10, StepWindow.DAY);
+        List<LeaderboardEntry> page = teamStepService.getLeaderboard(1, 1, StepWindow.DAY);
+
+        // Then
+        assertEquals(List.of("Marketing", "Sales", "Engineering"),
+                day.stream().map(LeaderboardEntry::getTeamId).toList());
+        assertEquals(100L, day.get(2).getStepCount());
+        assertEquals(1, page.size());
+        assertEquals("Sales", page.get(0).getTeamId());
+        assertEquals("Engineering", teamStepService.getLeaderboard(0, 1, StepWindow.ALL).get(0).getTeamId());
+    }
+
+    @Test
+    void getLeaderboard_DayWindow_OffsetPastEnd_ShouldReturnEmpty() {
+        // Given
+        teamStepService.createTeam("Engineering");
+
+        // Then
+        assertTrue(teamStepService.getLeaderboard(5, 10, StepWindow.DAY).isEmpty());
+    }
+
+    @Test
+    void getTeamRank_WeekWindow_ShouldRankAgainstWeeklyTotals() {
+        // Given
+        teamStepService.createTeam("Engineering");
+        teamStepService.createTeam("Sales");
+        teamStepService.addSteps("Engineering", 5000L);
+        clock.advance(Duration.ofDays(7));
+        teamStepService.addSteps("Sales", 10L);
+
+        // When
+        TeamRankResponse response = teamStepService.getTeamRank("Engineering", StepWindow.WEEK);
+
+        // Then
+        assertEquals(0L, response.getStepCount());
+        assertEquals(2, response.getRank());
+        assertEquals(2, response.getTotalTeams());
+        assertEquals(1, teamStepService.getTeamRank("Engineering", StepWindow.ALL).getRank());
+    }
+
+    @Test
+    void addStepsBatch_ShouldCountTowardsWindows() {
+        // Given
+        teamStepService.createTeam("Engineering");
+
+        // When
+        teamStepService.addStepsBatch(List.of(new TeamStepsEntry("Engineering", 700L)));
+
+        // Then
+        assertEquals(700L, teamStepService.getTeamSteps("Engineering", StepWindow.DAY).getStepCount());
+    }
+
+    @Test
+    void stepWindow_From_ShouldParseCaseInsensitivelyAndRejectUnknown() {
+        // Then
+        assertEquals(StepWindow.ALL, StepWindow.from(null));
+        assertEquals(StepWindow.WEEK, StepWindow.from("Week"));
+        assertThrows(IllegalArgumentException.class, () -> StepWindow.from("month"));
+    }
+
+    @Test
+    void getTeamHistory_ShouldReturnStepsPerStepIncludingEmptyOnes() {
+        // Given
+        teamStepService.createTeam("Engineering");
+        teamStepService.addSteps("Engineering", 100L);
+        clock.advance(Duration.ofHours(2));
+        teamStepService.addStepsBatch(List.of(new TeamStepsEntry("Engineering", 30L)));
+        clock.advance(Duration.ofDays(1));
+        teamStepService.addSteps("Engineering", 5L);
+
+        // When
+        TeamHistoryResponse hourly = teamStepService.getTeamHistory("Engineering", START,
+                START.plus(Duration.ofHours(4)), Duration.ofHours(1));
+        TeamHistoryResponse daily = teamStepService.getTeamHistory("Engineering", null, null, null);
+
+        // Then
+        assertEquals(List.of(100L, 0L, 30L, 0L), hourly.getPoints().stream().map(HistoryPoint::getSteps).toList());
+        assertEquals(START.plus(Duration.ofHours(2)), hourly.getPoints().get(2).getStart());
+        assertEquals("PT1H", hourly.getStep());
+        assertEquals(30, daily.getPoints().size());
+        assertEquals(135L, daily.getPoints().stream().mapToLong(HistoryPoint::getSteps).sum());
+    }
+
+    @Test
+    void getTeamHistory_InvalidRequest_ShouldThrow() {
+        // Given
+        teamStepService.createTeam("Engineering");
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () ->
+                teamStepService.getTeamHistory("Engineering", null, null, Duration.ofMinutes(90)));
+        assertThrows(IllegalArgumentException.class, () ->
+                teamStepService.getTeamHistory("Engineering", START, START.minusSeconds(1), null));
+        assertThrows(IllegalArgumentException.class, () ->
+                teamStepService.getTeamHistory("Engineering", START.minus(Duration.ofDays(3650)), START,
+                        Duration.ofHours(1)));
+        assertThrows(TeamNotFoundException.class, () ->
+                teamStepService.getTeamHistory("Missing", null, null, null));
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        private void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}